@@ -0,0 +1,78 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The java.math.BigInteger baseline for {@link UnboundedIntBenchmark}, running the same operations on the same digits.
+ * BigInteger is immutable, so its clone is measured as a copy through {@code add(BigInteger.ZERO)}, which is the
+ * closest it has.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BigIntegerBaselineBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int digits;
+
+    private String firstDigits;
+    private BigInteger first;
+    private BigInteger second;
+    private BigInteger firstCopy;
+
+    @Setup
+    public void setUp() {
+        firstDigits = Operands.randomDigits(digits, 1);
+        first = new BigInteger(firstDigits);
+        second = new BigInteger(Operands.randomDigits(digits, 2));
+        firstCopy = new BigInteger(firstDigits);
+    }
+
+    @Benchmark
+    public BigInteger construct() {
+        return new BigInteger(firstDigits);
+    }
+
+    @Benchmark
+    public BigInteger add() {
+        return first.add(second);
+    }
+
+    @Benchmark
+    public BigInteger multiply() {
+        return first.multiply(second);
+    }
+
+    @Benchmark
+    public boolean equals() {
+        return first.equals(firstCopy);
+    }
+
+    @Benchmark
+    public BigInteger cloneValue() {
+        return first.add(BigInteger.ZERO);
+    }
+
+    @Benchmark
+    public String toStringValue() {
+        return first.toString();
+    }
+}
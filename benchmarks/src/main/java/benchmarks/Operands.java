@@ -0,0 +1,33 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * The Operands class builds the random decimal inputs shared by the benchmarks, so UnboundedInt and the BigInteger
+ * baseline always work on the same digits.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class Operands {
+    private Operands() {
+    }
+
+    /**
+     * Method to build a random number with an exact number of digits
+     *
+     * @param digits The number of digits
+     * @param seed The seed for the random digits, so every run uses the same inputs
+     *
+     * @return The digits of the number, the first one is never 0
+     */
+    static String randomDigits(int digits, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        char[] chars = new char[digits];
+        chars[0] = (char) ('1' + random.nextInt(9));
+        for (int i = 1; i < digits; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+}
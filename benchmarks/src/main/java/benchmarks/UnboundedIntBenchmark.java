@@ -0,0 +1,77 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the operations of UnboundedInt, with inputs from 10 to 10^7 digits. Compare the results with
+ * {@link BigIntegerBaselineBenchmark}, which runs the same operations on the same digits.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnboundedIntBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int digits;
+
+    private String firstDigits;
+    private Object first;
+    private Object second;
+    private Object firstCopy;
+
+    @Setup
+    public void setUp() throws Throwable {
+        firstDigits = Operands.randomDigits(digits, 1);
+        first = UnboundedIntHandles.NEW_FROM_STRING.invokeExact(firstDigits);
+        second = UnboundedIntHandles.NEW_FROM_STRING.invokeExact(Operands.randomDigits(digits, 2));
+        firstCopy = UnboundedIntHandles.NEW_FROM_STRING.invokeExact(firstDigits);
+    }
+
+    @Benchmark
+    public Object construct() throws Throwable {
+        return (Object) UnboundedIntHandles.NEW_FROM_STRING.invokeExact(firstDigits);
+    }
+
+    @Benchmark
+    public Object add() throws Throwable {
+        return (Object) UnboundedIntHandles.ADD.invokeExact(first, second);
+    }
+
+    @Benchmark
+    public Object multiply() throws Throwable {
+        return (Object) UnboundedIntHandles.MULTIPLY.invokeExact(first, second);
+    }
+
+    @Benchmark
+    public boolean equals() throws Throwable {
+        // equal values of the same length are the slowest case, every limb has to be compared
+        return (boolean) UnboundedIntHandles.EQUALS.invokeExact(first, firstCopy);
+    }
+
+    @Benchmark
+    public Object cloneValue() throws Throwable {
+        return (Object) UnboundedIntHandles.CLONE.invokeExact(first);
+    }
+
+    @Benchmark
+    public String toStringValue() throws Throwable {
+        return (String) UnboundedIntHandles.TO_STRING.invokeExact(first);
+    }
+}
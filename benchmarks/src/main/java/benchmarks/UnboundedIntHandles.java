@@ -0,0 +1,48 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * The UnboundedIntHandles class gives the benchmarks access to {@code UnboundedInt}. UnboundedInt lives in the default
+ * package, which cannot be imported from a named package, and JMH refuses benchmarks in the default package, so the
+ * operations are reached through method handles instead. The handles are static final, so the JIT inlines them and
+ * the benchmarks measure the operations themselves.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class UnboundedIntHandles {
+    static final MethodHandle NEW_FROM_STRING;
+    static final MethodHandle ADD;
+    static final MethodHandle MULTIPLY;
+    static final MethodHandle EQUALS;
+    static final MethodHandle CLONE;
+    static final MethodHandle TO_STRING;
+
+    static {
+        try {
+            Class<?> type = Class.forName("UnboundedInt");
+            // multiply is package private, so a private lookup is needed to reach it from here
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodType binary = MethodType.methodType(Object.class, Object.class, Object.class);
+            NEW_FROM_STRING = lookup.findConstructor(type, MethodType.methodType(void.class, String.class))
+                                    .asType(MethodType.methodType(Object.class, String.class));
+            ADD = lookup.findVirtual(type, "add", MethodType.methodType(type, type)).asType(binary);
+            MULTIPLY = lookup.findVirtual(type, "multiply", MethodType.methodType(type, type)).asType(binary);
+            EQUALS = lookup.findVirtual(type, "equals", MethodType.methodType(boolean.class, Object.class))
+                           .asType(MethodType.methodType(boolean.class, Object.class, Object.class));
+            CLONE = lookup.findVirtual(type, "clone", MethodType.methodType(type))
+                          .asType(MethodType.methodType(Object.class, Object.class));
+            TO_STRING = lookup.findVirtual(type, "toString", MethodType.methodType(String.class))
+                              .asType(MethodType.methodType(String.class, Object.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private UnboundedIntHandles() {
+    }
+}
@@ -0,0 +1,145 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The DigitStreamParser class builds an unbounded int from ASCII decimal digits that arrive in pieces, such as the
+ * buffers read from a file or a socket. Every byte is checked as it arrives and every 9 digits are packed into a limb
+ * straight away, so the only memory that grows with the input is the limb array itself.
+ * <p>
+ * The digits arrive most significant first, so the limbs are first filled in reading order, 9 digits each from the
+ * front of the number. Once the last digit is seen the array is reversed and shifted by the number of digits left over
+ * in the last partial limb, in place, to line the limbs up with the end of the number.
+ * <p>
+ * The input follows the rules of the {@link UnboundedInt#UnboundedInt(String)} constructor, except that whitespace
+ * such as a final line break is allowed after the last digit.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class DigitStreamParser {
+    private static final int BASE = UnboundedInt.BASE;
+    private static final int DIGITS_PER_LIMB = UnboundedInt.DIGITS_PER_LIMB;
+    private static final int[] POWERS_OF_TEN = UnboundedInt.POWERS_OF_TEN;
+
+    //Invariant:
+    //limbs[0] to limbs[count - 1] hold the full runs of 9 digits read so far, in reading order
+    //partial holds the value of the partialDigits digits read since the last full run
+    private int[] limbs;
+    private int count;
+    private int partial;
+    private int partialDigits;
+    private boolean started;
+    private boolean negative;
+    private boolean sawDigit;
+    private boolean finishedDigits;
+    //when parsing started, for the metrics
+    private final long start = Instrumentation.start();
+
+
+    /**
+     * Constructor for the DigitStreamParser class
+     *
+     * @param expectedDigits How many digits the input is expected to hold, used to size the limb array up front (0 if
+     * unknown)
+     */
+    DigitStreamParser(long expectedDigits) {
+        long expectedLimbs = expectedDigits / DIGITS_PER_LIMB + 2;
+        limbs = new int[(int) Math.min(Math.max(expectedLimbs, 16), Integer.MAX_VALUE - 8)];
+    }
+
+    /**
+     * Method to read every remaining byte of a buffer
+     *
+     * @param bytes The buffer, read from its position to its limit
+     *
+     * @throws IllegalArgumentException If a byte is not allowed where it appears
+     * <dt><b>Postcondition</b>The position of bytes is at its limit</dt>
+     */
+    void accept(ByteBuffer bytes) {
+        while (bytes.hasRemaining()) {
+            int b = bytes.get();
+            int digit = b - '0';
+            if (digit >= 0 && digit <= 9 && !finishedDigits) {
+                sawDigit = true;
+                partial = partial * 10 + digit;
+                if (++partialDigits == DIGITS_PER_LIMB) {
+                    push(partial);
+                    partial = 0;
+                    partialDigits = 0;
+                }
+            }
+            else if (b == '-' && !started) {
+                negative = true;
+            }
+            else if (sawDigit && isWhitespace(b)) {
+                finishedDigits = true; // only more whitespace may follow
+            }
+            else {
+                throw new IllegalArgumentException("UnboundedInt must only contain digits");
+            }
+            started = true;
+        }
+    }
+
+    /**
+     * Method to finish the input and build the unbounded int
+     *
+     * @return A new unbounded int holding the digits that were read
+     *
+     * @throws IllegalArgumentException If no digits were read, or the digits had a minus sign in front of them
+     */
+    UnboundedInt finish() {
+        if (!sawDigit) {
+            throw new IllegalArgumentException(started ? "UnboundedInt must only contain digits"
+                                                       : "UnboundedInt cannot be empty");
+        }
+        //guard clause to check if the unboundedInt is a positive number
+        if (negative) {
+            throw new IllegalArgumentException("UnboundedInt must be a positive number");
+        }
+
+        // reverse the full runs so the least significant one comes first
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int swap = limbs[i];
+            limbs[i] = limbs[j];
+            limbs[j] = swap;
+        }
+        // then multiply them by 10^partialDigits and add the partial run, one limb at a time from the bottom
+        long scale = POWERS_OF_TEN[partialDigits];
+        long carry = partial;
+        for (int i = 0; i < count; i++) {
+            long value = limbs[i] * scale + carry;
+            carry = value / BASE;
+            limbs[i] = (int) (value - carry * BASE);
+        }
+        if (carry != 0 || count == 0) {
+            push((int) carry);
+        }
+        Instrumentation.record(UnboundedIntMetrics.Operation.PARSE, start, count, 0, limbs.length);
+        return new UnboundedInt(limbs, count);
+    }
+
+    /**
+     * Method to add a limb after the ones read so far, growing the array by half when it is full so that the spare
+     * room stays small compared to the number itself
+     *
+     * @param value The limb to add
+     */
+    private void push(int value) {
+        if (count == limbs.length) {
+            limbs = Arrays.copyOf(limbs, limbs.length + (limbs.length >> 1) + 1);
+        }
+        limbs[count++] = value;
+    }
+
+    /**
+     * Method to check if a byte is ASCII whitespace
+     *
+     * @param b The byte
+     *
+     * @return Whether b is a space, tab, line feed or carriage return
+     */
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
@@ -0,0 +1,164 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.Timespan;
+
+/**
+ * The Instrumentation class is where the arithmetic reports its operations to the installed
+ * {@link UnboundedIntMetrics} registry and to JDK Flight Recorder. An operation calls {@link #start()} before it
+ * begins and one of the record methods when it is done. While there is no registry and no recording wants the events,
+ * start() returns 0 without reading the clock and the record methods return straight away, so the whole cost is a
+ * read of one flag.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class Instrumentation {
+    private static volatile UnboundedIntMetrics metrics;
+    private static volatile boolean eventsEnabled;
+    //true if there is a registry or the events are enabled, the only flag read when both are off
+    private static volatile boolean active;
+
+    static {
+        // a recording starting or stopping may turn the events on or off
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Method to change the registry that records are sent to
+     *
+     * @param registry The registry, or null to stop sending records to one
+     */
+    static synchronized void install(UnboundedIntMetrics registry) {
+        metrics = registry;
+        active = registry != null || eventsEnabled;
+    }
+
+    /**
+     * Method to get the registry that records are sent to
+     *
+     * @return The installed registry, or null if there is none
+     */
+    static UnboundedIntMetrics installed() {
+        return metrics;
+    }
+
+    /**
+     * Method to mark the start of an operation
+     *
+     * @return The time the operation started in nanoseconds, or 0 if nothing is being recorded
+     */
+    static long start() {
+        return active ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Method to record an operation that has finished. Operations that started while nothing was being recorded are
+     * not recorded.
+     *
+     * @param operation The operation
+     * @param start The value start() returned when the operation began
+     * @param leftLimbs The number of limbs of the first operand, or of the value parsed or converted to a string
+     * @param rightLimbs The number of limbs of the second operand, 0 if there is none
+     * @param resultLimbs The number of limbs allocated for the unbounded int the operation made, 0 if it did not
+     * make one
+     */
+    static void record(UnboundedIntMetrics.Operation operation, long start, int leftLimbs, int rightLimbs,
+                       int resultLimbs) {
+        if (active && start != 0) {
+            recordOperation(operation, System.nanoTime() - start, leftLimbs, rightLimbs, resultLimbs);
+        }
+    }
+
+    /**
+     * Method to record IntNodes that were allocated
+     *
+     * @param nodes The number of IntNodes
+     */
+    static void recordNodes(long nodes) {
+        UnboundedIntMetrics registry = metrics;
+        if (registry != null) {
+            registry.recordAllocation(0, nodes);
+        }
+    }
+
+    /**
+     * Method to send a finished operation to the registry and to Flight Recorder, kept apart from record so the check
+     * in record stays small enough to inline everywhere
+     *
+     * @param operation The operation
+     * @param nanos How long the operation took, in nanoseconds
+     * @param leftLimbs The number of limbs of the first operand
+     * @param rightLimbs The number of limbs of the second operand
+     * @param resultLimbs The number of limbs of the result
+     */
+    private static void recordOperation(UnboundedIntMetrics.Operation operation, long nanos, int leftLimbs,
+                                        int rightLimbs, int resultLimbs) {
+        UnboundedIntMetrics registry = metrics;
+        if (registry != null) {
+            registry.recordOperation(operation, nanos, leftLimbs, rightLimbs, resultLimbs);
+            if (resultLimbs > 0) {
+                registry.recordAllocation(resultLimbs, 0);
+            }
+        }
+        if (eventsEnabled) {
+            OperationEvent event = new OperationEvent();
+            if (event.shouldCommit()) {
+                event.operation = operation.name();
+                event.elapsed = nanos;
+                event.leftLimbs = leftLimbs;
+                event.rightLimbs = rightLimbs;
+                event.resultLimbs = resultLimbs;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Method to check whether a running recording wants the events
+     */
+    private static synchronized void refresh() {
+        eventsEnabled = new OperationEvent().isEnabled();
+        active = metrics != null || eventsEnabled;
+    }
+
+    /**
+     * The Flight Recorder event for one operation. It is committed when the operation finishes, and its Elapsed field
+     * holds how long the operation took.
+     */
+    @Name("UnboundedInt.Operation")
+    @Label("UnboundedInt Operation")
+    @Category("UnboundedInt")
+    @Description("An addition, multiplication, parse or conversion to a string of an UnboundedInt")
+    static final class OperationEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+
+        @Label("Left Operand Limbs")
+        int leftLimbs;
+
+        @Label("Right Operand Limbs")
+        int rightLimbs;
+
+        @Label("Result Limbs")
+        int resultLimbs;
+    }
+}
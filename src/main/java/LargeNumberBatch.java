@@ -0,0 +1,398 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The LargeNumberBatch class is the headless mode of {@link LargeNumberTest}. It reads operation records from standard
+ * input or from files, one per line in the form {@code op A B}, where op is add, multiply, equals, divide or mod and A
+ * and B are numbers written without commas. Blank lines and lines starting with # are skipped.
+ * <p>
+ * The records are evaluated by a pool of worker threads, and one line is written for each record in the order the
+ * records were read: the result without commas, true or false for equals, or an error line naming the record that
+ * failed. At most a fixed number of records are read ahead of the one being written, so a slow writer or a slow
+ * record holds the reader back instead of letting records pile up in memory. Once every record is written, the number
+ * of records, the throughput and the latency of the records are reported on the error stream.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class LargeNumberBatch {
+    private static final String USAGE = "Usage: LargeNumberTest --batch [--threads n] [--queue n] [file ...]\n"
+                                        + "Reads records of the form 'op A B' (op is add, multiply, equals, divide "
+                                        + "or mod) from the files, or from standard input if there are none or a "
+                                        + "file is -";
+    //latency histogram buckets, bucket k counting records that took 2^(k-1) to 2^k - 1 nanoseconds
+    private static final int LATENCY_BUCKETS = Long.SIZE;
+
+    private LargeNumberBatch() {
+    }
+
+    /**
+     * Method to run a batch
+     *
+     * @param args The options and input files, not including --batch
+     * @param in The standard input, read when there are no files or a file is -
+     * @param out Where the results are written
+     * @param err Where the statistics and problems with the options or files are written
+     *
+     * @return The exit status: 0 if every record was evaluated, 1 if a record or an input file failed, 2 if the
+     * options were not valid
+     */
+    static int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queue = -1;
+        List<String> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = positive(args, ++i);
+                    case "--queue" -> queue = positive(args, ++i);
+                    default -> files.add(args[i]);
+                }
+            }
+        }
+        catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+        if (files.isEmpty()) {
+            files.add("-");
+        }
+        return new Pipeline(threads, queue < 0 ? 4 * threads : queue, in, err).run(files, out);
+    }
+
+    /**
+     * Method to read a positive whole number option
+     *
+     * @param args The options
+     * @param index The index of the value of the option
+     *
+     * @return The value of the option
+     *
+     * @throws IllegalArgumentException If the value is missing or is not a positive whole number
+     */
+    private static int positive(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(args[index - 1] + " needs a value");
+        }
+        try {
+            int value = Integer.parseInt(args[index]);
+            if (value > 0) {
+                return value;
+            }
+        }
+        catch (NumberFormatException e) {
+            // reported below like any other value that is not positive
+        }
+        throw new IllegalArgumentException(args[index - 1] + " must be a positive whole number");
+    }
+
+    /**
+     * Method to evaluate one record
+     *
+     * @param record The text of the record
+     *
+     * @return The result of the record as it is written out
+     *
+     * @throws IllegalArgumentException If the record is not an operation and two numbers, or the operation fails
+     */
+    static String evaluate(String record) {
+        String[] fields = record.trim().split("\\s+");
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected an operation and two numbers");
+        }
+        String operation = fields[0].toLowerCase(Locale.ROOT);
+        if (!operation.matches("add|multiply|equals|divide|mod")) {
+            throw new IllegalArgumentException("Unknown operation " + fields[0]);
+        }
+        UnboundedInt a = new UnboundedInt(fields[1]);
+        UnboundedInt b = new UnboundedInt(fields[2]);
+        return switch (operation) {
+            case "add" -> a.add(b).toString(false);
+            case "multiply" -> a.multiply(b).toString(false);
+            case "equals" -> String.valueOf(a.equals(b));
+            case "divide" -> a.divide(b).toString(false);
+            default -> a.mod(b).toString(false);
+        };
+    }
+
+    /**
+     * The result of one record
+     *
+     * @param text The line written for the record
+     * @param failed Whether the record could not be evaluated
+     * @param nanos How long the record took to evaluate, in nanoseconds
+     */
+    private record Outcome(String text, boolean failed, long nanos) {
+    }
+
+    /**
+     * One batch run: a reader thread that hands records to the workers, and the calling thread, which writes the
+     * outcomes in the order the records were read
+     */
+    private static final class Pipeline {
+        //marks the end of the records in the queue of pending outcomes
+        private static final Future<Outcome> END = CompletableFuture.completedFuture(null);
+
+        private final int threads;
+        private final InputStream in;
+        private final PrintStream err;
+        //Invariant:
+        //pending holds the outcomes of the records read but not yet written, in the order they were read, and its
+        //capacity bounds how far the reader gets ahead of the writer
+        private final BlockingQueue<Future<Outcome>> pending;
+        private volatile boolean inputFailed;
+
+        private long records;
+        private long failures;
+        private long totalNanos;
+        private long maxNanos;
+        private final long[] latency = new long[LATENCY_BUCKETS];
+
+        /**
+         * Constructor for the Pipeline class
+         *
+         * @param threads The number of worker threads
+         * @param queue The most records read ahead of the one being written
+         * @param in The standard input
+         * @param err Where the statistics and problems with the input files are written
+         */
+        Pipeline(int threads, int queue, InputStream in, PrintStream err) {
+            this.threads = threads;
+            this.in = in;
+            this.err = err;
+            this.pending = new ArrayBlockingQueue<>(queue);
+        }
+
+        /**
+         * Method to evaluate the records of the input files and write their outcomes
+         *
+         * @param files The input files, - for standard input
+         * @param out Where the outcomes are written
+         *
+         * @return The exit status
+         */
+        int run(List<String> files, PrintStream out) {
+            ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "batch-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Thread reader = new Thread(() -> read(files, workers), "batch-reader");
+            reader.setDaemon(true);
+            long start = System.nanoTime();
+            reader.start();
+            try {
+                write(out);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 1;
+            }
+            finally {
+                workers.shutdownNow();
+            }
+            report(System.nanoTime() - start);
+            return failures > 0 || inputFailed ? 1 : 0;
+        }
+
+        /**
+         * Method run by the reader thread to hand every record to the workers, waiting whenever the queue of pending
+         * outcomes is full
+         *
+         * @param files The input files, - for standard input
+         * @param workers The worker threads
+         */
+        private void read(List<String> files, ExecutorService workers) {
+            try {
+                for (String file : files) {
+                    try (BufferedReader lines = new BufferedReader(open(file))) {
+                        String line;
+                        int number = 0;
+                        while ((line = lines.readLine()) != null) {
+                            number++;
+                            if (line.isBlank() || line.startsWith("#")) {
+                                continue;
+                            }
+                            String record = line;
+                            String where = file.equals("-") ? "line " + number : file + ":" + number;
+                            pending.put(workers.submit(() -> evaluate(where, record)));
+                        }
+                    }
+                    catch (IOException | RuntimeException e) { // also an invalid path, so END is still queued
+                        err.println("Error: cannot read " + (file.equals("-") ? "standard input" : file) + ": "
+                                    + e.getMessage());
+                        inputFailed = true;
+                    }
+                }
+                pending.put(END);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Method to open an input file
+         *
+         * @param file The file, - for standard input
+         *
+         * @return A reader of the file
+         *
+         * @throws IOException If the file cannot be opened
+         */
+        private Reader open(String file) throws IOException {
+            if (file.equals("-")) {
+                // standard input can be listed more than once, so closing its reader must not close it
+                return new InputStreamReader(new FilterInputStream(in) {
+                    @Override
+                    public void close() {
+                    }
+                }, StandardCharsets.UTF_8);
+            }
+            return Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Method run by a worker to evaluate one record
+         *
+         * @param where The file and line of the record, for error lines
+         * @param record The text of the record
+         *
+         * @return The outcome of the record
+         */
+        private static Outcome evaluate(String where, String record) {
+            long start = System.nanoTime();
+            try {
+                String text = LargeNumberBatch.evaluate(record);
+                return new Outcome(text, false, System.nanoTime() - start);
+            }
+            catch (IllegalStateException | IllegalArgumentException e) {
+                return new Outcome("error: " + where + ": " + e.getMessage(), true, System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Method to write the outcomes in the order the records were read, flushing whenever the next outcome is not
+         * ready yet so the output keeps up with the records that are done
+         *
+         * @param out Where the outcomes are written
+         *
+         * @throws InterruptedException If the thread is interrupted while waiting for an outcome
+         */
+        private void write(PrintStream out) throws InterruptedException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            try {
+                while (true) {
+                    Future<Outcome> next = pending.poll();
+                    if (next == null || !next.isDone()) {
+                        writer.flush();
+                        if (next == null) {
+                            next = pending.take();
+                        }
+                    }
+                    if (next == END) {
+                        break;
+                    }
+                    Outcome outcome = outcome(next);
+                    writer.write(outcome.text());
+                    writer.write('\n');
+                    count(outcome);
+                }
+                writer.flush();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Method to wait for the outcome of a record
+         *
+         * @param future The outcome being computed
+         *
+         * @return The outcome, or an error line if the evaluation threw something unexpected
+         *
+         * @throws InterruptedException If the thread is interrupted while waiting
+         */
+        private static Outcome outcome(Future<Outcome> future) throws InterruptedException {
+            try {
+                return future.get();
+            }
+            catch (ExecutionException e) {
+                return new Outcome("error: " + e.getCause(), true, 0);
+            }
+        }
+
+        /**
+         * Method to add an outcome to the statistics
+         *
+         * @param outcome The outcome
+         */
+        private void count(Outcome outcome) {
+            records++;
+            if (outcome.failed()) {
+                failures++;
+            }
+            totalNanos += outcome.nanos();
+            maxNanos = Math.max(maxNanos, outcome.nanos());
+            latency[UnboundedIntStatistics.bucketOf(outcome.nanos())]++;
+        }
+
+        /**
+         * Method to write the statistics of the run
+         *
+         * @param elapsed How long the run took, in nanoseconds
+         */
+        private void report(long elapsed) {
+            double seconds = Math.max(elapsed, 1) / 1e9;
+            err.printf(Locale.ROOT, "records=%d errors=%d threads=%d elapsed=%.3fs throughput=%.1f records/s%n",
+                       records, failures, threads, seconds, records / seconds);
+            err.printf(Locale.ROOT, "latency mean=%.1fus p50<=%.1fus p90<=%.1fus p99<=%.1fus max=%.1fus%n",
+                       records == 0 ? 0 : totalNanos / 1e3 / records, percentile(0.5) / 1e3, percentile(0.9) / 1e3,
+                       percentile(0.99) / 1e3, maxNanos / 1e3);
+        }
+
+        /**
+         * Method to estimate a latency percentile from the histogram
+         *
+         * @param fraction The fraction of records at or below the percentile
+         *
+         * @return The upper end of the bucket that holds the percentile, in nanoseconds, and no more than the largest
+         * latency
+         */
+        private long percentile(double fraction) {
+            long rank = (long) Math.ceil(fraction * records);
+            long seen = 0;
+            for (int k = 0; k < LATENCY_BUCKETS; k++) {
+                seen += latency[k];
+                if (seen >= rank && seen > 0) {
+                    return k == 0 ? 0 : Math.min(maxNanos, (1L << k) - 1);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -1,8 +1,13 @@
+import java.util.Arrays;
 import java.util.Scanner;
 
 // Authors Rylan Meilutis and Vassily Dudkin
 public class LargeNumberTest {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) { // headless mode, see LargeNumberBatch
+            System.exit(LargeNumberBatch.run(Arrays.copyOfRange(args, 1, args.length), System.in, System.out,
+                                             System.err));
+        }
         Scanner scanner = new Scanner(System.in);
 
         UnboundedInt[] unboundedIntsArray = getUnboundedInts(scanner);
@@ -0,0 +1,141 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The LimbArena class owns the off-heap memory of a group of {@link OffHeapUnboundedInt} values and ends their
+ * lifetime together. Every value made in an arena, and every result computed from one, belongs to it until the value
+ * is closed on its own or the arena is closed, after which the value can no longer be used.
+ * <p>
+ * Limbs are kept in direct buffers, so the garbage collector only sees one small buffer object per value no matter
+ * how many digits it has, and never copies the limbs. Closing does not free the memory itself: it drops every
+ * reference the arena and its values hold to the buffers, and the JDK frees the memory of a direct buffer when the
+ * garbage collector finds the buffer object unreachable. That can take a while, since the small buffer objects put
+ * little pressure on the heap, so direct memory is bounded separately by the -XX:MaxDirectMemorySize option of the
+ * JVM (the size of the heap unless it is set), and an allocation that would go over it first runs a collection to
+ * free the buffers that were dropped. Using a value after it was closed throws an exception, even if another thread
+ * closed it.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public final class LimbArena implements AutoCloseable {
+    //Invariant:
+    //values holds every open off-heap value allocated in the arena, and is empty once the arena is closed
+    //allocatedBytes is the size of the buffers of those values
+    private final Set<OffHeapUnboundedInt> values = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long allocatedBytes;
+    private volatile boolean open = true;
+
+
+    /**
+     * Method to check if values in the arena can still be used
+     *
+     * @return True until the arena is closed
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Method to get the off-heap memory the open values of the arena hold
+     *
+     * @return The size of their limbs, in bytes
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Method to get the number of open values of the arena that are stored off-heap
+     *
+     * @return The number of off-heap values
+     */
+    public synchronized int getOffHeapCount() {
+        return values.size();
+    }
+
+    /**
+     * Method to close the arena and every value in it
+     * <dt><b>Postcondition</b>Every value of the arena is closed and its memory is freed once the garbage collector
+     * finds its buffer unreachable. Closing an arena that is already closed does nothing</dt>
+     */
+    @Override
+    public void close() {
+        List<OffHeapUnboundedInt> closing;
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            closing = new ArrayList<>(values);
+            values.clear();
+            allocatedBytes = 0;
+        }
+        for (OffHeapUnboundedInt value : closing) {
+            value.release();
+        }
+    }
+
+    /**
+     * Method to allocate off-heap memory for limbs
+     *
+     * @param limbs The number of limbs
+     *
+     * @return A zeroed little endian buffer holding limbs limbs
+     *
+     * @throws IllegalStateException If the arena is closed
+     */
+    IntBuffer allocate(int limbs) {
+        checkOpen();
+        return ByteBuffer.allocateDirect(Math.multiplyExact(limbs, Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN)
+                         .asIntBuffer();
+    }
+
+    /**
+     * Method to make an off-heap value belong to the arena
+     *
+     * @param value The value, stored in a buffer from allocate
+     * @param bytes The size of its buffer, in bytes
+     *
+     * @throws IllegalStateException If the arena is closed
+     */
+    synchronized void register(OffHeapUnboundedInt value, long bytes) {
+        checkOpen();
+        values.add(value);
+        allocatedBytes += bytes;
+    }
+
+    /**
+     * Method to close one off-heap value of the arena
+     *
+     * @param value The value
+     * @param bytes The size of its buffer, in bytes
+     * <dt><b>Postcondition</b>The value is closed, if it still belonged to the arena</dt>
+     */
+    void release(OffHeapUnboundedInt value, long bytes) {
+        synchronized (this) {
+            if (!values.remove(value)) {
+                return;
+            }
+            allocatedBytes -= bytes;
+        }
+        value.release();
+    }
+
+    /**
+     * Method to check that the arena is still open
+     *
+     * @throws IllegalStateException If the arena is closed
+     */
+    void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("Arena is closed");
+        }
+    }
+}
@@ -0,0 +1,407 @@
+import java.util.Arrays;
+
+/**
+ * The LimbDivider class holds the division algorithms used by {@link UnboundedInt}. Operands are arrays of base
+ * 1,000,000,000 limbs, least significant limb first, without leading zero limbs (0 is the empty array). A divisor of one
+ * limb is handled by a single pass of short division, divisors below the Burnikel-Ziegler threshold by Knuth's
+ * schoolbook algorithm D, and larger ones by Burnikel and Ziegler's recursive division, which does its work through
+ * multiplications so its cost follows the multiplication algorithms in {@link LimbMultiplier}.
+ * <p>
+ * The threshold is measured in limbs and can be tuned with the {@code unboundedint.burnikelZieglerThreshold} system
+ * property.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class LimbDivider {
+    private static final int BASE = UnboundedInt.BASE;
+    private static final int[] EMPTY = new int[0];
+    private static final int[] ONE = {1};
+
+    //the smallest value that keeps the recursive blocks at least two limbs long: a block is only halved if it is even
+    //and at least the threshold, so at 3 the smallest block halved has 4 limbs, while at 2 a 2 limb block would be
+    //halved into single limbs that schoolbook cannot divide by
+    static final int MIN_BURNIKEL_ZIEGLER_THRESHOLD = 3;
+
+    private static int burnikelZieglerThreshold = Math.max(
+            Integer.getInteger("unboundedint.burnikelZieglerThreshold", 50), MIN_BURNIKEL_ZIEGLER_THRESHOLD);
+
+    private LimbDivider() {
+    }
+
+    /**
+     * Method to change the divisor size at which Burnikel-Ziegler division replaces schoolbook division
+     *
+     * @param threshold The divisor size in limbs
+     * <dt><b>Postcondition</b>The threshold is raised to its minimum if needed</dt>
+     */
+    static void setBurnikelZieglerThreshold(int threshold) {
+        burnikelZieglerThreshold = Math.max(threshold, MIN_BURNIKEL_ZIEGLER_THRESHOLD);
+    }
+
+    /**
+     * Method to get the divisor size at which Burnikel-Ziegler division replaces schoolbook division
+     *
+     * @return The divisor size in limbs
+     */
+    static int getBurnikelZieglerThreshold() {
+        return burnikelZieglerThreshold;
+    }
+
+    /**
+     * Method to divide two limb arrays
+     *
+     * @param a The dividend, without leading zero limbs
+     * @param b The divisor, without leading zero limbs
+     *
+     * @return An array holding the quotient at index 0 and the remainder at index 1, both without leading zero limbs
+     * <dt><b>Precondition</b>b is not 0 (not empty)</dt>
+     */
+    static int[][] divideAndRemainder(int[] a, int[] b) {
+        if (LimbMultiplier.compareMagnitudes(a, b) < 0) {
+            return new int[][]{EMPTY, a};
+        }
+        if (b.length == 1) {
+            int[] quotient = new int[a.length];
+            int remainder = divideByLimb(a, a.length, b[0], quotient);
+            return new int[][]{LimbMultiplier.trim(quotient), remainder == 0 ? EMPTY : new int[]{remainder}};
+        }
+        if (b.length < burnikelZieglerThreshold || a.length - b.length < burnikelZieglerThreshold) {
+            return schoolbook(a, b);
+        }
+        return burnikelZiegler(a, b);
+    }
+
+    /**
+     * Method to divide a limb array by a single limb
+     *
+     * @param a The dividend
+     * @param aLength The number of limbs of a in use
+     * @param divisor The divisor, between 1 and 999,999,999
+     * @param quotient The array to store the quotient in, at least aLength limbs long
+     *
+     * @return The remainder
+     */
+    static int divideByLimb(int[] a, int aLength, int divisor, int[] quotient) {
+        long remainder = 0;
+        for (int i = aLength - 1; i >= 0; i--) {
+            long value = remainder * BASE + a[i];
+            quotient[i] = (int) (value / divisor);
+            remainder = value - quotient[i] * (long) divisor;
+        }
+        return (int) remainder;
+    }
+
+    /**
+     * Method to multiply a limb array by a single limb
+     *
+     * @param a The limb array
+     * @param factor The limb, between 0 and 999,999,999
+     *
+     * @return A new array of a.length + 1 limbs holding the product
+     */
+    static int[] multiplyByLimb(int[] a, int factor) {
+        int[] product = new int[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long value = (long) a[i] * factor + carry;
+            carry = value / BASE;
+            product[i] = (int) (value - carry * BASE);
+        }
+        product[a.length] = (int) carry;
+        return product;
+    }
+
+    /**
+     * Method to multiply a limb array by a single limb in place
+     *
+     * @param a The limb array, which must have room for one more limb
+     * @param aLength The number of limbs of a in use
+     * @param factor The limb, between 0 and 999,999,999
+     * <dt><b>Postcondition</b>a holds the product in its first aLength + 1 limbs</dt>
+     */
+    static void multiplyByLimb(int[] a, int aLength, int factor) {
+        long carry = 0;
+        for (int i = 0; i < aLength; i++) {
+            long value = (long) a[i] * factor + carry;
+            carry = value / BASE;
+            a[i] = (int) (value - carry * BASE);
+        }
+        a[aLength] = (int) carry;
+    }
+
+    /**
+     * Method to divide two limb arrays using Knuth's algorithm D. Both operands are first scaled so the top limb of
+     * the divisor is at least BASE / 2, which makes each estimated quotient limb at most 2 too large.
+     *
+     * @param a The dividend, without leading zero limbs
+     * @param b The divisor, without leading zero limbs and at least 2 limbs long
+     *
+     * @return An array holding the quotient at index 0 and the remainder at index 1, both without leading zero limbs
+     */
+    static int[][] schoolbook(int[] a, int[] b) {
+        if (LimbMultiplier.compareMagnitudes(a, b) < 0) {
+            return new int[][]{EMPTY, a};
+        }
+        int n = b.length;
+        int m = a.length - n;
+        int scale = BASE / (b[n - 1] + 1);
+        int[] v = Arrays.copyOf(multiplyByLimb(b, scale), n); // scaling never adds a limb to the divisor
+        int[] u = multiplyByLimb(a, scale);
+        int[] quotient = new int[m + 1];
+        divideScaled(u, m, v, quotient);
+
+        int[] remainder = new int[n];
+        divideByLimb(u, n, scale, remainder);
+        return new int[][]{LimbMultiplier.trim(quotient), LimbMultiplier.trim(remainder)};
+    }
+
+    /**
+     * Method to run the main loop of algorithm D on operands that are already scaled, leaving the scaled remainder in
+     * place of the dividend. Callers that reduce many values by the same divisor scale it once and call this with
+     * their own buffers, so nothing is allocated.
+     *
+     * @param u The scaled dividend, m + n + 1 limbs where n is the length of v
+     * @param m The number of limbs of the dividend beyond the length of the divisor
+     * @param v The scaled divisor, at least 2 limbs long with a top limb of at least BASE / 2
+     * @param quotient The array to store the m + 1 limbs of the quotient in, or null if only the remainder is needed
+     * <dt><b>Postcondition</b>The first n limbs of u hold the remainder, still scaled</dt>
+     */
+    static void divideScaled(int[] u, int m, int[] v, int[] quotient) {
+        int n = v.length;
+        long top = v[n - 1];
+        long second = v[n - 2];
+
+        for (int j = m; j >= 0; j--) {
+            // estimate the quotient limb from the top two limbs of the remainder and correct it with the third
+            long numerator = u[j + n] * (long) BASE + u[j + n - 1];
+            long estimate = numerator / top;
+            long rest = numerator - estimate * top;
+            while (estimate >= BASE || estimate * second > rest * BASE + u[j + n - 2]) {
+                estimate--;
+                rest += top;
+                if (rest >= BASE) {
+                    break;
+                }
+            }
+
+            // subtract estimate * v from the remainder, lined up with limb j
+            long carry = 0;
+            long borrow = 0;
+            for (int i = 0; i < n; i++) {
+                long product = estimate * v[i] + carry;
+                carry = product / BASE;
+                long difference = u[i + j] - (product - carry * BASE) - borrow;
+                borrow = difference < 0 ? 1 : 0;
+                u[i + j] = (int) (difference + borrow * BASE);
+            }
+            long topDifference = u[j + n] - carry - borrow;
+
+            if (topDifference < 0) { // the estimate was one too large, so add v back once
+                estimate--;
+                carry = 0;
+                for (int i = 0; i < n; i++) {
+                    long sum = u[i + j] + (long) v[i] + carry;
+                    carry = sum >= BASE ? 1 : 0;
+                    u[i + j] = (int) (sum - carry * BASE);
+                }
+                topDifference += carry;
+            }
+            u[j + n] = (int) topDifference;
+            if (quotient != null) {
+                quotient[j] = (int) estimate;
+            }
+        }
+    }
+
+    /**
+     * Method to divide two limb arrays using Burnikel and Ziegler's recursive division. The divisor is scaled and
+     * shifted to a length of the form j * 2^k with j below the threshold, so it can be halved down to the schoolbook
+     * size, and the dividend is then divided one block of that length at a time.
+     *
+     * @param a The dividend, without leading zero limbs
+     * @param b The divisor, without leading zero limbs
+     *
+     * @return An array holding the quotient at index 0 and the remainder at index 1, both without leading zero limbs
+     */
+    private static int[][] burnikelZiegler(int[] a, int[] b) {
+        int s = b.length;
+        int halvings = 1 << (32 - Integer.numberOfLeadingZeros(s / burnikelZieglerThreshold));
+        int n = (s + halvings - 1) / halvings * halvings;
+        int shift = n - s;
+        int scale = BASE / (b[s - 1] + 1);
+
+        int[] divisor = shiftLeft(LimbMultiplier.trim(multiplyByLimb(b, scale)), shift); // exactly n limbs
+        int[] dividend = shiftLeft(LimbMultiplier.trim(multiplyByLimb(a, scale)), shift);
+
+        // enough blocks that the top one starts with a zero limb, so it is smaller than the divisor
+        int blocks = Math.max(2, (dividend.length + n) / n);
+        int[] quotient = new int[(blocks - 1) * n];
+        int[] current = LimbMultiplier.slice(dividend, (blocks - 2) * n, blocks * n);
+        int[] remainder = EMPTY;
+        for (int i = blocks - 2; i >= 0; i--) {
+            int[][] qr = divide2n1n(current, divisor, n);
+            System.arraycopy(qr[0], 0, quotient, i * n, qr[0].length);
+            remainder = qr[1];
+            if (i > 0) {
+                current = LimbMultiplier.addMagnitudes(shiftLeft(remainder, n),
+                                                       LimbMultiplier.slice(dividend, (i - 1) * n, i * n));
+            }
+        }
+
+        int[] shifted = shiftRight(remainder, shift);
+        int[] unscaled = new int[shifted.length];
+        divideByLimb(shifted, shifted.length, scale, unscaled);
+        return new int[][]{LimbMultiplier.trim(quotient), LimbMultiplier.trim(unscaled)};
+    }
+
+    /**
+     * Method to divide a number of up to 2n limbs by one of n limbs
+     *
+     * @param a The dividend, less than b * BASE^n
+     * @param b The divisor, n limbs long with a top limb of at least BASE / 2
+     * @param n The length of the divisor
+     *
+     * @return An array holding the quotient at index 0 and the remainder at index 1, both without leading zero limbs
+     */
+    private static int[][] divide2n1n(int[] a, int[] b, int n) {
+        if (n % 2 != 0 || n < burnikelZieglerThreshold) {
+            return schoolbook(a, b);
+        }
+        int half = n / 2;
+        int[][] high = divide3n2n(shiftRight(a, half), b, half);
+        int[] next = LimbMultiplier.addMagnitudes(shiftLeft(high[1], half), LimbMultiplier.slice(a, 0, half));
+        int[][] low = divide3n2n(next, b, half);
+        return new int[][]{LimbMultiplier.addMagnitudes(shiftLeft(high[0], half), low[0]), low[1]};
+    }
+
+    /**
+     * Method to divide a number of up to 3 half blocks by one of 2 half blocks, estimating the quotient from the top
+     * half of the divisor and then correcting it by at most 2
+     *
+     * @param a The dividend, less than b * BASE^half
+     * @param b The divisor, 2 * half limbs long with a top limb of at least BASE / 2
+     * @param half The length of a half block
+     *
+     * @return An array holding the quotient at index 0 and the remainder at index 1, both without leading zero limbs
+     */
+    private static int[][] divide3n2n(int[] a, int[] b, int half) {
+        int[] a12 = shiftRight(a, half);
+        int[] a1 = shiftRight(a, 2 * half);
+        int[] b1 = LimbMultiplier.slice(b, half, 2 * half);
+        int[] b2 = LimbMultiplier.slice(b, 0, half);
+
+        int[] quotient;
+        int[] r1;
+        if (LimbMultiplier.compareMagnitudes(a1, b1) < 0) {
+            int[][] qr = divide2n1n(a12, b1, half);
+            quotient = qr[0];
+            r1 = qr[1];
+        }
+        else { // a1 equals b1, so the quotient is BASE^half - 1 and r1 = a12 - b1 * BASE^half + b1
+            quotient = new int[half];
+            Arrays.fill(quotient, BASE - 1);
+            r1 = LimbMultiplier.addMagnitudes(LimbMultiplier.subtractMagnitudes(a12, shiftLeft(b1, half)), b1);
+        }
+
+        int[] d = LimbMultiplier.trim(LimbMultiplier.multiply(quotient, b2));
+        int[] remainder = LimbMultiplier.addMagnitudes(shiftLeft(r1, half), LimbMultiplier.slice(a, 0, half));
+        while (LimbMultiplier.compareMagnitudes(remainder, d) < 0) {
+            remainder = LimbMultiplier.addMagnitudes(remainder, b);
+            quotient = LimbMultiplier.subtractMagnitudes(quotient, ONE);
+        }
+        return new int[][]{quotient, LimbMultiplier.subtractMagnitudes(remainder, d)};
+    }
+
+    /**
+     * Method to multiply a limb array by BASE^limbs
+     *
+     * @param a The limb array, without leading zero limbs
+     * @param limbs The number of limbs to shift by
+     *
+     * @return A new array with limbs zero limbs in front of a, or a itself if it is 0 or limbs is 0
+     */
+    static int[] shiftLeft(int[] a, int limbs) {
+        if (a.length == 0 || limbs == 0) {
+            return a;
+        }
+        int[] shifted = new int[a.length + limbs];
+        System.arraycopy(a, 0, shifted, limbs, a.length);
+        return shifted;
+    }
+
+    /**
+     * Method to divide a limb array by BASE^limbs, dropping the remainder
+     *
+     * @param a The limb array, without leading zero limbs
+     * @param limbs The number of limbs to shift by
+     *
+     * @return A new array without the lowest limbs limbs of a
+     */
+    static int[] shiftRight(int[] a, int limbs) {
+        return limbs >= a.length ? EMPTY : Arrays.copyOfRange(a, limbs, a.length);
+    }
+
+    /**
+     * Method to count the decimal zeros at the end of a limb array
+     *
+     * @param a The limb array, without leading zero limbs
+     *
+     * @return The largest t such that 10^t divides a, 0 for 0
+     */
+    static long trailingZeroDigits(int[] a) {
+        int zeroLimbs = 0;
+        while (zeroLimbs < a.length && a[zeroLimbs] == 0) {
+            zeroLimbs++;
+        }
+        if (zeroLimbs == a.length) {
+            return 0;
+        }
+        int zeroDigits = 0;
+        for (int low = a[zeroLimbs]; low % 10 == 0; low /= 10) {
+            zeroDigits++;
+        }
+        return (long) zeroLimbs * UnboundedInt.DIGITS_PER_LIMB + zeroDigits;
+    }
+
+    /**
+     * Method to divide a limb array by a power of 10, dropping the remainder
+     *
+     * @param a The limb array, without leading zero limbs
+     * @param digits The power of 10
+     *
+     * @return a / 10^digits, without leading zero limbs
+     */
+    static int[] shiftRightDigits(int[] a, long digits) {
+        int[] shifted = shiftRight(a, (int) Math.min(digits / UnboundedInt.DIGITS_PER_LIMB, a.length));
+        int digitsLeft = (int) (digits % UnboundedInt.DIGITS_PER_LIMB);
+        if (digitsLeft > 0 && shifted.length > 0) {
+            divideByLimb(shifted, shifted.length, UnboundedInt.POWERS_OF_TEN[digitsLeft], shifted);
+            shifted = LimbMultiplier.trim(shifted);
+        }
+        return shifted;
+    }
+
+    /**
+     * Method to multiply a limb array by a power of 10
+     *
+     * @param a The limb array, without leading zero limbs
+     * @param digits The power of 10
+     *
+     * @return a * 10^digits, without leading zero limbs
+     *
+     * @throws IllegalArgumentException If the result would be too large to store
+     */
+    static int[] shiftLeftDigits(int[] a, long digits) {
+        if (a.length == 0 || digits == 0) {
+            return a;
+        }
+        if (digits / UnboundedInt.DIGITS_PER_LIMB + a.length + 1 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Result is too large to store");
+        }
+        int digitsLeft = (int) (digits % UnboundedInt.DIGITS_PER_LIMB);
+        int[] scaled = digitsLeft > 0 ? LimbMultiplier.trim(multiplyByLimb(a, UnboundedInt.POWERS_OF_TEN[digitsLeft]))
+                                      : a;
+        return shiftLeft(scaled, (int) (digits / UnboundedInt.DIGITS_PER_LIMB));
+    }
+}
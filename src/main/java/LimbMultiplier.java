@@ -0,0 +1,1353 @@
+import java.util.Arrays;
+
+/**
+ * The LimbMultiplier class holds the multiplication algorithms used by {@link UnboundedInt}. Operands are arrays of
+ * base 1,000,000,000 limbs, least significant limb first. The algorithm is picked from the size of the smaller operand:
+ * schoolbook multiplication below the Karatsuba threshold, Karatsuba below the Toom-Cook-3 threshold, Toom-Cook-3
+ * below the NTT threshold and the {@link NumberTheoreticTransform} above it. Operands of very different sizes are cut
+ * into balanced pieces first, except for the NTT which handles them directly. Below the NTT threshold a product
+ * computed on one thread keeps every temporary in a single scratch array borrowed from the {@link ScratchArena}, so
+ * the product itself is the only array allocated.
+ * <p>
+ * The thresholds are measured in limbs and can be tuned with the {@code unboundedint.karatsubaThreshold},
+ * {@code unboundedint.toomCookThreshold} and {@code unboundedint.nttThreshold} system properties.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class LimbMultiplier {
+    private static final int BASE = UnboundedInt.BASE;
+    private static final int[] EMPTY = new int[0];
+
+    //the smallest values that still make every recursive call work on smaller operands
+    static final int MIN_KARATSUBA_THRESHOLD = 4;
+    static final int MIN_TOOM_COOK_THRESHOLD = 9;
+
+    private static int karatsubaThreshold = Integer.getInteger("unboundedint.karatsubaThreshold", 40);
+    private static int toomCookThreshold = Integer.getInteger("unboundedint.toomCookThreshold", 160);
+    private static int nttThreshold = Integer.getInteger("unboundedint.nttThreshold", 1500);
+
+    static {
+        setThresholds(karatsubaThreshold, toomCookThreshold);
+    }
+
+    private LimbMultiplier() {
+    }
+
+    /**
+     * Method to change the cutover points between the multiplication algorithms
+     *
+     * @param karatsuba The operand size, in limbs, at which Karatsuba replaces schoolbook multiplication
+     * @param toomCook The operand size, in limbs, at which Toom-Cook-3 replaces Karatsuba
+     * <dt><b>Postcondition</b>The thresholds are raised to their minimums if needed, and the Toom-Cook-3 threshold is
+     * never below the Karatsuba threshold</dt>
+     */
+    static void setThresholds(int karatsuba, int toomCook) {
+        karatsubaThreshold = Math.max(karatsuba, MIN_KARATSUBA_THRESHOLD);
+        toomCookThreshold = Math.max(Math.max(toomCook, MIN_TOOM_COOK_THRESHOLD), karatsubaThreshold);
+    }
+
+    /**
+     * Method to change the cutover point between Toom-Cook-3 and the number theoretic transform
+     *
+     * @param ntt The operand size, in limbs, at which the number theoretic transform replaces Toom-Cook-3
+     * <dt><b>Postcondition</b>The NTT threshold is at least 1</dt>
+     */
+    static void setNttThreshold(int ntt) {
+        nttThreshold = Math.max(ntt, 1);
+    }
+
+    /**
+     * Method to get the current Karatsuba threshold
+     *
+     * @return The operand size, in limbs, at which Karatsuba replaces schoolbook multiplication
+     */
+    static int getKaratsubaThreshold() {
+        return karatsubaThreshold;
+    }
+
+    /**
+     * Method to get the current Toom-Cook-3 threshold
+     *
+     * @return The operand size, in limbs, at which Toom-Cook-3 replaces Karatsuba
+     */
+    static int getToomCookThreshold() {
+        return toomCookThreshold;
+    }
+
+    /**
+     * Method to get the current NTT threshold
+     *
+     * @return The operand size, in limbs, at which the number theoretic transform replaces Toom-Cook-3
+     */
+    static int getNttThreshold() {
+        return nttThreshold;
+    }
+
+    /**
+     * Method to multiply two limb arrays together
+     *
+     * @param a The first limb array
+     * @param aLength The number of limbs of a in use
+     * @param b The second limb array
+     * @param bLength The number of limbs of b in use
+     *
+     * @return A new array of aLength + bLength limbs holding the product
+     * <dt><b>Postcondition</b>a and b are unchanged</dt>
+     */
+    static int[] multiply(int[] a, int aLength, int[] b, int bLength) {
+        return multiply(a, aLength, b, bLength, false);
+    }
+
+    /**
+     * Method to multiply two limb arrays together, optionally splitting the work across the
+     * {@link ParallelArithmetic} pool
+     *
+     * @param a The first limb array
+     * @param aLength The number of limbs of a in use
+     * @param b The second limb array
+     * @param bLength The number of limbs of b in use
+     * @param parallel Whether operands above the parallel threshold are multiplied on several threads
+     *
+     * @return A new array of aLength + bLength limbs holding the product, the same limbs either way
+     * <dt><b>Postcondition</b>a and b are unchanged</dt>
+     */
+    static int[] multiply(int[] a, int aLength, int[] b, int bLength, boolean parallel) {
+        int shorter = Math.min(aLength, bLength);
+        if (!(parallel && shorter >= ParallelArithmetic.getThreshold()) && !usesNtt(shorter, aLength + bLength)) {
+            return multiplyWithScratch(a, aLength, b, bLength);
+        }
+        int[] left = aLength == a.length ? a : Arrays.copyOf(a, aLength);
+        int[] right = bLength == b.length ? b : Arrays.copyOf(b, bLength);
+        int[] product = parallel && Math.min(aLength, bLength) >= ParallelArithmetic.getThreshold()
+                        ? ParallelArithmetic.invoke(() -> multiply(left, right, true))
+                        : multiply(left, right, false);
+        return product.length == aLength + bLength ? product : Arrays.copyOf(product, aLength + bLength);
+    }
+
+    /**
+     * Method to square a limb array. Every algorithm has a squaring form that does less work than multiplying two
+     * different arrays: schoolbook squaring computes each cross product once, Karatsuba and Toom-Cook-3 square their
+     * evaluations, and the number theoretic transform skips the second forward transform.
+     *
+     * @param a The limb array
+     * @param aLength The number of limbs of a in use
+     *
+     * @return A new array of 2 * aLength limbs holding the square
+     * <dt><b>Postcondition</b>a is unchanged</dt>
+     */
+    static int[] square(int[] a, int aLength) {
+        return square(a, aLength, false);
+    }
+
+    /**
+     * Method to square a limb array, optionally splitting the work across the {@link ParallelArithmetic} pool
+     *
+     * @param a The limb array
+     * @param aLength The number of limbs of a in use
+     * @param parallel Whether operands above the parallel threshold are squared on several threads
+     *
+     * @return A new array of 2 * aLength limbs holding the square, the same limbs either way
+     * <dt><b>Postcondition</b>a is unchanged</dt>
+     */
+    static int[] square(int[] a, int aLength, boolean parallel) {
+        if (!(parallel && aLength >= ParallelArithmetic.getThreshold()) && !usesNtt(aLength, 2 * aLength)) {
+            return squareWithScratch(a, aLength);
+        }
+        int[] operand = aLength == a.length ? a : Arrays.copyOf(a, aLength);
+        if (parallel && aLength >= ParallelArithmetic.getThreshold()) {
+            return ParallelArithmetic.invoke(() -> square(operand, true));
+        }
+        return square(operand, false);
+    }
+
+    /**
+     * Method to square a limb array, picking the algorithm from its size
+     *
+     * @param a The operand, every limb of the array is used
+     * @param parallel Whether the work may be split across the pool
+     *
+     * @return A new array of 2 * a.length limbs holding the square
+     */
+    private static int[] square(int[] a, boolean parallel) {
+        parallel = parallel && a.length >= ParallelArithmetic.getThreshold();
+        if (usesNtt(a.length, 2 * a.length)) {
+            return NumberTheoreticTransform.multiply(a, a, parallel);
+        }
+        if (!parallel) {
+            return squareWithScratch(a, a.length);
+        }
+        if (a.length < karatsubaThreshold) {
+            int[] product = new int[2 * a.length];
+            schoolbookSquare(a, a.length, product);
+            return product;
+        }
+        if (a.length < toomCookThreshold) {
+            return karatsubaSquare(a, parallel);
+        }
+        return toomCook3Square(a, parallel);
+    }
+
+    /**
+     * Method to square several limb arrays, each as its own task when running in parallel
+     *
+     * @param values The limb arrays to square
+     * @param parallel Whether the squares are computed on several threads
+     *
+     * @return The square of each limb array
+     */
+    private static int[][] squareAll(int[][] values, boolean parallel) {
+        int[][] squares = new int[values.length][];
+        if (parallel) {
+            ParallelArithmetic.forEach(values.length, i -> squares[i] = square(values[i], true));
+        }
+        else {
+            for (int i = 0; i < values.length; i++) {
+                squares[i] = square(values[i], false);
+            }
+        }
+        return squares;
+    }
+
+    /**
+     * Method to multiply two limb arrays, picking the algorithm from their sizes
+     *
+     * @param a The first operand, every limb of the array is used
+     * @param b The second operand, every limb of the array is used
+     *
+     * @return A new array of a.length + b.length limbs holding the product
+     */
+    static int[] multiply(int[] a, int[] b) {
+        return multiply(a, b, false);
+    }
+
+    /**
+     * Method to multiply two limb arrays, picking the algorithm from their sizes
+     *
+     * @param a The first operand, every limb of the array is used
+     * @param b The second operand, every limb of the array is used
+     * @param parallel Whether the work may be split across the pool, which stops once the operands drop below the
+     * parallel threshold
+     *
+     * @return A new array of a.length + b.length limbs holding the product
+     * <dt><b>Precondition</b>If parallel is true, this is called from a task running on the pool</dt>
+     */
+    private static int[] multiply(int[] a, int[] b, boolean parallel) {
+        if (a.length < b.length) { // make a the longer of the two
+            int[] swap = a;
+            a = b;
+            b = swap;
+        }
+        parallel = parallel && b.length >= ParallelArithmetic.getThreshold();
+        if (usesNtt(b.length, a.length + b.length)) {
+            return NumberTheoreticTransform.multiply(a, b, parallel);
+        }
+        if (!parallel) {
+            return multiplyWithScratch(a, a.length, b, b.length);
+        }
+        if (b.length < karatsubaThreshold) {
+            int[] product = new int[a.length + b.length];
+            schoolbook(a, a.length, b, b.length, product);
+            return product;
+        }
+        if (a.length >= 2 * b.length) {
+            return multiplyUnbalanced(a, b, parallel);
+        }
+        if (b.length < toomCookThreshold) {
+            return karatsuba(a, b, parallel);
+        }
+        return toomCook3(a, b, parallel);
+    }
+
+    /**
+     * Method to multiply several pairs of limb arrays, each pair as its own task when running in parallel
+     *
+     * @param left The first operand of each pair
+     * @param right The second operand of each pair
+     * @param parallel Whether the pairs are multiplied on several threads
+     *
+     * @return The product of each pair
+     */
+    private static int[][] multiplyAll(int[][] left, int[][] right, boolean parallel) {
+        int[][] products = new int[left.length][];
+        if (parallel) {
+            ParallelArithmetic.forEach(left.length, i -> products[i] = multiply(left[i], right[i], true));
+        }
+        else {
+            for (int i = 0; i < left.length; i++) {
+                products[i] = multiply(left[i], right[i], false);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Method to multiply two limb arrays together using the schoolbook algorithm
+     *
+     * @param a The first limb array
+     * @param aLength The number of limbs of a in use
+     * @param b The second limb array
+     * @param bLength The number of limbs of b in use
+     * @param product The array to store the product in, in its first aLength + bLength limbs
+     */
+    static void schoolbook(int[] a, int aLength, int[] b, int bLength, int[] product) {
+        schoolbook(a, 0, aLength, b, 0, bLength, product, 0);
+    }
+
+    /**
+     * Method to multiply two runs of limbs together using the schoolbook algorithm
+     *
+     * @param a The limb array holding the first run
+     * @param aOffset The first limb of the first run
+     * @param aLength The number of limbs in the first run
+     * @param b The limb array holding the second run
+     * @param bOffset The first limb of the second run
+     * @param bLength The number of limbs in the second run
+     * @param product The array to store the product in
+     * @param productOffset The limb of product that the lowest limb of the product goes to
+     * <dt><b>Precondition</b>The product run does not overlap either operand run</dt>
+     * <dt><b>Postcondition</b>The aLength + bLength limbs of product from productOffset hold the product</dt>
+     */
+    private static void schoolbook(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength, int[] product,
+                                   int productOffset) {
+        Arrays.fill(product, productOffset, productOffset + aLength + bLength, 0);
+        for (int i = 0; i < aLength; i++) {
+            long digit = a[aOffset + i];
+            if (digit == 0) {
+                continue;
+            }
+            long carry = 0;
+            int k = productOffset + i;
+            for (int j = 0; j < bLength; j++, k++) {
+                // (BASE - 1)^2 plus two more limbs is still well below Long.MAX_VALUE
+                long value = digit * b[bOffset + j] + product[k] + carry;
+                carry = value / BASE;
+                product[k] = (int) (value - carry * BASE);
+            }
+            product[k] = (int) carry;
+        }
+    }
+
+    /**
+     * Method to square a limb array using the schoolbook algorithm. Each cross product a[i] a[j] appears twice in the
+     * square, so it is only computed once for i < j and the sum is doubled before the squares of the limbs are added
+     * along the diagonal, which takes about half the limb products of multiplying the array by itself.
+     *
+     * @param a The limb array
+     * @param aLength The number of limbs of a in use
+     * @param product The array to store the square in, in its first 2 * aLength limbs
+     */
+    static void schoolbookSquare(int[] a, int aLength, int[] product) {
+        schoolbookSquare(a, 0, aLength, product, 0);
+    }
+
+    /**
+     * Method to square a run of limbs using the schoolbook algorithm
+     *
+     * @param a The limb array holding the run
+     * @param aOffset The first limb of the run
+     * @param aLength The number of limbs in the run
+     * @param product The array to store the square in
+     * @param productOffset The limb of product that the lowest limb of the square goes to
+     * <dt><b>Precondition</b>The square run does not overlap the operand run</dt>
+     * <dt><b>Postcondition</b>The 2 * aLength limbs of product from productOffset hold the square</dt>
+     */
+    private static void schoolbookSquare(int[] a, int aOffset, int aLength, int[] product, int productOffset) {
+        Arrays.fill(product, productOffset, productOffset + 2 * aLength, 0);
+        for (int i = 0; i < aLength; i++) {
+            long digit = a[aOffset + i];
+            if (digit == 0) {
+                continue;
+            }
+            long carry = 0;
+            for (int j = i + 1; j < aLength; j++) {
+                int k = productOffset + i + j;
+                long value = digit * a[aOffset + j] + product[k] + carry;
+                carry = value / BASE;
+                product[k] = (int) (value - carry * BASE);
+            }
+            product[productOffset + i + aLength] = (int) carry;
+        }
+        // double the cross products and add the diagonal in one pass
+        long carry = 0;
+        for (int k = 0; k < 2 * aLength; k++) {
+            long limb = a[aOffset + k / 2];
+            long diagonal = k % 2 == 0 ? limb * limb : 0;
+            long value = 2L * product[productOffset + k] + diagonal + carry;
+            carry = value / BASE;
+            product[productOffset + k] = (int) (value - carry * BASE);
+        }
+    }
+
+    /**
+     * Method to add the product of two limb arrays into a third one. Below the Karatsuba threshold the partial
+     * products are added straight into the target, so no product array is allocated.
+     *
+     * @param a The first limb array
+     * @param aLength The number of limbs of a in use
+     * @param b The second limb array
+     * @param bLength The number of limbs of b in use
+     * @param target The limb array the product is added to
+     * <dt><b>Precondition</b>The sum fits in target</dt>
+     * <dt><b>Postcondition</b>a and b are unchanged</dt>
+     */
+    static void multiplyAdd(int[] a, int aLength, int[] b, int bLength, int[] target) {
+        if (Math.min(aLength, bLength) >= karatsubaThreshold) {
+            int[] product = multiply(a, aLength, b, bLength);
+            addInto(target, 0, product, product.length);
+            return;
+        }
+        for (int i = 0; i < aLength; i++) {
+            long digit = a[i];
+            if (digit == 0) {
+                continue;
+            }
+            long carry = 0;
+            int k = i;
+            for (int j = 0; j < bLength; j++, k++) {
+                long value = digit * b[j] + target[k] + carry;
+                carry = value / BASE;
+                target[k] = (int) (value - carry * BASE);
+            }
+            for (; carry != 0; k++) { // unlike schoolbook, the limbs past the row may already hold digits
+                long value = target[k] + carry;
+                carry = value / BASE;
+                target[k] = (int) (value - carry * BASE);
+            }
+        }
+    }
+
+    /**
+     * Method to check whether a product is left to the number theoretic transform
+     *
+     * @param shorter The number of limbs of the shorter operand
+     * @param length The number of limbs of the product
+     *
+     * @return True if the shorter operand reaches the NTT threshold and the product fits the transform
+     */
+    private static boolean usesNtt(int shorter, int length) {
+        return shorter >= nttThreshold && NumberTheoreticTransform.fits(length);
+    }
+
+    /**
+     * Method to multiply two limb arrays on this thread without the number theoretic transform. Every temporary of
+     * the recursive algorithms is a run of one scratch array borrowed from the {@link ScratchArena}, so the product is
+     * the only array allocated.
+     *
+     * @param a The first limb array
+     * @param aLength The number of limbs of a in use
+     * @param b The second limb array
+     * @param bLength The number of limbs of b in use
+     *
+     * @return A new array of aLength + bLength limbs holding the product
+     */
+    private static int[] multiplyWithScratch(int[] a, int aLength, int[] b, int bLength) {
+        int[] product = new int[aLength + bLength];
+        int longer = Math.max(aLength, bLength);
+        int shorter = Math.min(aLength, bLength);
+        // an unbalanced product only recurses on pieces the size of the shorter operand
+        int[] scratch = borrowScratch(shorter < karatsubaThreshold ? 0
+                                      : longer >= 2 * shorter ? 2 * shorter + scratchSize(shorter)
+                                      : scratchSize(longer));
+        multiplyInto(a, 0, aLength, b, 0, bLength, product, 0, scratch, 0);
+        ScratchArena.release(scratch);
+        return product;
+    }
+
+    /**
+     * Method to square a limb array on this thread without the number theoretic transform, with every temporary in
+     * one scratch array borrowed from the {@link ScratchArena}
+     *
+     * @param a The limb array
+     * @param aLength The number of limbs of a in use
+     *
+     * @return A new array of 2 * aLength limbs holding the square
+     */
+    private static int[] squareWithScratch(int[] a, int aLength) {
+        int[] product = new int[2 * aLength];
+        int[] scratch = borrowScratch(scratchSize(aLength));
+        squareInto(a, 0, aLength, product, 0, scratch, 0);
+        ScratchArena.release(scratch);
+        return product;
+    }
+
+    /**
+     * Method to borrow a scratch array for multiplyInto or squareInto
+     *
+     * @param size The number of scratch limbs needed
+     *
+     * @return An array of at least size limbs, rounded up to a power of 2 so the arena keeps it for the next call
+     */
+    private static int[] borrowScratch(int size) {
+        return ScratchArena.borrow(size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1);
+    }
+
+    /**
+     * Method to get how many scratch limbs multiplyInto and squareInto need for operands of up to n limbs. A level of
+     * Karatsuba keeps 4 (n / 2 + 1) limbs and a level of Toom-Cook-3 keeps 12 (n / 3 + 2), both at most 4 n + 36, and
+     * the level below it works on at most n / 2 + 2 limbs.
+     *
+     * @param n The number of limbs of the longer operand
+     *
+     * @return The number of scratch limbs
+     */
+    private static int scratchSize(int n) {
+        long size = 0;
+        while (n >= karatsubaThreshold) {
+            size += 4L * n + 36;
+            n = Math.min(n - 1, n / 2 + 2);
+        }
+        return Math.toIntExact(size);
+    }
+
+    /**
+     * Method to multiply two runs of limbs into a run of another array, picking the algorithm from their sizes like
+     * multiply but keeping every temporary in a scratch array
+     *
+     * @param a The limb array holding the first run
+     * @param aOffset The first limb of the first run
+     * @param aLength The number of limbs in the first run
+     * @param b The limb array holding the second run
+     * @param bOffset The first limb of the second run
+     * @param bLength The number of limbs in the second run
+     * @param product The array to store the product in
+     * @param productOffset The limb of product that the lowest limb of the product goes to
+     * @param scratch The scratch array
+     * @param scratchOffset The first limb of scratch that may be used
+     * <dt><b>Precondition</b>scratch has scratchSize(max(aLength, bLength)) limbs from scratchOffset, and no two of the
+     * operand runs, the product run and those scratch limbs overlap</dt>
+     * <dt><b>Postcondition</b>The aLength + bLength limbs of product from productOffset hold the product, the operand
+     * runs are unchanged</dt>
+     */
+    private static void multiplyInto(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength,
+                                     int[] product, int productOffset, int[] scratch, int scratchOffset) {
+        if (aLength < bLength) { // make a the longer of the two
+            multiplyInto(b, bOffset, bLength, a, aOffset, aLength, product, productOffset, scratch, scratchOffset);
+        }
+        else if (bLength < karatsubaThreshold) {
+            schoolbook(a, aOffset, aLength, b, bOffset, bLength, product, productOffset);
+        }
+        else if (aLength >= 2 * bLength) {
+            multiplyUnbalancedInto(a, aOffset, aLength, b, bOffset, bLength, product, productOffset, scratch,
+                                   scratchOffset);
+        }
+        else if (bLength < toomCookThreshold) {
+            karatsubaInto(a, aOffset, aLength, b, bOffset, bLength, product, productOffset, scratch, scratchOffset);
+        }
+        else {
+            toomCook3Into(a, aOffset, aLength, b, bOffset, bLength, product, productOffset, scratch, scratchOffset);
+        }
+    }
+
+    /**
+     * Method to square a run of limbs into a run of another array, keeping every temporary in a scratch array
+     *
+     * @param a The limb array holding the run
+     * @param aOffset The first limb of the run
+     * @param aLength The number of limbs in the run
+     * @param product The array to store the square in
+     * @param productOffset The limb of product that the lowest limb of the square goes to
+     * @param scratch The scratch array
+     * @param scratchOffset The first limb of scratch that may be used
+     * <dt><b>Precondition</b>scratch has scratchSize(aLength) limbs from scratchOffset, and no two of the operand run,
+     * the square run and those scratch limbs overlap</dt>
+     * <dt><b>Postcondition</b>The 2 * aLength limbs of product from productOffset hold the square, the operand run is
+     * unchanged</dt>
+     */
+    private static void squareInto(int[] a, int aOffset, int aLength, int[] product, int productOffset, int[] scratch,
+                                   int scratchOffset) {
+        if (aLength < karatsubaThreshold) {
+            schoolbookSquare(a, aOffset, aLength, product, productOffset);
+        }
+        else if (aLength < toomCookThreshold) {
+            karatsubaInto(a, aOffset, aLength, null, 0, aLength, product, productOffset, scratch, scratchOffset);
+        }
+        else {
+            toomCook3Into(a, aOffset, aLength, null, 0, aLength, product, productOffset, scratch, scratchOffset);
+        }
+    }
+
+    /**
+     * Method to multiply or square two runs of limbs into a run of another array, for the recursive steps that square
+     * when given no second operand
+     *
+     * @param a The limb array holding the first run
+     * @param aOffset The first limb of the first run
+     * @param aLength The number of limbs in the first run
+     * @param b The limb array holding the second run, or null to square the first run
+     * @param bOffset The first limb of the second run
+     * @param bLength The number of limbs in the second run, aLength when squaring
+     * @param product The array to store the product in
+     * @param productOffset The limb of product that the lowest limb of the product goes to
+     * @param scratch The scratch array
+     * @param scratchOffset The first limb of scratch that may be used
+     */
+    private static void productInto(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength,
+                                    int[] product, int productOffset, int[] scratch, int scratchOffset) {
+        if (b == null) {
+            squareInto(a, aOffset, aLength, product, productOffset, scratch, scratchOffset);
+        }
+        else {
+            multiplyInto(a, aOffset, aLength, b, bOffset, bLength, product, productOffset, scratch, scratchOffset);
+        }
+    }
+
+    /**
+     * Method to multiply a long run of limbs by a much shorter one into a run of another array, cutting the long run
+     * into pieces the size of the short one
+     *
+     * @param a The limb array holding the longer run
+     * @param aOffset The first limb of the longer run
+     * @param aLength The number of limbs in the longer run
+     * @param b The limb array holding the shorter run
+     * @param bOffset The first limb of the shorter run
+     * @param bLength The number of limbs in the shorter run
+     * @param product The array to store the product in
+     * @param productOffset The limb of product that the lowest limb of the product goes to
+     * @param scratch The scratch array, the product of each piece is kept in its first 2 * bLength limbs
+     * @param scratchOffset The first limb of scratch that may be used
+     */
+    private static void multiplyUnbalancedInto(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength,
+                                               int[] product, int productOffset, int[] scratch, int scratchOffset) {
+        int length = aLength + bLength;
+        Arrays.fill(product, productOffset, productOffset + length, 0);
+        int rest = scratchOffset + 2 * bLength;
+        for (int offset = 0; offset < aLength; offset += bLength) {
+            int pieceLength = Math.min(bLength, aLength - offset);
+            multiplyInto(a, aOffset + offset, pieceLength, b, bOffset, bLength, scratch, scratchOffset, scratch, rest);
+            addRun(product, productOffset + offset, length - offset, scratch, scratchOffset, pieceLength + bLength);
+        }
+    }
+
+    /**
+     * Method to multiply or square two runs of limbs of similar size into a run of another array using Karatsuba's
+     * algorithm. The low and high products go straight into the product run and the sums of the halves and their
+     * product are kept in scratch.
+     *
+     * @param a The limb array holding the longer run
+     * @param aOffset The first limb of the longer run
+     * @param aLength The number of limbs in the longer run
+     * @param b The limb array holding the shorter run, or null to square the longer run
+     * @param bOffset The first limb of the shorter run
+     * @param bLength The number of limbs in the shorter run, more than half of aLength
+     * @param product The array to store the product in
+     * @param productOffset The limb of product that the lowest limb of the product goes to
+     * @param scratch The scratch array
+     * @param scratchOffset The first limb of scratch that may be used
+     */
+    private static void karatsubaInto(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength,
+                                      int[] product, int productOffset, int[] scratch, int scratchOffset) {
+        int half = (aLength + 1) / 2;
+        int length = aLength + bLength;
+        productInto(a, aOffset, half, b, bOffset, half, product, productOffset, scratch, scratchOffset);
+        productInto(a, aOffset + half, aLength - half, b, bOffset + half, bLength - half, product,
+                    productOffset + 2 * half, scratch, scratchOffset);
+
+        int aSum = scratchOffset;
+        int bSum = aSum + half + 1;
+        int middle = bSum + half + 1;
+        int rest = middle + 2 * half + 2;
+        addRuns(a, aOffset, half, a, aOffset + half, aLength - half, scratch, aSum, half + 1);
+        if (b == null) {
+            squareInto(scratch, aSum, half + 1, scratch, middle, scratch, rest);
+        }
+        else {
+            addRuns(b, bOffset, half, b, bOffset + half, bLength - half, scratch, bSum, half + 1);
+            multiplyInto(scratch, aSum, half + 1, scratch, bSum, half + 1, scratch, middle, scratch, rest);
+        }
+        // (a0 + a1)(b0 + b1) - a0 b0 - a1 b1 = a0 b1 + a1 b0
+        subtractRun(scratch, middle, 2 * half + 2, product, productOffset, 2 * half);
+        subtractRun(scratch, middle, 2 * half + 2, product, productOffset + 2 * half, length - 2 * half);
+        addRun(product, productOffset + half, length - half, scratch, middle, 2 * half + 2);
+    }
+
+    /**
+     * Method to multiply or square two runs of limbs of similar size into a run of another array using Toom-Cook-3.
+     * The products at 0 and infinity go straight into the product run, and the evaluations and the other three
+     * products are kept in scratch, where the interpolation runs in place on signed runs.
+     *
+     * @param a The limb array holding the longer run
+     * @param aOffset The first limb of the longer run
+     * @param aLength The number of limbs in the longer run
+     * @param b The limb array holding the shorter run, or null to square the longer run
+     * @param bOffset The first limb of the shorter run
+     * @param bLength The number of limbs in the shorter run, more than half of aLength
+     * @param product The array to store the product in
+     * @param productOffset The limb of product that the lowest limb of the product goes to
+     * @param scratch The scratch array
+     * @param scratchOffset The first limb of scratch that may be used
+     */
+    private static void toomCook3Into(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength,
+                                      int[] product, int productOffset, int[] scratch, int scratchOffset) {
+        int third = (aLength + 2) / 3;
+        int length = aLength + bLength;
+        int width = third + 2; // |a(-2)| < 7 * BASE^third
+        int productWidth = 2 * width;
+        int a2Length = aLength - 2 * third;
+        int b1Length = Math.min(third, bLength - third);
+        int b2Length = Math.max(bLength - 2 * third, 0);
+
+        // a(1), a(-1) and a(-2), then the same for b, then the products at 1, -1 and -2
+        int aAtOne = scratchOffset;
+        int bAtOne = b == null ? aAtOne : aAtOne + 3 * width;
+        int r1 = aAtOne + 6 * width;
+        int rm1 = r1 + productWidth;
+        int rm2 = rm1 + productWidth;
+        int rest = rm2 + productWidth;
+        int aSigns = evaluateInto(a, aOffset, third, third, a2Length, scratch, aAtOne, width);
+        int bSigns = b == null ? aSigns : evaluateInto(b, bOffset, third, b1Length, b2Length, scratch, bAtOne, width);
+        int signMinusOne = (aSigns & 1) == (bSigns & 1) ? 1 : -1;
+        int signMinusTwo = (aSigns & 2) == (bSigns & 2) ? 1 : -1;
+        int[] bScratch = b == null ? null : scratch;
+        for (int point = 0; point < 3; point++) {
+            productInto(scratch, aAtOne + point * width, width, bScratch, bAtOne + point * width, width, scratch,
+                        r1 + point * productWidth, scratch, rest);
+        }
+
+        // the products at 0 and infinity, with the limbs between them cleared for the other three
+        int infinity = productOffset + 4 * third;
+        int infinityLength = b == null ? 2 * a2Length : b2Length == 0 ? 0 : a2Length + b2Length;
+        productInto(a, aOffset, third, b, bOffset, third, product, productOffset, scratch, rest);
+        Arrays.fill(product, productOffset + 2 * third, productOffset + length - infinityLength, 0);
+        if (infinityLength > 0) {
+            productInto(a, aOffset + 2 * third, a2Length, b, bOffset + 2 * third, b2Length, product, infinity,
+                        scratch, rest);
+        }
+
+        // Bodrato's interpolation sequence, each value kept in the run of the product it replaces
+        int s3 = addSigned(scratch, rm2, productWidth, signMinusTwo, scratch, r1, productWidth, -1);
+        divideRun(scratch, rm2, productWidth, 3); // r3 = (r(-2) - r(1)) / 3
+        int s1 = addSigned(scratch, r1, productWidth, 1, scratch, rm1, productWidth, -signMinusOne);
+        divideRun(scratch, r1, productWidth, 2); // r1 = (r(1) - r(-1)) / 2
+        // r2 = r(-1) - r(0)
+        int s2 = addSigned(scratch, rm1, productWidth, signMinusOne, product, productOffset, 2 * third, -1);
+        // r3 = (r2 - r3) / 2 + 2 r(infinity)
+        s3 = -addSigned(scratch, rm2, productWidth, s3, scratch, rm1, productWidth, -s2);
+        divideRun(scratch, rm2, productWidth, 2);
+        s3 = addSigned(scratch, rm2, productWidth, s3, product, infinity, infinityLength, 1);
+        s3 = addSigned(scratch, rm2, productWidth, s3, product, infinity, infinityLength, 1);
+        // r2 = r2 + r1 - r(infinity)
+        s2 = addSigned(scratch, rm1, productWidth, s2, scratch, r1, productWidth, s1);
+        addSigned(scratch, rm1, productWidth, s2, product, infinity, infinityLength, -1);
+        // r1 = r1 - r3
+        addSigned(scratch, r1, productWidth, s1, scratch, rm2, productWidth, -s3);
+
+        // every coefficient of the product of two polynomials with positive coefficients is positive
+        addRun(product, productOffset + third, length - third, scratch, r1, productWidth);
+        addRun(product, productOffset + 2 * third, length - 2 * third, scratch, rm1, productWidth);
+        addRun(product, productOffset + 3 * third, length - 3 * third, scratch, rm2, productWidth);
+    }
+
+    /**
+     * Method to split a run of limbs into three parts and evaluate it at the Toom-Cook-3 points 1, -1 and -2
+     *
+     * @param value The limb array holding the run
+     * @param offset The first limb of the run
+     * @param third The number of limbs in the low part, and where the middle and high parts start
+     * @param middleLength The number of limbs in the middle part
+     * @param highLength The number of limbs in the high part
+     * @param scratch The array to store the evaluations in
+     * @param atOne The first limb of the three runs of width limbs holding the magnitudes at 1, -1 and -2
+     * @param width The number of limbs of each evaluation
+     *
+     * @return 1 if the value at -1 is negative plus 2 if the value at -2 is negative
+     */
+    private static int evaluateInto(int[] value, int offset, int third, int middleLength, int highLength,
+                                    int[] scratch, int atOne, int width) {
+        int atMinusOne = atOne + width;
+        int atMinusTwo = atMinusOne + width;
+        addRuns(value, offset, third, value, offset + 2 * third, highLength, scratch, atOne, width); // a0 + a2
+        System.arraycopy(scratch, atOne, scratch, atMinusOne, width);
+        int signMinusOne = addSigned(scratch, atMinusOne, width, 1, value, offset + third, middleLength, -1);
+        addRun(scratch, atOne, width, value, offset + third, middleLength);
+        System.arraycopy(scratch, atMinusOne, scratch, atMinusTwo, width);
+        int high = offset + 2 * third;
+        int signMinusTwo = addSigned(scratch, atMinusTwo, width, signMinusOne, value, high, highLength, 1);
+        doubleRun(scratch, atMinusTwo, width);
+        signMinusTwo = addSigned(scratch, atMinusTwo, width, signMinusTwo, value, offset, third, -1);
+        return (signMinusOne < 0 ? 1 : 0) + (signMinusTwo < 0 ? 2 : 0);
+    }
+
+    /**
+     * Method to add two runs of limbs into a run of another array
+     *
+     * @param a The limb array holding the first run
+     * @param aOffset The first limb of the first run
+     * @param aLength The number of limbs in the first run
+     * @param b The limb array holding the second run
+     * @param bOffset The first limb of the second run
+     * @param bLength The number of limbs in the second run
+     * @param sum The array to store the sum in
+     * @param sumOffset The first limb of the sum run
+     * @param sumLength The number of limbs in the sum run
+     * <dt><b>Precondition</b>The sum fits in sumLength limbs and the sum run does not overlap either operand run</dt>
+     */
+    private static void addRuns(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength, int[] sum,
+                                int sumOffset, int sumLength) {
+        System.arraycopy(a, aOffset, sum, sumOffset, aLength);
+        Arrays.fill(sum, sumOffset + aLength, sumOffset + sumLength, 0);
+        addRun(sum, sumOffset, sumLength, b, bOffset, bLength);
+    }
+
+    /**
+     * Method to add a run of limbs into a run of another array
+     *
+     * @param target The limb array holding the run that is added to
+     * @param offset The first limb of the target run
+     * @param length The number of limbs in the target run
+     * @param value The limb array holding the run to add
+     * @param valueOffset The first limb of the run to add
+     * @param valueLength The number of limbs in the run to add
+     * <dt><b>Precondition</b>The sum fits in the target run, so any limbs of value past its end are 0</dt>
+     */
+    private static void addRun(int[] target, int offset, int length, int[] value, int valueOffset, int valueLength) {
+        // the carry out of the last limb is 0 since the sum fits, so it never reaches the limbs past the run
+        addInto(target, offset, value, valueOffset, Math.min(valueLength, length));
+    }
+
+    /**
+     * Method to subtract a run of limbs from a run of another array in place
+     *
+     * @param target The limb array holding the run that is subtracted from
+     * @param offset The first limb of the target run
+     * @param length The number of limbs in the target run
+     * @param value The limb array holding the run to subtract
+     * @param valueOffset The first limb of the run to subtract
+     * @param valueLength The number of limbs in the run to subtract
+     * <dt><b>Precondition</b>The target run is at least as large as the run to subtract</dt>
+     */
+    private static void subtractRun(int[] target, int offset, int length, int[] value, int valueOffset,
+                                    int valueLength) {
+        int borrow = 0;
+        int i = 0;
+        for (int count = Math.min(valueLength, length); i < count; i++) {
+            int difference = target[offset + i] - value[valueOffset + i] - borrow;
+            borrow = difference < 0 ? 1 : 0;
+            target[offset + i] = difference + borrow * BASE;
+        }
+        for (; borrow != 0 && i < length; i++) {
+            int difference = target[offset + i] - borrow;
+            borrow = difference < 0 ? 1 : 0;
+            target[offset + i] = difference + borrow * BASE;
+        }
+    }
+
+    /**
+     * Method to add a signed run of limbs to another signed run in place, for the Toom-Cook-3 values that can be
+     * negative. A signed run is a magnitude run and a sign kept by the caller.
+     *
+     * @param target The limb array holding the magnitude that is added to
+     * @param offset The first limb of the target run
+     * @param length The number of limbs in the target run
+     * @param sign The sign of the target, 1 or -1
+     * @param value The limb array holding the magnitude to add
+     * @param valueOffset The first limb of the run to add
+     * @param valueLength The number of limbs in the run to add
+     * @param valueSign The sign of the value to add, 1 or -1
+     *
+     * @return The sign of the sum, whose magnitude replaces the target run
+     * <dt><b>Precondition</b>The magnitudes of both values and of the sum fit in the target run</dt>
+     */
+    private static int addSigned(int[] target, int offset, int length, int sign, int[] value, int valueOffset,
+                                 int valueLength, int valueSign) {
+        if (sign == valueSign) {
+            addRun(target, offset, length, value, valueOffset, valueLength);
+            return sign;
+        }
+        valueLength = Math.min(valueLength, length);
+        if (compareRuns(target, offset, length, value, valueOffset, valueLength) >= 0) {
+            subtractRun(target, offset, length, value, valueOffset, valueLength);
+            return sign;
+        }
+        // the target is the smaller magnitude, so it is replaced by value - target
+        int borrow = 0;
+        for (int i = 0; i < length; i++) {
+            int difference = (i < valueLength ? value[valueOffset + i] : 0) - target[offset + i] - borrow;
+            borrow = difference < 0 ? 1 : 0;
+            target[offset + i] = difference + borrow * BASE;
+        }
+        return valueSign;
+    }
+
+    /**
+     * Method to compare two runs of limbs, which may have leading zero limbs
+     *
+     * @param a The limb array holding the first run
+     * @param aOffset The first limb of the first run
+     * @param aLength The number of limbs in the first run
+     * @param b The limb array holding the second run
+     * @param bOffset The first limb of the second run
+     * @param bLength The number of limbs in the second run
+     *
+     * @return A negative number, 0 or a positive number as the first run is less than, equal to or greater than the
+     * second
+     */
+    private static int compareRuns(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength) {
+        for (int i = Math.max(aLength, bLength) - 1; i >= 0; i--) {
+            int x = i < aLength ? a[aOffset + i] : 0;
+            int y = i < bLength ? b[bOffset + i] : 0;
+            if (x != y) {
+                return x < y ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Method to double a run of limbs in place
+     *
+     * @param target The limb array holding the run
+     * @param offset The first limb of the run
+     * @param length The number of limbs in the run
+     * <dt><b>Precondition</b>Twice the run fits in length limbs</dt>
+     */
+    private static void doubleRun(int[] target, int offset, int length) {
+        int carry = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int value = 2 * target[i] + carry; // 2 (BASE - 1) + 1 is below Integer.MAX_VALUE
+            carry = value >= BASE ? 1 : 0;
+            target[i] = value - carry * BASE;
+        }
+    }
+
+    /**
+     * Method to divide a run of limbs in place by a small divisor that divides it exactly
+     *
+     * @param target The limb array holding the run
+     * @param offset The first limb of the run
+     * @param length The number of limbs in the run
+     * @param divisor The divisor
+     */
+    private static void divideRun(int[] target, int offset, int length, int divisor) {
+        long remainder = 0;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            long value = remainder * BASE + target[i];
+            target[i] = (int) (value / divisor);
+            remainder = value % divisor;
+        }
+    }
+
+    /**
+     * Method to multiply a long operand by a much shorter one by cutting the long one into pieces the size of the
+     * short one
+     *
+     * @param a The longer operand
+     * @param b The shorter operand
+     * @param parallel Whether the pieces are multiplied on several threads
+     *
+     * @return A new array of a.length + b.length limbs holding the product
+     */
+    private static int[] multiplyUnbalanced(int[] a, int[] b, boolean parallel) {
+        int pieces = (a.length + b.length - 1) / b.length;
+        int[][] left = new int[pieces][];
+        int[][] right = new int[pieces][];
+        for (int piece = 0; piece < pieces; piece++) {
+            int offset = piece * b.length;
+            left[piece] = Arrays.copyOfRange(a, offset, Math.min(offset + b.length, a.length));
+            right[piece] = b;
+        }
+        int[][] products = multiplyAll(left, right, parallel);
+
+        int[] product = new int[a.length + b.length];
+        for (int piece = 0; piece < pieces; piece++) {
+            addInto(product, piece * b.length, products[piece]);
+        }
+        return product;
+    }
+
+    /**
+     * Method to multiply two limb arrays of similar size using Karatsuba's algorithm, which replaces the four half
+     * size products of the schoolbook algorithm with three
+     *
+     * @param a The longer operand
+     * @param b The shorter operand, more than half as long as a
+     * @param parallel Whether the three half size products are computed on several threads
+     *
+     * @return A new array of a.length + b.length limbs holding the product
+     */
+    private static int[] karatsuba(int[] a, int[] b, boolean parallel) {
+        int half = (a.length + 1) / 2;
+        int[] a0 = slice(a, 0, half);
+        int[] a1 = slice(a, half, a.length);
+        int[] b0 = slice(b, 0, half);
+        int[] b1 = slice(b, half, b.length);
+
+        int[][] products = multiplyAll(new int[][]{a0, a1, addMagnitudes(a0, a1)},
+                                       new int[][]{b0, b1, addMagnitudes(b0, b1)}, parallel);
+        int[] low = products[0];
+        int[] high = products[1];
+        int[] middle = products[2];
+        subtractFrom(middle, low); // (a0 + a1)(b0 + b1) - a0 b0 - a1 b1 = a0 b1 + a1 b0
+        subtractFrom(middle, high);
+
+        int[] product = new int[a.length + b.length];
+        addInto(product, 0, low);
+        addInto(product, 2 * half, high);
+        addInto(product, half, middle);
+        return product;
+    }
+
+    /**
+     * Method to square a limb array using Karatsuba's algorithm, which needs the squares of the two halves and of
+     * their sum
+     *
+     * @param a The operand
+     * @param parallel Whether the three half size squares are computed on several threads
+     *
+     * @return A new array of 2 * a.length limbs holding the square
+     */
+    private static int[] karatsubaSquare(int[] a, boolean parallel) {
+        int half = (a.length + 1) / 2;
+        int[] a0 = slice(a, 0, half);
+        int[] a1 = slice(a, half, a.length);
+
+        int[][] squares = squareAll(new int[][]{a0, a1, addMagnitudes(a0, a1)}, parallel);
+        int[] low = squares[0];
+        int[] high = squares[1];
+        int[] middle = squares[2];
+        subtractFrom(middle, low); // (a0 + a1)^2 - a0^2 - a1^2 = 2 a0 a1
+        subtractFrom(middle, high);
+
+        int[] product = new int[2 * a.length];
+        addInto(product, 0, low);
+        addInto(product, 2 * half, high);
+        addInto(product, half, middle);
+        return product;
+    }
+
+    /**
+     * Method to multiply two limb arrays of similar size using Toom-Cook-3, which splits each operand into three
+     * parts, evaluates the parts as polynomials at 0, 1, -1, -2 and infinity, multiplies the five pairs and
+     * interpolates the product (using Bodrato's interpolation sequence)
+     *
+     * @param a The longer operand
+     * @param b The shorter operand, more than half as long as a
+     * @param parallel Whether the five products are computed on several threads
+     *
+     * @return A new array of a.length + b.length limbs holding the product
+     */
+    private static int[] toomCook3(int[] a, int[] b, boolean parallel) {
+        int third = (a.length + 2) / 3;
+        SignedLimbs[] x = evaluate(a, third);
+        SignedLimbs[] y = evaluate(b, third);
+
+        int[][] left = new int[x.length][];
+        int[][] right = new int[y.length][];
+        for (int point = 0; point < x.length; point++) {
+            left[point] = x[point].magnitude;
+            right[point] = y[point].magnitude;
+        }
+        int[][] products = multiplyAll(left, right, parallel);
+        int[] signs = new int[x.length];
+        for (int point = 0; point < x.length; point++) {
+            signs[point] = x[point].sign * y[point].sign;
+        }
+        return interpolate(products, signs, third, a.length + b.length);
+    }
+
+    /**
+     * Method to square a limb array using Toom-Cook-3, which squares the five evaluations of the operand instead of
+     * multiplying two sets of them
+     *
+     * @param a The operand
+     * @param parallel Whether the five squares are computed on several threads
+     *
+     * @return A new array of 2 * a.length limbs holding the square
+     */
+    private static int[] toomCook3Square(int[] a, boolean parallel) {
+        int third = (a.length + 2) / 3;
+        SignedLimbs[] x = evaluate(a, third);
+
+        int[][] values = new int[x.length][];
+        int[] signs = new int[x.length];
+        for (int point = 0; point < x.length; point++) {
+            values[point] = x[point].magnitude;
+            signs[point] = 1;
+        }
+        return interpolate(squareAll(values, parallel), signs, third, 2 * a.length);
+    }
+
+    /**
+     * Method to interpolate the product of two Toom-Cook-3 polynomials from their values at 0, 1, -1, -2 and infinity,
+     * using Bodrato's interpolation sequence
+     *
+     * @param products The magnitudes of the product at each point
+     * @param signs The signs of the product at each point
+     * @param third The number of limbs in each part of the operands
+     * @param length The number of limbs of the product
+     *
+     * @return A new array of length limbs holding the product
+     */
+    private static int[] interpolate(int[][] products, int[] signs, int third, int length) {
+        SignedLimbs r0 = new SignedLimbs(signs[0], products[0]);
+        SignedLimbs r1 = new SignedLimbs(signs[1], products[1]);
+        SignedLimbs rm1 = new SignedLimbs(signs[2], products[2]);
+        SignedLimbs rm2 = new SignedLimbs(signs[3], products[3]);
+        SignedLimbs rInf = new SignedLimbs(signs[4], products[4]);
+
+        SignedLimbs r3 = rm2.subtract(r1).divideExact(3);
+        r1 = r1.subtract(rm1).divideExact(2);
+        SignedLimbs r2 = rm1.subtract(r0);
+        r3 = r2.subtract(r3).divideExact(2).add(rInf.shiftLeftOne());
+        r2 = r2.add(r1).subtract(rInf);
+        r1 = r1.subtract(r3);
+
+        // every coefficient of the product of two polynomials with positive coefficients is positive
+        int[] product = new int[length];
+        addInto(product, 0, r0.magnitude);
+        addInto(product, third, r1.magnitude);
+        addInto(product, 2 * third, r2.magnitude);
+        addInto(product, 3 * third, r3.magnitude);
+        addInto(product, 4 * third, rInf.magnitude);
+        return product;
+    }
+
+    /**
+     * Method to split an operand into three parts and evaluate it at the Toom-Cook-3 points
+     *
+     * @param value The operand
+     * @param third The number of limbs in each part
+     *
+     * @return The operand evaluated at 0, 1, -1, -2 and infinity, in that order
+     */
+    private static SignedLimbs[] evaluate(int[] value, int third) {
+        SignedLimbs v0 = new SignedLimbs(slice(value, 0, third));
+        SignedLimbs v1 = new SignedLimbs(slice(value, third, 2 * third));
+        SignedLimbs v2 = new SignedLimbs(slice(value, 2 * third, value.length));
+
+        SignedLimbs evenSum = v0.add(v2);
+        SignedLimbs atOne = evenSum.add(v1);
+        SignedLimbs atMinusOne = evenSum.subtract(v1);
+        SignedLimbs atMinusTwo = atMinusOne.add(v2).shiftLeftOne().subtract(v0);
+        return new SignedLimbs[]{v0, atOne, atMinusOne, atMinusTwo, v2};
+    }
+
+    /**
+     * Method to copy part of a limb array, clamping the bounds to the array
+     *
+     * @param value The limb array
+     * @param from The first limb to copy
+     * @param to One past the last limb to copy
+     *
+     * @return The copied limbs without any leading zero limbs (empty if the part is 0 or outside the array)
+     */
+    static int[] slice(int[] value, int from, int to) {
+        to = Math.min(to, value.length);
+        while (to > from && value[to - 1] == 0) {
+            to--;
+        }
+        return from >= to ? EMPTY : Arrays.copyOfRange(value, from, to);
+    }
+
+    /**
+     * Method to drop the leading zero limbs of a limb array
+     *
+     * @param value The limb array
+     *
+     * @return value itself if it has no leading zero limbs, otherwise a shorter copy
+     */
+    static int[] trim(int[] value) {
+        int length = value.length;
+        while (length > 0 && value[length - 1] == 0) {
+            length--;
+        }
+        return length == value.length ? value : Arrays.copyOf(value, length);
+    }
+
+    /**
+     * Method to compare the size of two limb arrays without leading zero limbs
+     *
+     * @param a The first limb array
+     * @param b The second limb array
+     *
+     * @return A negative number, 0 or a positive number as a is less than, equal to or greater than b
+     */
+    static int compareMagnitudes(int[] a, int[] b) {
+        if (a.length != b.length) {
+            return a.length < b.length ? -1 : 1;
+        }
+        if (LimbVectors.worthwhile(a.length)) {
+            return LimbVectors.compare(a, b, a.length);
+        }
+        for (int i = a.length - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return a[i] < b[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Method to add two limb arrays
+     *
+     * @param a The first limb array
+     * @param b The second limb array
+     *
+     * @return A new limb array holding the sum, without leading zero limbs
+     */
+    static int[] addMagnitudes(int[] a, int[] b) {
+        int[] sum = new int[Math.max(a.length, b.length) + 1];
+        UnboundedInt.addLimbs(a, a.length, b, b.length, sum);
+        return trim(sum);
+    }
+
+    /**
+     * Method to subtract a limb array from a larger one
+     *
+     * @param a The larger limb array
+     * @param b The smaller limb array
+     *
+     * @return A new limb array holding a - b, without leading zero limbs
+     * <dt><b>Precondition</b>a is at least as large as b</dt>
+     */
+    static int[] subtractMagnitudes(int[] a, int[] b) {
+        int[] difference = a.clone();
+        subtractFrom(difference, b);
+        return trim(difference);
+    }
+
+    /**
+     * Method to add a limb array into another one at a limb offset
+     *
+     * @param target The limb array that is added to
+     * @param offset The limb of target that the first limb of value is added to
+     * @param value The limb array to add
+     * <dt><b>Precondition</b>The sum fits in target, so any limbs of value past the end of target are 0</dt>
+     */
+    static void addInto(int[] target, int offset, int[] value) {
+        addInto(target, offset, value, value.length);
+    }
+
+    /**
+     * Method to add the first limbs of a limb array into another one at a limb offset
+     *
+     * @param target The limb array that is added to
+     * @param offset The limb of target that the first limb of value is added to
+     * @param value The limb array to add
+     * @param valueLength The number of limbs of value in use
+     * <dt><b>Precondition</b>The sum fits in target, so any limbs of value past the end of target are 0</dt>
+     */
+    static void addInto(int[] target, int offset, int[] value, int valueLength) {
+        addInto(target, offset, value, 0, valueLength);
+    }
+
+    /**
+     * Method to add a run of limbs of a limb array into another one at a limb offset
+     *
+     * @param target The limb array that is added to
+     * @param offset The limb of target that the first limb of the run is added to
+     * @param value The limb array holding the run
+     * @param valueOffset The first limb of the run
+     * @param valueLength The number of limbs in the run
+     * <dt><b>Precondition</b>The sum fits in target, so any limbs of the run past the end of target are 0</dt>
+     */
+    static void addInto(int[] target, int offset, int[] value, int valueOffset, int valueLength) {
+        int carry = 0;
+        int i = offset;
+        int j = 0;
+        int count = Math.min(valueLength, target.length - offset);
+        if (LimbVectors.worthwhile(count)) {
+            carry = LimbVectors.add(target, offset, value, valueOffset, target, offset, count, 0);
+            i += count;
+            j = count;
+        }
+        for (; j < valueLength && i < target.length; j++, i++) {
+            int sum = target[i] + value[valueOffset + j] + carry;
+            carry = sum >= BASE ? 1 : 0;
+            target[i] = sum - carry * BASE;
+        }
+        for (; carry != 0 && i < target.length; i++) {
+            int sum = target[i] + carry;
+            carry = sum >= BASE ? 1 : 0;
+            target[i] = sum - carry * BASE;
+        }
+    }
+
+    /**
+     * Method to subtract a limb array from another one in place
+     *
+     * @param target The limb array that is subtracted from
+     * @param value The limb array to subtract
+     * <dt><b>Precondition</b>target is at least as large as value</dt>
+     */
+    static void subtractFrom(int[] target, int[] value) {
+        int borrow = 0;
+        int i = 0;
+        for (; i < value.length && i < target.length; i++) {
+            int difference = target[i] - value[i] - borrow;
+            borrow = difference < 0 ? 1 : 0;
+            target[i] = difference + borrow * BASE;
+        }
+        for (; borrow != 0 && i < target.length; i++) {
+            int difference = target[i] - borrow;
+            borrow = difference < 0 ? 1 : 0;
+            target[i] = difference + borrow * BASE;
+        }
+    }
+
+    /**
+     * A signed number made of a sign and a magnitude limb array, used for the intermediate values of Toom-Cook-3
+     * which can be negative
+     */
+    private static final class SignedLimbs {
+        //Invariant:
+        //magnitude has no leading zero limbs
+        //sign is 0 exactly when magnitude is empty, otherwise 1 or -1
+        private final int sign;
+        private final int[] magnitude;
+
+        SignedLimbs(int[] magnitude) {
+            this(1, magnitude);
+        }
+
+        private SignedLimbs(int sign, int[] magnitude) {
+            this.magnitude = trim(magnitude);
+            this.sign = this.magnitude.length == 0 ? 0 : sign;
+        }
+
+        SignedLimbs add(SignedLimbs other) {
+            if (other.sign == 0) {
+                return this;
+            }
+            if (sign == 0) {
+                return other;
+            }
+            if (sign == other.sign) {
+                return new SignedLimbs(sign, addMagnitudes(magnitude, other.magnitude));
+            }
+            int comparison = compareMagnitudes(magnitude, other.magnitude);
+            if (comparison == 0) {
+                return new SignedLimbs(EMPTY);
+            }
+            return comparison > 0 ? new SignedLimbs(sign, subtractMagnitudes(magnitude, other.magnitude))
+                                  : new SignedLimbs(other.sign, subtractMagnitudes(other.magnitude, magnitude));
+        }
+
+        SignedLimbs subtract(SignedLimbs other) {
+            return add(new SignedLimbs(-other.sign, other.magnitude));
+        }
+
+        SignedLimbs shiftLeftOne() {
+            int[] doubled = new int[magnitude.length + 1];
+            int carry = 0;
+            for (int i = 0; i < magnitude.length; i++) {
+                int value = magnitude[i] * 2 + carry;
+                carry = value >= BASE ? 1 : 0;
+                doubled[i] = value - carry * BASE;
+            }
+            doubled[magnitude.length] = carry;
+            return new SignedLimbs(sign, doubled);
+        }
+
+        SignedLimbs divideExact(int divisor) {
+            int[] quotient = new int[magnitude.length];
+            long remainder = 0;
+            for (int i = magnitude.length - 1; i >= 0; i--) {
+                long value = remainder * BASE + magnitude[i];
+                quotient[i] = (int) (value / divisor);
+                remainder = value % divisor;
+            }
+            return new SignedLimbs(sign, quotient);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * The LimbRoots class holds the integer root algorithms used by {@link UnboundedInt}. Operands are arrays of base
+ * 1,000,000,000 limbs, least significant limb first, without leading zero limbs (0 is the empty array).
+ * <p>
+ * Roots are found by Newton's iteration with precision doubling. The root of the top half of the number (rounded up)
+ * is found first, recursively, and is already correct in its top half, so one Newton step at full size doubles the
+ * number of correct limbs. The work is therefore dominated by the last step, one division and one power at full size,
+ * and the roots of numbers that fit in two limbs are found with long arithmetic.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class LimbRoots {
+    private static final int BASE = UnboundedInt.BASE;
+    private static final int[] EMPTY = new int[0];
+    private static final int[] ONE = {1};
+
+    private LimbRoots() {
+    }
+
+    /**
+     * Method to find the integer square root of a limb array along with the remainder
+     *
+     * @param a The limb array, without leading zero limbs
+     *
+     * @return An array holding floor(sqrt(a)) at index 0 and a - floor(sqrt(a))^2 at index 1, both without leading zero
+     * limbs
+     */
+    static int[][] sqrtAndRemainder(int[] a) {
+        int[] root = estimate(a, 2);
+        int[] square = LimbMultiplier.trim(LimbMultiplier.square(root, root.length));
+        // the estimate is never too small, and (x - 1)^2 = x^2 - (2x - 1), so step it down without squaring again
+        while (LimbMultiplier.compareMagnitudes(square, a) > 0) {
+            int[] twiceLessOne = LimbMultiplier.subtractMagnitudes(LimbMultiplier.addMagnitudes(root, root), ONE);
+            square = LimbMultiplier.subtractMagnitudes(square, twiceLessOne);
+            root = LimbMultiplier.subtractMagnitudes(root, ONE);
+        }
+        return new int[][]{root, LimbMultiplier.subtractMagnitudes(a, square)};
+    }
+
+    /**
+     * Method to find the integer k-th root of a limb array
+     *
+     * @param a The limb array, without leading zero limbs
+     * @param k The root to take, at least 2
+     *
+     * @return floor(a^(1/k)), without leading zero limbs
+     */
+    static int[] root(int[] a, int k) {
+        int[] root = estimate(a, k);
+        while (LimbMultiplier.compareMagnitudes(power(root, k), a) > 0) { // the estimate is never too small
+            root = LimbMultiplier.subtractMagnitudes(root, ONE);
+        }
+        return root;
+    }
+
+    /**
+     * Method to estimate the integer k-th root of a limb array from above
+     *
+     * @param a The limb array, without leading zero limbs
+     * @param k The root to take, at least 2
+     *
+     * @return A value at least floor(a^(1/k)) and at most a few more, without leading zero limbs
+     */
+    private static int[] estimate(int[] a, int k) {
+        if (a.length == 0) {
+            return EMPTY;
+        }
+        // a number of at most 9 * a.length digits is below 2^k once k is 4 times that, so its root is 1
+        if (k / 4 >= UnboundedInt.DIGITS_PER_LIMB * (long) a.length) {
+            return new int[]{1}; // not ONE, the root may become an unbounded int that is changed
+        }
+        if (a.length <= 2) {
+            return smallRoot(a[0] + (a.length == 2 ? (long) a[1] * BASE : 0), k);
+        }
+
+        // drop the low k * shift limbs, leaving enough that the root of the rest is correct in more than half of the
+        // limbs of the full root
+        int shift = a.length / (2 * k) - 1;
+        if (shift >= 1) {
+            int[] high = root(LimbDivider.shiftRight(a, k * shift), k);
+            int[] x = LimbDivider.shiftLeft(LimbMultiplier.addMagnitudes(high, ONE), shift);
+            return newtonStep(a, x, k);
+        }
+
+        // too few limbs to split, so iterate from a seed taken from the leading limbs until the root stops falling
+        int[] x = seed(a, k);
+        while (true) {
+            int[] next = newtonStep(a, x, k);
+            if (LimbMultiplier.compareMagnitudes(next, x) >= 0) {
+                return x;
+            }
+            x = next;
+        }
+    }
+
+    /**
+     * Method to take one step of Newton's iteration for the k-th root, x' = ((k - 1) x + a / x^(k - 1)) / k, rounding
+     * each division down
+     *
+     * @param a The number whose root is being found
+     * @param x The current estimate, at least 1
+     * @param k The root to take
+     *
+     * @return The next estimate, which is never below floor(a^(1/k))
+     */
+    private static int[] newtonStep(int[] a, int[] x, int k) {
+        int[] quotient = LimbDivider.divideAndRemainder(a, power(x, k - 1))[0];
+        int[] scaled = LimbMultiplier.trim(LimbMultiplier.multiply(x, limbsOf(k - 1)));
+        return LimbDivider.divideAndRemainder(LimbMultiplier.addMagnitudes(scaled, quotient), limbsOf(k))[0];
+    }
+
+    /**
+     * Method to build a starting estimate of the k-th root from a floating point approximation of the leading limbs,
+     * doubling it if needed so it is above the root
+     *
+     * @param a The limb array, at least 3 limbs long
+     * @param k The root to take
+     *
+     * @return A value whose k-th power is greater than a
+     */
+    private static int[] seed(int[] a, int k) {
+        int n = a.length;
+        double top = a[n - 1] * 1e18 + a[n - 2] * 1e9 + a[n - 3];
+        double rootLog = (Math.log10(top) + UnboundedInt.DIGITS_PER_LIMB * (n - 3.0)) / k;
+        // keep up to 18 digits of the root in a long and put the rest back as whole limbs
+        int limbs = Math.max(0, (int) (rootLog / UnboundedInt.DIGITS_PER_LIMB) - 1);
+        long leading = (long) Math.pow(10, rootLog - UnboundedInt.DIGITS_PER_LIMB * limbs) + 2;
+        int[] x = LimbDivider.shiftLeft(limbsOf(leading), limbs);
+        while (LimbMultiplier.compareMagnitudes(power(x, k), a) <= 0) {
+            x = LimbMultiplier.addMagnitudes(x, x);
+        }
+        return x;
+    }
+
+    /**
+     * Method to find the integer k-th root of a number below 10^18
+     *
+     * @param value The number
+     * @param k The root to take
+     *
+     * @return floor(value^(1/k)) as limbs, without leading zero limbs
+     */
+    private static int[] smallRoot(long value, int k) {
+        long root = (long) Math.pow(value, 1.0 / k);
+        while (root > 0 && !powerAtMost(root, k, value)) {
+            root--;
+        }
+        while (powerAtMost(root + 1, k, value)) {
+            root++;
+        }
+        return limbsOf(root);
+    }
+
+    /**
+     * Method to check whether a power of a long is at most a limit, without overflowing
+     *
+     * @param x The number to raise, at least 1
+     * @param k The power
+     * @param limit The limit
+     *
+     * @return Whether x^k is at most limit
+     */
+    private static boolean powerAtMost(long x, int k, long limit) {
+        long power = 1;
+        for (int i = 0; i < k; i++) {
+            if (power > limit / x) {
+                return false;
+            }
+            power *= x;
+        }
+        return true;
+    }
+
+    /**
+     * Method to raise a limb array to a power by repeated squaring
+     *
+     * @param x The limb array, without leading zero limbs
+     * @param k The power, at least 1
+     *
+     * @return x^k, without leading zero limbs
+     */
+    private static int[] power(int[] x, int k) {
+        int[] result = x;
+        for (int bit = 30 - Integer.numberOfLeadingZeros(k); bit >= 0; bit--) {
+            result = LimbMultiplier.trim(LimbMultiplier.square(result, result.length));
+            if ((k >>> bit & 1) != 0) {
+                result = LimbMultiplier.trim(LimbMultiplier.multiply(result, result.length, x, x.length));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to convert a long to limbs
+     *
+     * @param value The value, not negative
+     *
+     * @return The limbs of value, without leading zero limbs
+     */
+    private static int[] limbsOf(long value) {
+        int[] limbs = {(int) (value % BASE), (int) (value / BASE % BASE), (int) (value / BASE / BASE)};
+        return LimbMultiplier.trim(limbs);
+    }
+}
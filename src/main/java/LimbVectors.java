@@ -0,0 +1,149 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The LimbVectors class adds and compares limb arrays with the SIMD instructions of the processor, through the
+ * incubating Vector API. Each step adds a whole vector of limbs at once and keeps the carries of the lanes apart
+ * instead of rippling them from limb to limb. The carries are then resolved for the whole vector at once: a lane
+ * sends a carry on if its sum reached BASE, and passes an incoming carry through if its sum is exactly BASE - 1. With
+ * one bit per lane for each case, adding the two bit masks like binary numbers works out the carry into every lane
+ * in a few instructions.
+ * <p>
+ * The Vector API lives in the jdk.incubator.vector module, which is only loaded when the JVM is started with
+ * --add-modules jdk.incubator.vector. Without it, or on processors with vectors of fewer than four or more than 32
+ * ints, or when the unboundedint.vector system property is false, {@link #isEnabled()} is false and callers keep to
+ * their scalar loops.
+ * Only the nested Kernels class refers to the module, so the rest of the class loads either way.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class LimbVectors {
+    private static final int BASE = UnboundedInt.BASE;
+    private static final int MIN_LANES = 4;
+    //the carry masks of a vector are added in a long with a bit to spare above the lanes, so wider vectors would
+    //overflow it
+    private static final int MAX_LANES = 32;
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("unboundedint.vector", "true"))
+                                           && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                                           && Kernels.LANES >= MIN_LANES && Kernels.LANES <= MAX_LANES;
+    //the fewest limbs worth handing to the vector loops, shorter runs are done faster by the scalar loops
+    private static final int MIN_LENGTH = ENABLED ? 2 * Kernels.LANES : Integer.MAX_VALUE;
+
+    private LimbVectors() {
+    }
+
+    /**
+     * Method to check if the vector loops can be used
+     *
+     * @return True if the Vector API is available and enabled
+     */
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Method to check if a run of limbs is long enough for the vector loops
+     *
+     * @param length The number of limbs
+     *
+     * @return True if the vector loops are enabled and worth using for length limbs
+     */
+    static boolean worthwhile(int length) {
+        return length >= MIN_LENGTH;
+    }
+
+    /**
+     * Method to add two runs of limbs and a carry. The sum may be written over either run, since every limb is read
+     * before the limb of the sum at the same index is written.
+     *
+     * @param a The first limb array
+     * @param aOffset The first limb of the run of a
+     * @param b The second limb array
+     * @param bOffset The first limb of the run of b
+     * @param sum The array to store the sum in
+     * @param sumOffset The limb of sum the lowest limb of the sum goes to
+     * @param count The number of limbs in each run
+     * @param carry The carry into the lowest limb, 0 or 1
+     *
+     * @return The carry out of the highest limb, 0 or 1
+     * <dt><b>Precondition</b>isEnabled() is true</dt>
+     */
+    static int add(int[] a, int aOffset, int[] b, int bOffset, int[] sum, int sumOffset, int count, int carry) {
+        return Kernels.add(a, aOffset, b, bOffset, sum, sumOffset, count, carry);
+    }
+
+    /**
+     * Method to compare two runs of limbs of the same length as numbers
+     *
+     * @param a The first limb array
+     * @param b The second limb array
+     * @param length The number of limbs to compare, from index 0
+     *
+     * @return A negative number, 0 or a positive number as the run of a is less than, equal to or greater than the
+     * run of b
+     * <dt><b>Precondition</b>isEnabled() is true</dt>
+     */
+    static int compare(int[] a, int[] b, int length) {
+        return Kernels.compare(a, b, length);
+    }
+
+    /**
+     * The loops that use the Vector API, kept in their own class so it is only loaded when the module is present
+     */
+    private static final class Kernels {
+        private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+        private static final int LANES = SPECIES.length();
+        private static final long LANE_BITS = (1L << LANES) - 1;
+
+        private static int add(int[] a, int aOffset, int[] b, int bOffset, int[] sum, int sumOffset, int count,
+                               int carry) {
+            int upper = SPECIES.loopBound(count);
+            long carryIn = carry;
+            int i = 0;
+            for (; i < upper; i += LANES) {
+                // every lane holds a sum of at most 2 * (BASE - 1), which still fits in an int
+                IntVector s = IntVector.fromArray(SPECIES, a, aOffset + i)
+                                       .add(IntVector.fromArray(SPECIES, b, bOffset + i));
+                long generate = s.compare(VectorOperators.GE, BASE).toLong();
+                long propagate = s.compare(VectorOperators.EQ, BASE - 1).toLong();
+                // generate and propagate never share a bit, so this is a binary addition whose carry into bit k is
+                // the carry into lane k
+                long carries = (generate | propagate) + generate + carryIn;
+                VectorMask<Integer> carried = VectorMask.fromLong(SPECIES, (carries ^ propagate) & LANE_BITS);
+                s = s.add(1, carried);
+                s.sub(BASE, s.compare(VectorOperators.GE, BASE)).intoArray(sum, sumOffset + i);
+                carryIn = carries >>> LANES;
+            }
+            int c = (int) carryIn;
+            for (; i < count; i++) {
+                int value = a[aOffset + i] + b[bOffset + i] + c;
+                c = value >= BASE ? 1 : 0;
+                sum[sumOffset + i] = value - c * BASE;
+            }
+            return c;
+        }
+
+        private static int compare(int[] a, int[] b, int length) {
+            int i = length;
+            while (i >= LANES) {
+                i -= LANES;
+                VectorMask<Integer> different = IntVector.fromArray(SPECIES, a, i)
+                                                         .compare(VectorOperators.NE, IntVector.fromArray(SPECIES, b, i));
+                if (different.anyTrue()) {
+                    int limb = i + different.lastTrue();
+                    return a[limb] < b[limb] ? -1 : 1;
+                }
+            }
+            for (i--; i >= 0; i--) {
+                if (a[i] != b[i]) {
+                    return a[i] < b[i] ? -1 : 1;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import java.nio.IntBuffer;
+
+/**
+ * The MappedUnboundedInt class is a read only view of an unbounded int saved with {@link UnboundedIntIO} whose limbs
+ * stay in a memory mapped file. Mapping a saved value only checks its limbs, it does not copy them, so loading is
+ * bounded by how fast the file can be read. Use {@link #toUnboundedInt()} to get a value that arithmetic can be done
+ * on, which copies the limbs onto the heap in one bulk transfer.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public class MappedUnboundedInt {
+    //Invariant:
+    //limbs holds the limbs of the value, least significant first, from index 0 to its limit
+    //every limb is between 0 and 999,999,999
+    //length is the number of limbs without the leading zero limbs, at least 1
+    private final IntBuffer limbs;
+    private final int length;
+
+
+    /**
+     * Constructor for the MappedUnboundedInt class
+     *
+     * @param limbs The little endian view of the mapped limbs
+     *
+     * @throws IllegalArgumentException If a limb is not between 0 and 999,999,999
+     */
+    MappedUnboundedInt(IntBuffer limbs) {
+        UnboundedIntIO.checkLimbs(limbs);
+        int significant = limbs.limit();
+        while (significant > 1 && limbs.get(significant - 1) == 0) {
+            significant--;
+        }
+        this.limbs = limbs;
+        this.length = Math.max(significant, 1);
+    }
+
+    /**
+     * Accessor method to get the number of limbs of the value
+     *
+     * @return The number of base 1,000,000,000 limbs, at least 1
+     */
+    public int limbCount() {
+        return length;
+    }
+
+    /**
+     * Accessor method to get one limb of the value, read straight from the mapped file
+     *
+     * @param index The index of the limb, 0 being the least significant
+     *
+     * @return The limb, between 0 and 999,999,999
+     *
+     * @throws IndexOutOfBoundsException If index is negative or not less than limbCount()
+     */
+    public int limbAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Limb index " + index + " is out of range");
+        }
+        return limbs.get(index);
+    }
+
+    /**
+     * Method to get the mapped limbs
+     *
+     * @return The little endian view of the mapped limbs, which may include leading zero limbs
+     */
+    IntBuffer limbs() {
+        return limbs;
+    }
+
+    /**
+     * Method to copy the value onto the heap
+     *
+     * @return A new unbounded int holding the value
+     */
+    public UnboundedInt toUnboundedInt() {
+        int[] copy = new int[length];
+        limbs.get(0, copy, 0, length);
+        return new UnboundedInt(copy, length);
+    }
+
+    /**
+     * Outputs the value as a string, with commas
+     *
+     * @return The value as a string, with commas
+     */
+    public String toString() {
+        return toUnboundedInt().toString();
+    }
+}
@@ -0,0 +1,399 @@
+import java.util.Arrays;
+
+/**
+ * The MontgomeryContext class holds everything that can be worked out once for a modulus so that many modular
+ * exponentiations can be done with it, such as the RSA or Diffie-Hellman arithmetic of a single key. Products are
+ * reduced with Montgomery's method, one base 1,000,000,000 limb at a time, which replaces every division by the
+ * modulus with multiplications and a shift. Exponents are scanned in binary with a sliding window, so only the odd
+ * powers of the base up to the window size have to be precomputed.
+ * <p>
+ * Montgomery reduction needs a modulus with no factor in common with the limb base, that is one ending in 1, 3, 7 or
+ * 9. Other moduli fall back to reducing each product by division, with the same window scanning. The modulus is scaled
+ * for the division once, when the context is built, and the products are divided in place in the working buffers.
+ * <p>
+ * A context never changes once it is built and can be shared between threads. Each thread gets its own working
+ * buffers, which are allocated on its first call and reused by its later ones.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public final class MontgomeryContext {
+    private static final int BASE = UnboundedInt.BASE;
+    //exponents are converted to 29 bit words, the largest power of 2 that is a single limb divisor
+    private static final int EXPONENT_WORD_BITS = 29;
+    private static final int MAX_WINDOW = 7;
+    //ceil(2^92 / BASE), so that multiplyHigh(value, BASE_RECIPROCAL) >>> 28 is value / BASE for values below 2^62
+    private static final long BASE_RECIPROCAL = 4951760157141521100L;
+
+    //Invariant:
+    //modulus holds the n limbs of the modulus, and its top limb is not 0
+    //when montgomery is true, inverse is -modulus^-1 mod BASE, and rSquared and one hold R^2 mod modulus and
+    //R mod modulus, where R = BASE^n, each in n limbs
+    //when montgomery is false and n is at least 2, scaledModulus holds modulus * scale in n limbs, with a top limb of
+    //at least BASE / 2
+    private final int[] modulus;
+    private final int n;
+    private final boolean montgomery;
+    private final long inverse;
+    private final int[] rSquared;
+    private final int[] one;
+    private final int scale;
+    private final int[] scaledModulus;
+    private final ThreadLocal<Workspace> workspaces;
+
+
+    /**
+     * Constructor for the MontgomeryContext class
+     *
+     * @param modulus The modulus every exponentiation of this context reduces by
+     *
+     * @throws IllegalArgumentException If modulus is null or 0
+     * <dt><b>Postcondition</b>modulus is unchanged</dt>
+     */
+    public MontgomeryContext(UnboundedInt modulus) {
+        if (modulus == null) {
+            throw new IllegalArgumentException("Modulus cannot be null");
+        }
+        if (modulus.isZero()) {
+            throw new IllegalArgumentException("Modulus cannot be 0");
+        }
+        this.n = modulus.getLength();
+        this.modulus = Arrays.copyOf(modulus.getLimbs(), n);
+        this.montgomery = this.modulus[0] % 2 != 0 && this.modulus[0] % 5 != 0;
+        if (montgomery) {
+            inverse = BASE - inverseModBase(this.modulus[0]);
+            one = reduce(LimbDivider.shiftLeft(new int[]{1}, n));
+            rSquared = reduce(LimbDivider.shiftLeft(new int[]{1}, 2 * n));
+            scale = 1;
+            scaledModulus = null;
+        }
+        else {
+            inverse = 0;
+            one = reduce(new int[]{1});
+            rSquared = null;
+            scale = BASE / (this.modulus[n - 1] + 1);
+            // scaling never adds a limb to the modulus
+            scaledModulus = n >= 2 ? Arrays.copyOf(LimbDivider.multiplyByLimb(this.modulus, scale), n) : null;
+        }
+        workspaces = ThreadLocal.withInitial(() -> new Workspace(n, montgomery));
+    }
+
+    /**
+     * Method to get the modulus of this context
+     *
+     * @return A new unbounded int holding the modulus
+     */
+    public UnboundedInt getModulus() {
+        return new UnboundedInt(modulus.clone(), n);
+    }
+
+    /**
+     * Method to raise an unbounded int to a power, reduced by the modulus of this context
+     *
+     * @param base The unbounded int to raise
+     * @param exponent The power to raise it to
+     *
+     * @return A new unbounded int holding base^exponent mod modulus, between 0 and modulus - 1 (0^0 is 1)
+     *
+     * @throws IllegalArgumentException If base or exponent is null
+     * <dt><b>Postcondition</b>base and exponent are unchanged</dt>
+     */
+    public UnboundedInt modPow(UnboundedInt base, UnboundedInt exponent) {
+        if (base == null || exponent == null) {
+            throw new IllegalArgumentException("Base and exponent cannot be null");
+        }
+        int[] bits = toBinary(exponent);
+        int bitLength = bitLength(bits);
+        Workspace workspace = workspaces.get();
+        int window = windowSize(bitLength);
+        int entries = 1 << (window - 1);
+        int[][] table = workspace.table(entries);
+        int[] result = workspace.result;
+        System.arraycopy(one, 0, result, 0, n); // 1 in Montgomery form when montgomery is true
+
+        // table[k] holds base^(2k + 1), converted to Montgomery form first
+        int[] reduced = reduce(LimbMultiplier.slice(base.getLimbs(), 0, base.getLength()));
+        if (montgomery) {
+            multiply(reduced, rSquared, table[0], workspace);
+        }
+        else {
+            System.arraycopy(reduced, 0, table[0], 0, n);
+        }
+        if (entries > 1) {
+            multiply(table[0], table[0], workspace.square, workspace);
+            for (int k = 1; k < entries; k++) {
+                multiply(table[k - 1], workspace.square, table[k], workspace);
+            }
+        }
+
+        // scan the exponent from the top, squaring for each bit and multiplying in one odd window at a time
+        boolean started = false;
+        int bit = bitLength - 1;
+        while (bit >= 0) {
+            if (!testBit(bits, bit)) {
+                if (started) {
+                    multiply(result, result, result, workspace);
+                }
+                bit--;
+                continue;
+            }
+            int low = Math.max(bit - window + 1, 0);
+            while (!testBit(bits, low)) {
+                low++;
+            }
+            int value = 0;
+            for (int i = bit; i >= low; i--) {
+                value = value << 1 | (testBit(bits, i) ? 1 : 0);
+            }
+            if (started) {
+                for (int i = bit; i >= low; i--) {
+                    multiply(result, result, result, workspace);
+                }
+                multiply(result, table[value >> 1], result, workspace);
+            }
+            else {
+                System.arraycopy(table[value >> 1], 0, result, 0, n);
+                started = true;
+            }
+            bit = low - 1;
+        }
+
+        int[] answer = new int[n];
+        if (montgomery) { // leave Montgomery form by multiplying by 1
+            Arrays.fill(workspace.square, 0);
+            workspace.square[0] = 1;
+            multiply(result, workspace.square, answer, workspace);
+        }
+        else {
+            System.arraycopy(result, 0, answer, 0, n);
+        }
+        return new UnboundedInt(answer, n);
+    }
+
+    /**
+     * Method to multiply two residues and reduce the product, using Montgomery's method (coarsely integrated operand
+     * scanning) when the modulus allows it and division otherwise. Either way the product is worked out in the
+     * buffers of the workspace, so below the Karatsuba threshold no arrays are allocated.
+     *
+     * @param a The first residue, n limbs
+     * @param b The second residue, n limbs
+     * @param out The array to store the n limb result in, which may be a or b
+     * @param workspace The buffers of the calling thread
+     */
+    private void multiply(int[] a, int[] b, int[] out, Workspace workspace) {
+        if (!montgomery) {
+            if (n == 1) { // the product of two residues fits in a long
+                out[0] = (int) ((long) a[0] * b[0] % modulus[0]);
+                return;
+            }
+            int[] u = workspace.product;
+            Arrays.fill(u, 0);
+            LimbMultiplier.multiplyAdd(a, n, b, n, u);
+            LimbDivider.multiplyByLimb(u, 2 * n, scale);
+            LimbDivider.divideScaled(u, n, scaledModulus, null);
+            LimbDivider.divideByLimb(u, n, scale, out);
+            return;
+        }
+        long[] t = workspace.t;
+        Arrays.fill(t, 0);
+        for (int i = 0; i < n; i++) {
+            // add a * b[i] and the multiple u of the modulus that clears the bottom limb in the same pass, shifting
+            // the sum down one limb as it goes
+            long factor = b[i];
+            long bottom = t[0] + a[0] * factor;
+            long u = remainderByBase(remainderByBase(bottom) * inverse);
+            long carry = divideByBase(bottom + u * modulus[0]);
+            for (int j = 1; j < n; j++) {
+                long value = t[j] + a[j] * factor + u * modulus[j] + carry;
+                carry = divideByBase(value);
+                t[j - 1] = value - carry * BASE;
+            }
+            long top = t[n] + carry;
+            carry = divideByBase(top);
+            t[n - 1] = top - carry * BASE;
+            t[n] = carry;
+        }
+
+        // the result is below 2 * modulus, so at most one subtraction brings it into range
+        boolean subtract = t[n] != 0;
+        if (!subtract) {
+            subtract = true;
+            for (int j = n - 1; j >= 0; j--) {
+                if (t[j] != modulus[j]) {
+                    subtract = t[j] > modulus[j];
+                    break;
+                }
+            }
+        }
+        long borrow = 0;
+        for (int j = 0; j < n; j++) {
+            long value = t[j] - (subtract ? modulus[j] : 0) - borrow;
+            borrow = value < 0 ? 1 : 0;
+            out[j] = (int) (value + borrow * BASE);
+        }
+    }
+
+    /**
+     * Method to divide by the limb base with a multiplication instead of a division, which the inner loops of the
+     * Montgomery product are otherwise bound by
+     *
+     * @param value The value to divide, between 0 and 2^62
+     *
+     * @return value / BASE
+     */
+    private static long divideByBase(long value) {
+        return Math.multiplyHigh(value, BASE_RECIPROCAL) >>> 28;
+    }
+
+    /**
+     * Method to get the remainder of a division by the limb base with a multiplication instead of a division
+     *
+     * @param value The value to divide, between 0 and 2^62
+     *
+     * @return value % BASE
+     */
+    private static long remainderByBase(long value) {
+        return value - divideByBase(value) * BASE;
+    }
+
+    /**
+     * Method to reduce a limb array by the modulus
+     *
+     * @param value The limb array, without leading zero limbs
+     *
+     * @return A new array of n limbs holding value mod modulus
+     */
+    private int[] reduce(int[] value) {
+        int[] remainder = LimbDivider.divideAndRemainder(value, modulus)[1];
+        return Arrays.copyOf(remainder, n);
+    }
+
+    /**
+     * Method to find the inverse of a limb modulo the limb base, using the extended Euclidean algorithm
+     *
+     * @param value The limb, which must not be divisible by 2 or 5
+     *
+     * @return The limb x with value * x = 1 mod BASE
+     */
+    private static long inverseModBase(long value) {
+        long r0 = BASE;
+        long r1 = value;
+        long t0 = 0;
+        long t1 = 1;
+        while (r1 != 0) {
+            long quotient = r0 / r1;
+            long r = r0 - quotient * r1;
+            r0 = r1;
+            r1 = r;
+            long t = t0 - quotient * t1;
+            t0 = t1;
+            t1 = t;
+        }
+        return t0 < 0 ? t0 + BASE : t0;
+    }
+
+    /**
+     * Method to convert an exponent to binary, by dividing it by 2^29 until nothing is left
+     *
+     * @param exponent The exponent
+     *
+     * @return The 29 bit words of the exponent, least significant first
+     */
+    private static int[] toBinary(UnboundedInt exponent) {
+        int[] value = LimbMultiplier.slice(exponent.getLimbs(), 0, exponent.getLength());
+        int length = value.length;
+        int[] words = new int[length * 31 / EXPONENT_WORD_BITS + 1];
+        int count = 0;
+        while (length > 0) {
+            words[count++] = LimbDivider.divideByLimb(value, length, 1 << EXPONENT_WORD_BITS, value);
+            while (length > 0 && value[length - 1] == 0) {
+                length--;
+            }
+        }
+        return Arrays.copyOf(words, count);
+    }
+
+    /**
+     * Method to get the number of bits of an exponent
+     *
+     * @param words The 29 bit words of the exponent
+     *
+     * @return The position of the highest set bit plus 1, 0 for an exponent of 0
+     */
+    private static int bitLength(int[] words) {
+        if (words.length == 0) {
+            return 0;
+        }
+        int top = words[words.length - 1];
+        return (words.length - 1) * EXPONENT_WORD_BITS + 32 - Integer.numberOfLeadingZeros(top);
+    }
+
+    /**
+     * Method to check one bit of an exponent
+     *
+     * @param words The 29 bit words of the exponent
+     * @param bit The position of the bit
+     *
+     * @return Whether the bit is set
+     */
+    private static boolean testBit(int[] words, int bit) {
+        return (words[bit / EXPONENT_WORD_BITS] >>> (bit % EXPONENT_WORD_BITS) & 1) != 0;
+    }
+
+    /**
+     * Method to pick the window size for an exponent, trading the cost of the table against the multiplications it
+     * saves
+     *
+     * @param bitLength The number of bits of the exponent
+     *
+     * @return The number of bits in a window, between 1 and 7
+     */
+    static int windowSize(int bitLength) {
+        int[] limits = {7, 25, 81, 241, 673, 1793};
+        for (int window = 1; window <= limits.length; window++) {
+            if (bitLength <= limits[window - 1]) {
+                return window;
+            }
+        }
+        return MAX_WINDOW;
+    }
+
+    /**
+     * The working buffers of one thread, sized for the modulus of the context
+     */
+    private static final class Workspace {
+        private final int n;
+        private final long[] t;
+        private final int[] result;
+        private final int[] square;
+        //the product being reduced by division, with a limb to spare for scaling it
+        private final int[] product;
+        private int[][] table = new int[0][];
+
+        private Workspace(int n, boolean montgomery) {
+            this.n = n;
+            this.t = new long[n + 1];
+            this.result = new int[n];
+            this.square = new int[n];
+            this.product = montgomery ? null : new int[2 * n + 1];
+        }
+
+        /**
+         * Method to get the table of odd powers, growing it if a larger window is needed than before
+         *
+         * @param size The number of entries needed
+         *
+         * @return The table, with at least size entries of n limbs
+         */
+        private int[][] table(int size) {
+            if (table.length < size) {
+                int old = table.length;
+                table = Arrays.copyOf(table, size);
+                for (int i = old; i < size; i++) {
+                    table[i] = new int[n];
+                }
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+import java.util.Arrays;
+
+/**
+ * The NumberTheoreticTransform class multiplies very large limb arrays with number theoretic transforms. Each operand
+ * is transformed modulo three NTT friendly primes, the transforms are multiplied point by point and transformed back,
+ * and the exact coefficients of the product are rebuilt from the three residues with the Chinese remainder theorem.
+ * Everything is done with integer arithmetic, so there is no floating point rounding to worry about.
+ * <p>
+ * The transform buffers and root tables all have power of 2 lengths and are borrowed from the {@link ScratchArena}, so
+ * a thread that multiplies numbers of similar size again and again allocates little more than the product itself.
+ * <p>
+ * The three primes multiply to about 7.1 * 10^26, which is more than the largest coefficient of a product of two
+ * arrays of base 1,000,000,000 limbs as long as the product has at most {@link #MAX_LENGTH} limbs.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class NumberTheoreticTransform {
+    private static final int BASE = UnboundedInt.BASE;
+
+    //primes of the form k * 2^m + 1 with their primitive roots, every prime is below 2^31 so residues fit in an int
+    private static final int[] PRIMES = {2013265921, 469762049, 754974721};
+    private static final int[] PRIMITIVE_ROOTS = {31, 3, 11};
+
+    //754974721 = 45 * 2^24 + 1 is the prime with the fewest roots of unity, so it limits the transform length
+    static final int MAX_LENGTH = 1 << 24;
+
+    //the smallest piece of a loop over the transform that is worth running as its own task
+    private static final int PARALLEL_PIECE = 1 << 13;
+
+    //constants for Garner's form of the Chinese remainder theorem
+    private static final long P1 = PRIMES[0];
+    private static final long P2 = PRIMES[1];
+    private static final long P3 = PRIMES[2];
+    private static final long P1_INVERSE_MOD_P2 = inverse(P1 % P2, P2);
+    private static final long P1_P2_INVERSE_MOD_P3 = inverse(P1 * P2 % P3, P3);
+    private static final long P1_P2_HIGH = P1 * P2 / BASE;
+    private static final long P1_P2_LOW = P1 * P2 % BASE;
+
+    private NumberTheoreticTransform() {
+    }
+
+    /**
+     * Method to check if a product can be computed with the transform
+     *
+     * @param productLength The number of limbs of the product
+     *
+     * @return Whether the product fits in the largest supported transform
+     */
+    static boolean fits(int productLength) {
+        return productLength <= MAX_LENGTH;
+    }
+
+    /**
+     * Method to multiply two limb arrays
+     *
+     * @param a The first operand, every limb of the array is used
+     * @param b The second operand, every limb of the array is used
+     *
+     * @return A new array of a.length + b.length limbs holding the product
+     * <dt><b>Precondition</b>a.length + b.length is at most MAX_LENGTH</dt>
+     */
+    static int[] multiply(int[] a, int[] b) {
+        return multiply(a, b, false);
+    }
+
+    /**
+     * Method to multiply two limb arrays, optionally running the three primes, the butterflies of every transform
+     * level and the carry propagation on the {@link ParallelArithmetic} pool
+     *
+     * @param a The first operand, every limb of the array is used
+     * @param b The second operand, every limb of the array is used, squaring is done when this is the same array as a
+     * @param parallel Whether the work is split across the pool
+     *
+     * @return A new array of a.length + b.length limbs holding the product, the same limbs either way
+     * <dt><b>Precondition</b>a.length + b.length is at most MAX_LENGTH, and if parallel is true this is called from
+     * a task running on the pool</dt>
+     */
+    static int[] multiply(int[] a, int[] b, boolean parallel) {
+        int size = transformSize(a.length + b.length);
+        int[][] residues = new int[PRIMES.length][];
+        if (parallel) {
+            ParallelArithmetic.forEach(PRIMES.length, prime -> residues[prime] = convolve(a, b, size, prime, true));
+        }
+        else {
+            for (int prime = 0; prime < PRIMES.length; prime++) {
+                residues[prime] = convolve(a, b, size, prime, false);
+            }
+        }
+        int[] product = reconstruct(residues, a.length + b.length, parallel);
+        for (int[] residue : residues) {
+            ScratchArena.release(residue);
+        }
+        return product;
+    }
+
+    /**
+     * Method to square a limb array, which only needs one forward transform per prime instead of two
+     *
+     * @param a The operand, every limb of the array is used
+     *
+     * @return A new array of 2 * a.length limbs holding the square
+     * <dt><b>Precondition</b>2 * a.length is at most MAX_LENGTH</dt>
+     */
+    static int[] square(int[] a) {
+        return multiply(a, a);
+    }
+
+    /**
+     * Method to get the transform length needed for a product
+     *
+     * @param productLength The number of limbs of the product
+     *
+     * @return The smallest power of 2 that is at least productLength
+     */
+    static int transformSize(int productLength) {
+        return Math.max(2, Integer.highestOneBit(Math.max(productLength - 1, 1)) << 1);
+    }
+
+    /**
+     * Method to compute the cyclic convolution of two limb arrays modulo one of the primes
+     *
+     * @param a The first operand
+     * @param b The second operand, squaring is done when this is the same array as a
+     * @param size The transform length
+     * @param prime The index of the prime to work modulo
+     * @param parallel Whether the transforms are split across the pool
+     *
+     * @return The coefficients of the product modulo the prime, in an array borrowed from the {@link ScratchArena}
+     */
+    static int[] convolve(int[] a, int[] b, int size, int prime, boolean parallel) {
+        long p = PRIMES[prime];
+        int[] fa = reduce(a, size, (int) p);
+        transform(fa, prime, false, parallel);
+        int[] fb = fa;
+        if (b != a) {
+            fb = reduce(b, size, (int) p);
+            transform(fb, prime, false, parallel);
+        }
+        int[] other = fb;
+        pointwise(0, size, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                fa[i] = (int) ((long) fa[i] * other[i] % p);
+            }
+        });
+        if (fb != fa) {
+            ScratchArena.release(fb);
+        }
+        transform(fa, prime, true, parallel);
+        return fa;
+    }
+
+    /**
+     * Method to run a loop over transform indexes, on the pool when running in parallel
+     *
+     * @param from The first index
+     * @param to One past the last index
+     * @param parallel Whether the loop is split across the pool
+     * @param body The work for one piece of the loop
+     */
+    private static void pointwise(int from, int to, boolean parallel, ParallelArithmetic.RangeBody body) {
+        if (parallel) {
+            ParallelArithmetic.forRange(from, to, PARALLEL_PIECE, body);
+        }
+        else {
+            body.run(from, to);
+        }
+    }
+
+    /**
+     * Method to copy a limb array into a transform buffer, reducing every limb modulo a prime
+     *
+     * @param value The limb array
+     * @param size The transform length
+     * @param p The prime
+     *
+     * @return An array of size values borrowed from the {@link ScratchArena}, zero padded past the end of value
+     */
+    private static int[] reduce(int[] value, int size, int p) {
+        int[] reduced = ScratchArena.borrow(size);
+        for (int i = 0; i < value.length; i++) {
+            reduced[i] = value[i] % p;
+        }
+        Arrays.fill(reduced, value.length, size, 0);
+        return reduced;
+    }
+
+    /**
+     * Method to run an in place iterative radix 2 number theoretic transform
+     *
+     * @param values The values to transform, its length is a power of 2
+     * @param prime The index of the prime to work modulo
+     * @param inverse Whether to run the inverse transform, which also divides by the length
+     */
+    static void transform(int[] values, int prime, boolean inverse) {
+        transform(values, prime, inverse, false);
+    }
+
+    /**
+     * Method to run an in place iterative radix 2 number theoretic transform, optionally running the butterflies of
+     * each level on the {@link ParallelArithmetic} pool
+     *
+     * @param values The values to transform, its length is a power of 2
+     * @param prime The index of the prime to work modulo
+     * @param inverse Whether to run the inverse transform, which also divides by the length
+     * @param parallel Whether the levels are split across the pool
+     */
+    static void transform(int[] values, int prime, boolean inverse, boolean parallel) {
+        int n = values.length;
+        long p = PRIMES[prime];
+
+        // bit reversal permutation so the butterflies below can run in place
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                int swap = values[i];
+                values[i] = values[j];
+                values[j] = swap;
+            }
+        }
+
+        // roots[k] is the k-th power of a primitive n-th root of unity, shared by every level of butterflies
+        int[] roots = fillRootsOfUnity(ScratchArena.borrow(Math.max(1, n / 2)), n, prime, inverse);
+        for (int length = 2; length <= n; length <<= 1) {
+            int half = length >> 1;
+            int stride = n / length;
+            // every level has n / 2 butterflies, which are independent of each other
+            pointwise(0, n / 2, parallel, (from, to) -> butterflyRange(values, half, roots, stride, p, from, to));
+        }
+
+        if (inverse) {
+            long scale = inverse(n, p);
+            pointwise(0, n, parallel, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    values[i] = (int) (values[i] * scale % p);
+                }
+            });
+        }
+        ScratchArena.release(roots);
+    }
+
+    /**
+     * Method to run a range of the butterflies of one transform level, numbering the butterflies of the level from 0
+     * to n / 2 - 1 across all of its blocks
+     *
+     * @param values The values being transformed
+     * @param half Half the length of the blocks of this level
+     * @param roots The powers of the primitive root of unity for the whole transform
+     * @param stride The step through roots for this level
+     * @param p The prime
+     * @param from The first butterfly to run
+     * @param to One past the last butterfly to run
+     */
+    private static void butterflyRange(int[] values, int half, int[] roots, int stride, long p, int from, int to) {
+        while (from < to) {
+            int block = from / half;
+            int first = from - block * half;
+            int last = Math.min(half, first + to - from);
+            butterflies(values, 2 * half * block, half, first, last, roots, stride, p);
+            from += last - first;
+        }
+    }
+
+    /**
+     * Method to run some of the butterflies of one block of a transform level
+     *
+     * @param values The values being transformed
+     * @param start The first index of the block
+     * @param half Half the length of the block
+     * @param first The first butterfly of the block to run
+     * @param last One past the last butterfly of the block to run
+     * @param roots The powers of the primitive root of unity for the whole transform
+     * @param stride The step through roots for this level
+     * @param p The prime
+     */
+    private static void butterflies(int[] values, int start, int half, int first, int last, int[] roots, int stride,
+                                    long p) {
+        for (int j = first; j < last; j++) {
+            int u = values[start + j];
+            int v = (int) (values[start + j + half] * (long) roots[j * stride] % p);
+            int sum = u + v; // u + v can pass 2^31, so the sum is compared as an unsigned int
+            values[start + j] = Integer.compareUnsigned(sum, (int) p) >= 0 ? sum - (int) p : sum;
+            int difference = u - v;
+            values[start + j + half] = difference < 0 ? difference + (int) p : difference;
+        }
+    }
+
+    /**
+     * Method to list the powers of a primitive root of unity
+     *
+     * @param n The order of the root, a power of 2
+     * @param prime The index of the prime to work modulo
+     * @param inverse Whether to use the inverse of the root
+     *
+     * @return An array of n / 2 values holding the 0-th to (n / 2 - 1)-th powers of the root
+     */
+    static int[] rootsOfUnity(int n, int prime, boolean inverse) {
+        return fillRootsOfUnity(new int[Math.max(1, n / 2)], n, prime, inverse);
+    }
+
+    /**
+     * Method to write the powers of a primitive root of unity into an array
+     *
+     * @param roots The array to write the powers into, of n / 2 values or 1 value if n is 1
+     * @param n The order of the root, a power of 2
+     * @param prime The index of the prime to work modulo
+     * @param inverse Whether to use the inverse of the root
+     *
+     * @return roots, holding the 0-th to (n / 2 - 1)-th powers of the root
+     */
+    private static int[] fillRootsOfUnity(int[] roots, int n, int prime, boolean inverse) {
+        long p = PRIMES[prime];
+        long root = power(PRIMITIVE_ROOTS[prime], (p - 1) / n, p);
+        if (inverse) {
+            root = inverse(root, p);
+        }
+        long value = 1;
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = (int) value;
+            value = value * root % p;
+        }
+        return roots;
+    }
+
+    /**
+     * Method to rebuild the product from its coefficients modulo the three primes and propagate the carries
+     *
+     * @param residues The coefficients of the product modulo each of the primes
+     * @param productLength The number of limbs of the product
+     * @param parallel Whether pieces of the product are rebuilt on the pool, with the carries between the pieces
+     * added afterwards
+     *
+     * @return A new array of productLength limbs holding the product
+     */
+    static int[] reconstruct(int[][] residues, int productLength, boolean parallel) {
+        int[] product = new int[productLength];
+        if (!parallel) {
+            reconstructRange(residues, product, 0, productLength);
+            return product;
+        }
+        int pieces = Math.max(1, Math.min(productLength / PARALLEL_PIECE, ParallelArithmetic.getParallelism() * 4));
+        int piece = (productLength + pieces - 1) / pieces;
+        long[] carries = new long[pieces];
+        ParallelArithmetic.forEach(pieces, i -> carries[i] = reconstructRange(residues, product, i * piece,
+                                                                               Math.min((i + 1) * piece,
+                                                                                        productLength)));
+        for (int i = 0; i < pieces - 1; i++) { // each carry is worth the limb just past the end of its piece
+            long carry = carries[i];
+            LimbMultiplier.addInto(product, (i + 1) * piece,
+                                   new int[]{(int) (carry % BASE), (int) (carry / BASE % BASE),
+                                             (int) (carry / BASE / BASE)});
+        }
+        return product;
+    }
+
+    /**
+     * Method to rebuild part of the product from its coefficients modulo the three primes
+     *
+     * @param residues The coefficients of the product modulo each of the primes
+     * @param product The array to store the limbs of the product in
+     * @param from The first limb to rebuild
+     * @param to One past the last limb to rebuild
+     *
+     * @return The carry out of the part, which is worth the limb at index to
+     */
+    private static long reconstructRange(int[][] residues, int[] product, int from, int to) {
+        int[] r1 = residues[0];
+        int[] r2 = residues[1];
+        int[] r3 = residues[2];
+        long carry = 0;
+        for (int i = from; i < to; i++) {
+            // Garner: coefficient = k1 + k2 * P1 + k3 * P1 * P2 with k1 < P1, k2 < P2 and k3 < P3
+            long k1 = r1[i];
+            long k2 = Math.floorMod(r2[i] - k1, P2) * P1_INVERSE_MOD_P2 % P2;
+            long k3 = Math.floorMod(r3[i] - k1 - k2 * P1 % P3, P3) * P1_P2_INVERSE_MOD_P3 % P3;
+
+            // P1 * P2 * k3 does not fit in a long, so its part above one limb is carried separately
+            long low = k1 + k2 * P1 + k3 * P1_P2_LOW + carry;
+            product[i] = (int) (low % BASE);
+            carry = low / BASE + k3 * P1_P2_HIGH;
+        }
+        return carry;
+    }
+
+    /**
+     * Method to raise a number to a power modulo a prime
+     *
+     * @param base The number
+     * @param exponent The power, not negative
+     * @param p The prime
+     *
+     * @return base^exponent mod p
+     */
+    static long power(long base, long exponent, long p) {
+        long result = 1;
+        base %= p;
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = result * base % p;
+            }
+            base = base * base % p;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Method to find the inverse of a number modulo a prime
+     *
+     * @param value The number, not a multiple of p
+     * @param p The prime
+     *
+     * @return The number that gives 1 mod p when multiplied by value
+     */
+    static long inverse(long value, long p) {
+        return power(value, p - 2, p); // Fermat's little theorem
+    }
+}
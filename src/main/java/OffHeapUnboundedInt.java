@@ -0,0 +1,489 @@
+import java.nio.IntBuffer;
+
+/**
+ * The OffHeapUnboundedInt class is an unbounded int for values with hundreds of millions of digits. Its limbs are
+ * kept outside the Java heap, in memory owned by a {@link LimbArena}, so huge values do not need a larger heap and do
+ * not slow down garbage collection. Addition, multiplication by a long and comparison work straight on the off-heap
+ * limbs, and multiplication of two values copies at most a few chunks of limbs onto the heap at a time.
+ * <p>
+ * A result only goes off-heap if it has at least as many limbs as the off-heap threshold, which is set by the
+ * unboundedint.offHeapThreshold system property (65,536 limbs, about 590,000 digits, by default). Smaller results are
+ * kept in an ordinary array, so arithmetic on the small values of a computation costs nothing extra. Either way the
+ * result belongs to the arena of the value the method was called on, and is closed along with it.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public final class OffHeapUnboundedInt implements Comparable<OffHeapUnboundedInt>, AutoCloseable {
+    private static final int BASE = UnboundedInt.BASE;
+
+    private static volatile int offHeapThreshold = Math.max(Integer.getInteger("unboundedint.offHeapThreshold",
+                                                                               1 << 16), 1);
+    private static volatile int multiplyChunk = Math.max(Integer.getInteger("unboundedint.offHeapChunk", 1 << 20), 1);
+
+    //Invariant:
+    //limbs holds the limbs of the value, least significant first, in a direct buffer owned by the arena if offHeap is
+    //true and in an array otherwise, and is null once the value is closed
+    //offHeap is true exactly when length is at least the off-heap threshold at the time the value was made
+    //every limb is between 0 and 999,999,999
+    //length is the number of limbs without the leading zero limbs, at least 1
+    private final LimbArena arena;
+    private final boolean offHeap;
+    private final int length;
+    private volatile IntBuffer limbs;
+
+
+    /**
+     * Constructor for the OffHeapUnboundedInt class
+     *
+     * @param arena The arena the value belongs to
+     * @param limbs The limbs, in a direct buffer from the arena or in an array
+     * @param length The number of limbs in use, without leading zero limbs
+     *
+     * @throws IllegalStateException If the arena is closed
+     */
+    private OffHeapUnboundedInt(LimbArena arena, IntBuffer limbs, int length) {
+        this.arena = arena;
+        this.offHeap = limbs.isDirect();
+        this.length = length;
+        this.limbs = limbs;
+        if (offHeap) {
+            arena.register(this, (long) limbs.capacity() * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Method to copy an unbounded int into an arena
+     *
+     * @param value The unbounded int to copy
+     * @param arena The arena the copy belongs to
+     *
+     * @return The copy, stored off-heap if it has at least the off-heap threshold of limbs
+     *
+     * @throws IllegalArgumentException If value or arena is null
+     * @throws IllegalStateException If the arena is closed
+     */
+    public static OffHeapUnboundedInt of(UnboundedInt value, LimbArena arena) {
+        if (value == null || arena == null) {
+            throw new IllegalArgumentException("Value and arena cannot be null");
+        }
+        int length = value.getLength();
+        IntBuffer limbs = allocate(arena, length);
+        limbs.put(0, value.getLimbs(), 0, length);
+        return finish(arena, limbs, length);
+    }
+
+    /**
+     * Method to copy a memory mapped unbounded int into an arena, without copying its limbs onto the heap
+     *
+     * @param value The mapped unbounded int to copy
+     * @param arena The arena the copy belongs to
+     *
+     * @return The copy, stored off-heap if it has at least the off-heap threshold of limbs
+     *
+     * @throws IllegalArgumentException If value or arena is null
+     * @throws IllegalStateException If the arena is closed
+     */
+    public static OffHeapUnboundedInt of(MappedUnboundedInt value, LimbArena arena) {
+        if (value == null || arena == null) {
+            throw new IllegalArgumentException("Value and arena cannot be null");
+        }
+        int length = value.limbCount();
+        IntBuffer limbs = allocate(arena, length);
+        limbs.put(0, value.limbs(), 0, length);
+        return finish(arena, limbs, length);
+    }
+
+    /**
+     * Method to change the number of limbs at which results are stored off-heap
+     *
+     * @param threshold The number of limbs
+     * <dt><b>Postcondition</b>The threshold is at least 1</dt>
+     */
+    static void setOffHeapThreshold(int threshold) {
+        offHeapThreshold = Math.max(threshold, 1);
+    }
+
+    /**
+     * Method to get the number of limbs at which results are stored off-heap
+     *
+     * @return The number of limbs
+     */
+    static int getOffHeapThreshold() {
+        return offHeapThreshold;
+    }
+
+    /**
+     * Method to change the number of limbs of each operand that multiply copies onto the heap at a time
+     *
+     * @param chunk The number of limbs
+     * <dt><b>Postcondition</b>The chunk is at least 1</dt>
+     */
+    static void setMultiplyChunk(int chunk) {
+        multiplyChunk = Math.max(chunk, 1);
+    }
+
+    /**
+     * Method to get the number of limbs of each operand that multiply copies onto the heap at a time
+     *
+     * @return The number of limbs
+     */
+    static int getMultiplyChunk() {
+        return multiplyChunk;
+    }
+
+    /**
+     * Method to add two values together, reading and writing the limbs in place
+     *
+     * @param addend The other value to add
+     *
+     * @return A new value in the arena of this value holding the sum
+     *
+     * @throws IllegalArgumentException If the addend is null
+     * @throws IllegalStateException If either value is closed or the arena is closed
+     * <dt><b>Postcondition</b>The original values are unchanged</dt>
+     */
+    public OffHeapUnboundedInt add(OffHeapUnboundedInt addend) {
+        if (addend == null) {
+            throw new IllegalArgumentException("Addend cannot be null");
+        }
+        IntBuffer a = limbs();
+        IntBuffer b = addend.limbs();
+        int aLength = length;
+        int bLength = addend.length;
+        if (aLength < bLength) { // make a the longer of the two so the loops below only need one tail
+            IntBuffer swap = a;
+            a = b;
+            b = swap;
+            aLength = addend.length;
+            bLength = length;
+        }
+        IntBuffer sum = allocate(arena, aLength + 1);
+        int carry = 0;
+        int i = 0;
+        for (; i < bLength; i++) {
+            int value = a.get(i) + b.get(i) + carry;
+            carry = value >= BASE ? 1 : 0;
+            sum.put(i, value - carry * BASE);
+        }
+        for (; i < aLength; i++) {
+            int value = a.get(i) + carry;
+            carry = value >= BASE ? 1 : 0;
+            sum.put(i, value - carry * BASE);
+        }
+        sum.put(i, carry);
+        return finish(arena, sum, aLength + 1);
+    }
+
+    /**
+     * Method to multiply the value by a long, reading and writing the limbs in place
+     *
+     * @param factor The long to multiply by
+     *
+     * @return A new value in the arena of this value holding the product
+     *
+     * @throws IllegalArgumentException If the factor is negative
+     * @throws IllegalStateException If the value is closed or the arena is closed
+     * <dt><b>Precondition</b>Factor is not negative</dt>
+     * <dt><b>Postcondition</b>The original value is unchanged</dt>
+     */
+    public OffHeapUnboundedInt multiply(long factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("Factor cannot be negative");
+        }
+        IntBuffer a = limbs();
+        UnboundedInt value = UnboundedInt.valueOf(factor);
+        int[] f = value.getLimbs();
+        int fLength = value.getLength();
+        IntBuffer product = allocate(arena, length + fLength);
+        for (int j = 0; j < fLength; j++) {
+            long carry = 0;
+            for (int i = 0; i < length; i++) {
+                long limb = (long) a.get(i) * f[j] + product.get(i + j) + carry; // below BASE^2 + 2 * BASE
+                carry = limb / BASE;
+                product.put(i + j, (int) (limb - carry * BASE));
+            }
+            product.put(length + j, (int) carry);
+        }
+        return finish(arena, product, length + fLength);
+    }
+
+    /**
+     * Method to multiply two values together. The fast multiplication algorithms transform their operands, so the
+     * operands are split into chunks of the multiply chunk size (set by the unboundedint.offHeapChunk system property,
+     * 1,048,576 limbs by default), each pair of chunks is copied onto the heap and multiplied there, and the partial
+     * product is added straight into the product. The heap only ever holds two chunks and their product, however long
+     * the operands are, at the cost of multiplying chunk by chunk when they are longer than one chunk.
+     *
+     * @param factor The other value to multiply
+     *
+     * @return A new value in the arena of this value holding the product
+     *
+     * @throws IllegalArgumentException If the factor is null
+     * @throws IllegalStateException If either value is closed or the arena is closed
+     * <dt><b>Postcondition</b>The original values are unchanged</dt>
+     */
+    public OffHeapUnboundedInt multiply(OffHeapUnboundedInt factor) {
+        if (factor == null) {
+            throw new IllegalArgumentException("Factor cannot be null");
+        }
+        IntBuffer a = limbs();
+        IntBuffer b = factor.limbs();
+        int chunk = multiplyChunk;
+        IntBuffer product = allocate(arena, length + factor.length);
+        for (int i = 0; i < length; i += chunk) {
+            int[] left = copy(a, i, Math.min(chunk, length - i));
+            for (int j = 0; j < factor.length; j += chunk) {
+                int[] right = factor == this && j == i ? left : copy(b, j, Math.min(chunk, factor.length - j));
+                int[] piece = left == right ? LimbMultiplier.square(left, left.length)
+                                            : LimbMultiplier.multiply(left, right);
+                addInto(product, i + j, piece);
+            }
+        }
+        return finish(arena, product, length + factor.length);
+    }
+
+    /**
+     * Method to compare two values, reading the limbs in place
+     *
+     * @param other The value to compare to
+     *
+     * @return A negative number, zero or a positive number as this value is less than, equal to or greater than other
+     *
+     * @throws NullPointerException If other is null
+     * @throws IllegalStateException If either value is closed
+     */
+    @Override
+    public int compareTo(OffHeapUnboundedInt other) {
+        IntBuffer a = limbs();
+        IntBuffer b = other.limbs();
+        if (length != other.length) {
+            return Integer.compare(length, other.length);
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            if (a.get(i) != b.get(i)) {
+                return Integer.compare(a.get(i), b.get(i));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Method to check if the value is stored off-heap
+     *
+     * @return True if the limbs are outside the Java heap, false if the value was small enough to stay on it
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Method to check if the value can still be used
+     *
+     * @return True until the value or its arena is closed
+     */
+    public boolean isOpen() {
+        return limbs != null && arena.isOpen();
+    }
+
+    /**
+     * Accessor method to get the number of limbs of the value
+     *
+     * @return The number of base 1,000,000,000 limbs, at least 1
+     */
+    public int limbCount() {
+        return length;
+    }
+
+    /**
+     * Accessor method to get one limb of the value
+     *
+     * @param index The index of the limb, 0 being the least significant
+     *
+     * @return The limb, between 0 and 999,999,999
+     *
+     * @throws IndexOutOfBoundsException If index is negative or not less than limbCount()
+     * @throws IllegalStateException If the value is closed
+     */
+    public int limbAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Limb index " + index + " is out of range");
+        }
+        return limbs().get(index);
+    }
+
+    /**
+     * Method to copy the value onto the heap
+     *
+     * @return A new unbounded int holding the value
+     *
+     * @throws IllegalStateException If the value is closed
+     */
+    public UnboundedInt toUnboundedInt() {
+        return new UnboundedInt(copy(limbs(), 0, length), length);
+    }
+
+    /**
+     * Method to close the value before its arena is closed
+     * <dt><b>Postcondition</b>The value can no longer be used, and its off-heap memory is freed once the garbage
+     * collector finds its buffer unreachable. Closing a value that is already closed does nothing</dt>
+     */
+    @Override
+    public void close() {
+        IntBuffer current = limbs;
+        if (current == null) {
+            return;
+        }
+        if (offHeap) {
+            arena.release(this, (long) current.capacity() * Integer.BYTES);
+        }
+        else {
+            release();
+        }
+    }
+
+    /**
+     * Method to compare the value to another object
+     *
+     * @param obj The object to compare to
+     *
+     * @return True if obj is an OffHeapUnboundedInt with the same value
+     *
+     * @throws IllegalStateException If this value is closed, or obj is a closed OffHeapUnboundedInt
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof OffHeapUnboundedInt other && compareTo(other) == 0;
+    }
+
+    /**
+     * Method to get the hash code of the value, which is the same as the hash code of the equal unbounded int
+     *
+     * @return The hash code
+     *
+     * @throws IllegalStateException If the value is closed
+     */
+    @Override
+    public int hashCode() {
+        IntBuffer a = limbs();
+        int h = 1;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + a.get(i);
+        }
+        return h;
+    }
+
+    /**
+     * Outputs the value as a string, with commas
+     *
+     * @return The value as a string, with commas
+     *
+     * @throws IllegalStateException If the value is closed
+     */
+    @Override
+    public String toString() {
+        return toUnboundedInt().toString();
+    }
+
+    /**
+     * Method to drop the limbs of the value, called when the value or its arena is closed
+     */
+    void release() {
+        limbs = null;
+    }
+
+    /**
+     * Method to get the limbs of an open value
+     *
+     * @return The limbs
+     *
+     * @throws IllegalStateException If the value or its arena is closed
+     */
+    private IntBuffer limbs() {
+        IntBuffer current = limbs;
+        if (current == null) {
+            throw new IllegalStateException("Value is closed");
+        }
+        arena.checkOpen();
+        return current;
+    }
+
+    /**
+     * Method to copy limbs onto the heap
+     *
+     * @param limbs The limbs to copy from
+     * @param offset The index of the first limb to copy
+     * @param count The number of limbs to copy
+     *
+     * @return A new array of count limbs
+     */
+    private static int[] copy(IntBuffer limbs, int offset, int count) {
+        int[] copy = new int[count];
+        limbs.get(offset, copy, 0, count);
+        return copy;
+    }
+
+    /**
+     * Method to add limbs into a buffer, carrying into the limbs above them
+     *
+     * @param target The buffer to add to
+     * @param offset The index of the limb of target the first limb is added to
+     * @param value The limbs to add
+     * <dt><b>Precondition</b>The sum fits in target</dt>
+     */
+    private static void addInto(IntBuffer target, int offset, int[] value) {
+        int carry = 0;
+        int i = offset;
+        for (int limb : value) {
+            int sum = target.get(i) + limb + carry;
+            carry = sum >= BASE ? 1 : 0;
+            target.put(i++, sum - carry * BASE);
+        }
+        for (; carry != 0; i++) {
+            int sum = target.get(i) + carry;
+            carry = sum >= BASE ? 1 : 0;
+            target.put(i, sum - carry * BASE);
+        }
+    }
+
+    /**
+     * Method to allocate the limbs of a result, off-heap if the most limbs it can have reach the off-heap threshold
+     *
+     * @param arena The arena the result belongs to
+     * @param limbs The most limbs the result can have
+     *
+     * @return A zeroed buffer holding limbs limbs, to be passed to finish
+     *
+     * @throws IllegalStateException If the arena is closed
+     */
+    private static IntBuffer allocate(LimbArena arena, int limbs) {
+        if (limbs >= offHeapThreshold) {
+            return arena.allocate(limbs);
+        }
+        arena.checkOpen();
+        return IntBuffer.wrap(new int[limbs]);
+    }
+
+    /**
+     * Method to make a result from the limbs it was computed in. The threshold is applied to the length of the result
+     * without its leading zero limbs, so a result allocated off-heap that turns out to be shorter than the threshold
+     * is moved onto the heap and never belongs to the arena.
+     *
+     * @param arena The arena the result belongs to
+     * @param limbs The limbs, from allocate
+     * @param length The number of limbs in use, may include leading zero limbs
+     *
+     * @return The result
+     *
+     * @throws IllegalStateException If the arena is closed
+     */
+    private static OffHeapUnboundedInt finish(LimbArena arena, IntBuffer limbs, int length) {
+        while (length > 1 && limbs.get(length - 1) == 0) {
+            length--;
+        }
+        if (!limbs.isDirect() || length >= offHeapThreshold) {
+            return new OffHeapUnboundedInt(arena, limbs, length);
+        }
+        return new OffHeapUnboundedInt(arena, IntBuffer.wrap(copy(limbs, 0, length)), length);
+    }
+}
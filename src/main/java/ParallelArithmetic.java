@@ -0,0 +1,150 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * The ParallelArithmetic class owns the {@link ForkJoinPool} used by the parallel arithmetic of {@link UnboundedInt}
+ * and holds the helpers that split work across it. Work is only split for operands of at least the parallel threshold,
+ * smaller operands run sequentially on the thread that reaches them.
+ * <p>
+ * The number of worker threads and the threshold, in limbs, can be set with the {@code unboundedint.parallelism} and
+ * {@code unboundedint.parallelThreshold} system properties, or changed at run time with {@link #setParallelism(int)}
+ * and {@link #setThreshold(int)}.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class ParallelArithmetic {
+    //how many pieces each worker gets when a loop is split, more pieces balance better but cost more to schedule
+    private static final int PIECES_PER_WORKER = 4;
+
+    private static volatile int parallelism = Integer.getInteger("unboundedint.parallelism",
+                                                                 Runtime.getRuntime().availableProcessors());
+    private static volatile int threshold = Integer.getInteger("unboundedint.parallelThreshold", 2048);
+    private static ForkJoinPool pool;
+
+    private ParallelArithmetic() {
+    }
+
+    /**
+     * Method to change the number of worker threads used for parallel arithmetic
+     *
+     * @param newParallelism The number of worker threads
+     *
+     * @throws IllegalArgumentException If newParallelism is not positive
+     * <dt><b>Postcondition</b>The old pool is shut down once the work already running on it finishes</dt>
+     */
+    static synchronized void setParallelism(int newParallelism) {
+        if (newParallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        parallelism = newParallelism;
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Method to get the number of worker threads used for parallel arithmetic
+     *
+     * @return The number of worker threads
+     */
+    static int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Method to change the operand size below which work is no longer split
+     *
+     * @param newThreshold The operand size in limbs
+     * <dt><b>Postcondition</b>The threshold is at least 1</dt>
+     */
+    static void setThreshold(int newThreshold) {
+        threshold = Math.max(newThreshold, 1);
+    }
+
+    /**
+     * Method to get the operand size below which work is no longer split
+     *
+     * @return The operand size in limbs
+     */
+    static int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Method to get the pool, creating it the first time it is needed
+     *
+     * @return The pool that runs the parallel arithmetic
+     */
+    private static synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Method to run a computation on the pool and wait for its result
+     *
+     * @param computation The computation, which may split itself further with the other methods of this class
+     * @param <T> The type of the result
+     *
+     * @return The result of the computation
+     */
+    static <T> T invoke(Callable<T> computation) {
+        return pool().invoke(ForkJoinTask.adapt(computation));
+    }
+
+    /**
+     * Method to run a body once for each index, with every index running as its own task
+     *
+     * @param count The number of indexes
+     * @param body The work for one index
+     * <dt><b>Precondition</b>Called from a task running on the pool</dt>
+     */
+    static void forEach(int count, IntConsumer body) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(ForkJoinTask.adapt(() -> body.accept(index)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * Method to run a loop over a range of indexes, cutting the range into pieces that run as separate tasks
+     *
+     * @param from The first index
+     * @param to One past the last index
+     * @param minimumPiece The smallest piece worth running as its own task
+     * @param body The work for one piece of the range
+     * <dt><b>Precondition</b>Called from a task running on the pool</dt>
+     */
+    static void forRange(int from, int to, int minimumPiece, RangeBody body) {
+        int piece = Math.max(minimumPiece, (to - from) / (parallelism * PIECES_PER_WORKER) + 1);
+        if (to - from <= piece) {
+            body.run(from, to);
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int start = from; start < to; start += piece) {
+            int pieceStart = start;
+            int pieceEnd = Math.min(start + piece, to);
+            tasks.add(ForkJoinTask.adapt(() -> body.run(pieceStart, pieceEnd)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * The work done on one piece of a range split by {@link #forRange(int, int, int, RangeBody)}
+     */
+    @FunctionalInterface
+    interface RangeBody {
+        void run(int from, int to);
+    }
+}
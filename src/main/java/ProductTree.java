@@ -0,0 +1,130 @@
+import java.util.Arrays;
+
+/**
+ * The ProductTree class multiplies many limb arrays together by pairing them up in a balanced binary tree, so the two
+ * operands of every multiplication are about the same size and the large products at the top can use the fast
+ * multiplication algorithms of {@link LimbMultiplier}. Folding the factors left to right instead multiplies a growing
+ * product by one small factor at a time, which is quadratic in the size of the result.
+ * <p>
+ * Once the factors are large enough, the two halves of a subtree are multiplied as separate tasks on the
+ * {@link ParallelArithmetic} pool.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class ProductTree {
+    private static final int BASE = UnboundedInt.BASE;
+
+    private ProductTree() {
+    }
+
+    /**
+     * Method to multiply a list of limb arrays together
+     *
+     * @param factors The limb arrays, each without leading zero limbs and not 0
+     * @param parallel Whether subtrees are multiplied on several threads once the factors are at least the parallel
+     * threshold in total
+     *
+     * @return The product of the factors (1 if there are none), without leading zero limbs
+     */
+    static int[] product(int[][] factors, boolean parallel) {
+        if (factors.length == 0) {
+            return new int[]{1}; // a new array each time, since the caller may change the unbounded int it becomes
+        }
+        long limbs = 0;
+        for (int[] factor : factors) {
+            limbs += factor.length;
+        }
+        if (parallel && limbs >= ParallelArithmetic.getThreshold()) {
+            return ParallelArithmetic.invoke(() -> product(factors, 0, factors.length, true));
+        }
+        return product(factors, 0, factors.length, false);
+    }
+
+    /**
+     * Method to multiply a range of limb arrays together, splitting the range in half
+     *
+     * @param factors The limb arrays
+     * @param from The first factor of the range
+     * @param to One past the last factor of the range
+     * @param parallel Whether the two halves are multiplied as separate tasks
+     *
+     * @return The product of the range, without leading zero limbs
+     * <dt><b>Precondition</b>If parallel is true, this is called from a task running on the pool</dt>
+     */
+    private static int[] product(int[][] factors, int from, int to, boolean parallel) {
+        if (to - from == 1) {
+            return factors[from];
+        }
+        int middle = (from + to) >>> 1;
+        int[][] halves = new int[2][];
+        if (parallel && to - from > 2) {
+            ParallelArithmetic.forEach(2, half -> halves[half] = half == 0 ? product(factors, from, middle, true)
+                                                                           : product(factors, middle, to, true));
+        }
+        else {
+            halves[0] = product(factors, from, middle, false);
+            halves[1] = product(factors, middle, to, false);
+        }
+        return LimbMultiplier.trim(LimbMultiplier.multiply(halves[0], halves[0].length, halves[1], halves[1].length,
+                                                           parallel));
+    }
+
+    /**
+     * Method to find n!, the product of every number from 1 to n. Every factor of 5 is divided out of the numbers
+     * along with as many factors of 2, the rest are packed a limb at a time and multiplied with a product tree, and
+     * the 10s that were taken out are put back at the end as a shift.
+     *
+     * @param n The number, not negative
+     * @param parallel Whether the product tree may use several threads
+     *
+     * @return n!, without leading zero limbs
+     */
+    static int[] factorial(int n, boolean parallel) {
+        long fives = 0;
+        for (long power = 5; power <= n; power *= 5) {
+            fives += n / power;
+        }
+
+        long twos = fives;
+        int[][] leaves = new int[16][];
+        int count = 0;
+        long packed = 1;
+        for (int i = 2; i <= n; i++) {
+            long value = i;
+            while (value % 5 == 0) {
+                value /= 5;
+            }
+            while (twos > 0 && value % 2 == 0) {
+                value /= 2;
+                twos--;
+            }
+            // pack as many numbers as fit into one limb before it becomes a leaf of the tree
+            if (packed * value >= BASE) {
+                if (count == leaves.length) {
+                    leaves = Arrays.copyOf(leaves, count * 2);
+                }
+                leaves[count++] = limbsOf(packed);
+                packed = 1;
+            }
+            packed *= value;
+        }
+        if (count == leaves.length) {
+            leaves = Arrays.copyOf(leaves, count + 1);
+        }
+        leaves[count++] = limbsOf(packed);
+
+        return LimbDivider.shiftLeftDigits(product(Arrays.copyOf(leaves, count), parallel), fives);
+    }
+
+    /**
+     * Method to convert a number below BASE^2 to limbs
+     *
+     * @param value The number
+     *
+     * @return The limbs of value, without leading zero limbs
+     */
+    private static int[] limbsOf(long value) {
+        return value < BASE ? new int[]{(int) value} : new int[]{(int) (value % BASE), (int) (value / BASE)};
+    }
+}
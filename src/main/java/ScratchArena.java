@@ -0,0 +1,134 @@
+import java.lang.ref.SoftReference;
+
+/**
+ * The ScratchArena class lends each thread the temporary limb arrays of the arithmetic, so an algorithm that needs a
+ * working buffer for a single call borrows one and hands it back when it is done instead of allocating a new array
+ * every time. Only arrays whose length is a power of 2 are kept, such as the transform buffers and root tables of
+ * {@link NumberTheoreticTransform} and the rounded up scratch arrays of {@link LimbMultiplier}, since those are the
+ * lengths that come up again and again.
+ * <p>
+ * The arrays a thread keeps are bounded two ways. A thread keeps at most a few arrays of each length and at most
+ * {@link #getRetention()} bytes in total, set with the unboundedint.scratchRetention property, and arrays that would go
+ * over either bound are left to the garbage collector. Each thread's arrays are also only softly reachable, so the
+ * collector frees the arrays of a thread that has not done any arithmetic in a while, or of every thread when memory
+ * runs low, and a thread that ends takes its arrays with it.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+final class ScratchArena {
+    //the most arrays of one length a thread keeps, enough for the buffers of all three primes and a root table
+    private static final int MAX_PER_LENGTH = 4;
+    private static final ThreadLocal<SoftReference<ScratchArena>> ARENAS = new ThreadLocal<>();
+
+    private static volatile long retention = Math.max(Long.getLong("unboundedint.scratchRetention", 64L << 20), 0);
+
+    //Invariant:
+    //free[k] holds counts[k] arrays of length 2^k in its first counts[k] entries, and retainedBytes is their total
+    //size in bytes, which is at most retention when the arrays were kept
+    private final int[][][] free = new int[Integer.SIZE - 1][MAX_PER_LENGTH][];
+    private final int[] counts = new int[Integer.SIZE - 1];
+    private long retainedBytes;
+
+    private ScratchArena() {
+    }
+
+    /**
+     * Method to change how many bytes of arrays each thread may keep
+     *
+     * @param bytes The most bytes of arrays a thread keeps, 0 to keep none
+     *
+     * @throws IllegalArgumentException If bytes is negative
+     */
+    static void setRetention(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Retention cannot be negative");
+        }
+        retention = bytes;
+    }
+
+    /**
+     * Method to get how many bytes of arrays each thread may keep
+     *
+     * @return The most bytes of arrays a thread keeps
+     */
+    static long getRetention() {
+        return retention;
+    }
+
+    /**
+     * Method to borrow an array
+     *
+     * @param length The length of the array
+     *
+     * @return An array of exactly length ints, reused from an earlier release when the thread has one
+     * <dt><b>Postcondition</b>The contents of the array are unspecified, the caller must write every int it reads</dt>
+     */
+    static int[] borrow(int length) {
+        ScratchArena arena = current(false);
+        if (arena != null && Integer.bitCount(length) == 1) {
+            int k = Integer.numberOfTrailingZeros(length);
+            if (arena.counts[k] > 0) {
+                int[] array = arena.free[k][--arena.counts[k]];
+                arena.free[k][arena.counts[k]] = null;
+                arena.retainedBytes -= (long) length * Integer.BYTES;
+                return array;
+            }
+        }
+        return new int[length];
+    }
+
+    /**
+     * Method to hand back an array that is no longer needed, which may be lent out again by later borrows on this
+     * thread
+     *
+     * @param array The array, which the caller must not use again
+     */
+    static void release(int[] array) {
+        int length = array.length;
+        long bytes = (long) length * Integer.BYTES;
+        if (Integer.bitCount(length) != 1 || bytes > retention) {
+            return;
+        }
+        ScratchArena arena = current(true);
+        int k = Integer.numberOfTrailingZeros(length);
+        if (arena.counts[k] < MAX_PER_LENGTH && arena.retainedBytes + bytes <= retention) {
+            arena.free[k][arena.counts[k]++] = array;
+            arena.retainedBytes += bytes;
+        }
+    }
+
+    /**
+     * Method to get how many bytes of arrays this thread is keeping
+     *
+     * @return The total size of the arrays kept for later borrows on this thread
+     */
+    static long retainedBytes() {
+        ScratchArena arena = current(false);
+        return arena == null ? 0 : arena.retainedBytes;
+    }
+
+    /**
+     * Method to let go of every array this thread is keeping
+     */
+    static void clear() {
+        ARENAS.remove();
+    }
+
+    /**
+     * Method to find the arena of this thread
+     *
+     * @param create Whether to make a new arena if the thread has none or the collector freed it
+     *
+     * @return The arena of this thread, or null if it has none and create is false
+     */
+    private static ScratchArena current(boolean create) {
+        SoftReference<ScratchArena> reference = ARENAS.get();
+        ScratchArena arena = reference == null ? null : reference.get();
+        if (arena == null && create) {
+            arena = new ScratchArena();
+            ARENAS.set(new SoftReference<>(arena));
+        }
+        return arena;
+    }
+}
@@ -1,7 +1,24 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
 /**
  * The UnboundedInt class represents an unbounded integer, which is a positive integer that can be of any size. The
- * UnboundedInt class uses a linked list to store the digits of the unbounded integer, with each node containing 3
- * digits of the integer.
+ * UnboundedInt class stores the integer as a packed array of base 1,000,000,000 limbs, with each limb holding 9 digits
+ * (three of the comma separated groups) of the integer. The original linked list of 3 digit {@link IntNode}s is still
+ * available as a legacy representation through {@link #toIntNodeList()} and {@link #fromIntNodeList(IntNode)}.
+ * <p>
+ * Arithmetic never changes an unbounded int, so {@link #clone()} and the power of 1000 views such as
+ * {@link #multiplyByPowerOfThousand(int)} share the limb array of the original instead of copying it. The limbs are
+ * only copied when one of the unbounded ints sharing them is changed with addEnd.
  *
  * @author Rylan Meilutis
  * @author Vassily Dudkin
@@ -9,12 +26,54 @@
 
 public class UnboundedInt implements Cloneable {
     //Invariant:
-    //head is the first node in the linked list
-    //tail is the last node in the linked list
-    //size is the number of nodes in the linked list
-    private IntNode head;
-    private int size;
-    private IntNode tail;
+    //limbs holds the digits of the unbounded int in base 1,000,000,000, least significant limb first, or is null
+    //while the unbounded int is a view whose limbs have not been copied into an array of its own yet
+    //view is null, or says where the limbs of a view are in an array it shares with other unbounded ints
+    //length is the number of limbs in use, limbs.length may be larger to leave room for addEnd
+    //the most significant limb is never 0 unless the unbounded int is 0, in which case length is 1
+    //shared is true if another unbounded int may read the limbs array, so addEnd must copy it before changing it
+    //constant is true only for ZERO, ONE and TEN, which addEnd refuses to change
+    static final int BASE = 1_000_000_000;
+    static final int DIGITS_PER_LIMB = 9;
+    static final int GROUPS_PER_LIMB = 3;
+    static final int GROUP_BASE = 1000;
+    static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000};
+
+    //the limb arrays of the values from 0 to SMALL_VALUES - 1, shared by valueOf instead of being built again
+    private static final int SMALL_VALUES = 1024;
+    private static final int[][] SMALL_LIMBS = new int[SMALL_VALUES][];
+
+    static {
+        for (int i = 0; i < SMALL_VALUES; i++) {
+            SMALL_LIMBS[i] = new int[]{i};
+        }
+    }
+
+    /**
+     * The unbounded int 0, which cannot be changed with addEnd
+     */
+    public static final UnboundedInt ZERO = constant(0);
+    /**
+     * The unbounded int 1, which cannot be changed with addEnd
+     */
+    public static final UnboundedInt ONE = constant(1);
+    /**
+     * The unbounded int 10, which cannot be changed with addEnd
+     */
+    public static final UnboundedInt TEN = constant(10);
+
+    //size of the buffers used when reading digits from a stream or channel
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    //largest piece of a file that is memory mapped at once
+    private static final long MAP_WINDOW_SIZE = 1L << 28;
+
+    private int[] limbs;
+    private int length;
+    private View view;
+    private boolean shared;
+    private boolean constant;
+    //the hash code, worked out the first time it is asked for (0 until then)
+    private int hash;
 
 
     /**
@@ -28,41 +87,234 @@ public class UnboundedInt implements Cloneable {
      * <dt><b>Precondition</b>unboundedInt is a positive number</dt>
      */
     public UnboundedInt(String unboundedInt) {
-        head = null;
-        tail = null;
-        size = 0;
-
         if (unboundedInt.isEmpty()) {
             throw new IllegalArgumentException("UnboundedInt cannot be empty");
         }
+        long start = Instrumentation.start();
 
-        //guard clause to check if the unboundedInt is only digits
-        // regex usage found at https://stackoverflow.com/questions/4463867/java-regular-expression-match
-        //regex characters and meanings found at https://www.rexegg.com/regex-quickstart.html
-        if (!unboundedInt.matches("-?\\d+")) {
+        // a leading minus sign is only reported once the rest of the string is known to be digits
+        boolean negative = unboundedInt.charAt(0) == '-';
+        int firstDigit = negative ? 1 : 0;
+        int digits = unboundedInt.length() - firstDigit;
+        if (digits == 0) {
             throw new IllegalArgumentException("UnboundedInt must only contain digits");
         }
+        // Scan every 9 characters in the string straight into a limb, filling the limbs from least significant to
+        // most and checking that each character is a digit along the way
+        limbs = new int[(digits + DIGITS_PER_LIMB - 1) / DIGITS_PER_LIMB];
+        int limb = 0;
+        for (int end = unboundedInt.length(); end > firstDigit; end -= DIGITS_PER_LIMB) {
+            int value = parseLimb(unboundedInt, Math.max(end - DIGITS_PER_LIMB, firstDigit), end);
+            if (value < 0) {
+                throw new IllegalArgumentException("UnboundedInt must only contain digits");
+            }
+            limbs[limb++] = value;
+        }
         //guard clause to check if the unboundedInt is a positive number
-        if (unboundedInt.charAt(0) == '-') {
+        if (negative) {
             throw new IllegalArgumentException("UnboundedInt must be a positive number");
         }
-        // Iterate over every 3 characters in the string
-        for (int i = unboundedInt.length(); i > 0; i -= 3) {
-            int start = Math.max(i - 3, 0); // Calculate start index for substring
-            String sub = unboundedInt.substring(start, i);
-            int value = Integer.parseInt(sub);
-            addEnd(value); // Insert the parsed value at the tail of the linked list
-        }
+        length = normalizedLength(limbs, limbs.length);
+        Instrumentation.record(UnboundedIntMetrics.Operation.PARSE, start, length, 0, limbs.length);
     }
 
     /**
-     * Default constructor for the UnboundedInt class, creates an empty unbounded int initialized to 0
+     * Default constructor for the UnboundedInt class, creates an empty unbounded int initialized to 0. Code that only
+     * needs the value 0 can use the shared {@link #ZERO} instead.
      */
     public UnboundedInt() {
-        head = null;
-        tail = null;
-        size = 0;
-        addEnd(0);
+        limbs = new int[1];
+        length = 1;
+    }
+
+    /**
+     * Constructor used by the arithmetic methods to wrap a limb array that was built for the result
+     *
+     * @param limbs The limbs of the new unbounded int, least significant first (the array is not copied)
+     * @param length The number of limbs of the array that are in use
+     * <dt><b>Precondition</b>Every limb is between 0 and 999,999,999</dt>
+     */
+    UnboundedInt(int[] limbs, int length) {
+        this.limbs = limbs;
+        this.length = normalizedLength(limbs, length);
+    }
+
+    /**
+     * Constructor used by the view methods to make an unbounded int that shares the limbs of another one
+     *
+     * @param view Where the limbs are
+     * @param length The number of limbs of the value, including the zero limbs below the shared ones
+     * <dt><b>Precondition</b>The most significant limb of the view is not 0</dt>
+     */
+    private UnboundedInt(View view, int length) {
+        this.view = view;
+        this.length = length;
+    }
+
+    /**
+     * Method to make one of the public constants
+     *
+     * @param value The value of the constant, below SMALL_VALUES
+     *
+     * @return A new unbounded int holding value that addEnd refuses to change
+     */
+    private static UnboundedInt constant(int value) {
+        UnboundedInt result = new UnboundedInt(SMALL_LIMBS[value], 1);
+        result.shared = true;
+        result.constant = true;
+        return result;
+    }
+
+    /**
+     * Method to get an unbounded int holding a long, without going through its string. Values below 1024 share a
+     * cached limb array, which addEnd copies before changing, so only the unbounded int itself is allocated.
+     *
+     * @param value The value, not negative
+     *
+     * @return An unbounded int holding value
+     *
+     * @throws IllegalArgumentException If value is negative
+     */
+    public static UnboundedInt valueOf(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("UnboundedInt must be a positive number");
+        }
+        if (value < SMALL_VALUES) {
+            UnboundedInt small = new UnboundedInt(SMALL_LIMBS[(int) value], 1);
+            small.shared = true;
+            return small;
+        }
+        int[] limbs = limbsOf(value);
+        return new UnboundedInt(limbs, limbs.length);
+    }
+
+    /**
+     * Method to build an unbounded int from the ASCII decimal digits of an input stream, reading it in blocks so the
+     * digits never have to be held in a String. Whitespace, such as a final line break, may follow the last digit.
+     *
+     * @param in The stream to read until its end (it is not closed)
+     *
+     * @return A new unbounded int holding the digits of the stream
+     *
+     * @throws IOException If the stream cannot be read
+     * @throws IllegalArgumentException If the stream is empty, holds something other than digits, or holds a negative
+     * number
+     */
+    public static UnboundedInt fromInputStream(InputStream in) throws IOException {
+        DigitStreamParser parser = new DigitStreamParser(0);
+        byte[] block = new byte[READ_BUFFER_SIZE];
+        for (int read = in.read(block); read >= 0; read = in.read(block)) {
+            parser.accept(ByteBuffer.wrap(block, 0, read));
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Method to build an unbounded int from the ASCII decimal digits of a channel, reading it in blocks so the digits
+     * never have to be held in a String. Whitespace, such as a final line break, may follow the last digit.
+     *
+     * @param channel The channel to read until its end (it is not closed)
+     *
+     * @return A new unbounded int holding the digits of the channel
+     *
+     * @throws IOException If the channel cannot be read
+     * @throws IllegalArgumentException If the channel is empty, holds something other than digits, or holds a negative
+     * number
+     */
+    public static UnboundedInt fromChannel(ReadableByteChannel channel) throws IOException {
+        long expectedDigits = channel instanceof FileChannel file ? file.size() - file.position() : 0;
+        DigitStreamParser parser = new DigitStreamParser(expectedDigits);
+        ByteBuffer block = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        while (channel.read(block) >= 0) {
+            block.flip();
+            parser.accept(block);
+            block.clear();
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Method to build an unbounded int from the ASCII decimal digits in a region of a file, memory mapping the region
+     * a window at a time instead of copying it onto the heap. Whitespace, such as a final line break, may follow the
+     * last digit.
+     *
+     * @param channel The file to read
+     * @param position The offset in the file of the first digit
+     * @param size The number of bytes in the region
+     *
+     * @return A new unbounded int holding the digits of the region
+     *
+     * @throws IOException If the file cannot be mapped
+     * @throws IllegalArgumentException If the region is empty, holds something other than digits, or holds a negative
+     * number, or if position or size is negative
+     */
+    public static UnboundedInt fromMappedFile(FileChannel channel, long position, long size) throws IOException {
+        if (position < 0 || size < 0) {
+            throw new IllegalArgumentException("Position and size cannot be negative");
+        }
+        DigitStreamParser parser = new DigitStreamParser(size);
+        for (long offset = 0; offset < size; offset += MAP_WINDOW_SIZE) {
+            long windowSize = Math.min(MAP_WINDOW_SIZE, size - offset);
+            parser.accept(channel.map(FileChannel.MapMode.READ_ONLY, position + offset, windowSize));
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Method to build an unbounded int from a file holding its ASCII decimal digits, by memory mapping the whole file
+     *
+     * @param path The file to read
+     *
+     * @return A new unbounded int holding the digits of the file
+     *
+     * @throws IOException If the file cannot be opened or mapped
+     * @throws IllegalArgumentException If the file is empty, holds something other than digits, or holds a negative
+     * number
+     */
+    public static UnboundedInt fromFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return fromMappedFile(channel, 0, channel.size());
+        }
+    }
+
+    /**
+     * Method to build an unbounded int from the legacy linked list representation
+     *
+     * @param head The head of a linked list of 3 digit groups, least significant group first
+     *
+     * @return A new unbounded int holding the value of the list (0 if the list is empty)
+     *
+     * @throws IllegalArgumentException If a node holds a value that is not between 0 and 999
+     */
+    public static UnboundedInt fromIntNodeList(IntNode head) {
+        int groups = IntNode.listLength(head);
+        int[] limbs = new int[Math.max(1, (groups + GROUPS_PER_LIMB - 1) / GROUPS_PER_LIMB)];
+        int group = 0;
+        for (IntNode cursor = head; cursor != null; cursor = cursor.getLink()) {
+            int value = cursor.getData();
+            if (value < 0 || value >= GROUP_BASE) {
+                throw new IllegalArgumentException("Value must be between 0 and 999");
+            }
+            limbs[group / GROUPS_PER_LIMB] += value * groupScale(group % GROUPS_PER_LIMB);
+            group++;
+        }
+        return new UnboundedInt(limbs, limbs.length);
+    }
+
+    /**
+     * Method to convert the unbounded int to the legacy linked list representation
+     *
+     * @return The head of a new linked list of 3 digit groups, least significant group first
+     * <dt><b>Postcondition</b>The unbounded int is unchanged</dt>
+     */
+    public IntNode toIntNodeList() {
+        int groups = groupCount();
+        IntNode head = null;
+        for (int group = groups - 1; group >= 0; group--) { // build the list back to front so no tail is needed
+            head = new IntNode(groupAt(group), head);
+        }
+        Instrumentation.recordNodes(groups);
+        return head;
     }
 
     /**
@@ -71,21 +323,31 @@ public class UnboundedInt implements Cloneable {
      * @param value The value to insert
      *
      * @throws IllegalArgumentException If the value is not between 0 and 999
+     * @throws IllegalStateException If the unbounded int is one of the constants ZERO, ONE or TEN
      * <dt><b>Precondition</b>Value is a positive value less than 1000</dt>
      */
     void addEnd(int value) {
         if (value < 0 || value > 999) {
             throw new IllegalArgumentException("Value must be between 0 and 999");
         }
-        IntNode newNode = new IntNode(value, null);
-        if (head == null) {
-            head = newNode;
+        if (constant) {
+            throw new IllegalStateException("The constants ZERO, ONE and TEN cannot be changed");
         }
-        else {
-            tail.setLink(newNode);
+        int group = groupCount();
+        int limb = group / GROUPS_PER_LIMB;
+        if (view != null || shared) { // copy on write, so the unbounded ints sharing the limbs do not change
+            int[] copy = new int[Math.max(limb + 1, length)];
+            copyInto(copy); // only the limbs in use, the shared array may hold limbs of a longer value past them
+            limbs = copy;
+            view = null;
+            shared = false;
         }
-        tail = newNode;
-        size++;
+        else if (limb >= limbs.length) {
+            limbs = Arrays.copyOf(limbs, Math.max(limb + 1, limbs.length * 2));
+        }
+        limbs[limb] += value * groupScale(group % GROUPS_PER_LIMB);
+        length = normalizedLength(limbs, Math.max(length, limb + 1));
+        hash = 0; // the value changed, so the cached hash code no longer applies
     }
 
 
@@ -105,34 +367,69 @@ public class UnboundedInt implements Cloneable {
         if (addend == null) {
             throw new IllegalArgumentException("Addend cannot be null");
         }
-        //add the two unbounded ints together going node by node and handling the carry
-        UnboundedInt sum = new UnboundedInt();
-        //remove the first node so that the new unbounded int isn't shifted 3 digits to the left
-        sum.head = null;
-        sum.tail = null;
+        long start = Instrumentation.start();
+        //add the two unbounded ints together going limb by limb and handling the carry
+        int[] sum = new int[Math.max(length, addend.length) + 1];
+        int sumLength;
+        if (view == null && addend.view == null) {
+            sumLength = addLimbs(limbs, length, addend.limbs, addend.length, sum);
+        }
+        else {
+            // views are added without copying their limbs into arrays of their own: this unbounded int is copied
+            // into the sum and the addend is added to it in place, skipping the zero limbs below its shared limbs
+            copyInto(sum);
+            View other = addend.asView();
+            LimbMultiplier.addInto(sum, other.zeros(), other.source(), other.offset(), addend.length - other.zeros());
+            sumLength = normalizedLength(sum, sum.length);
+        }
+        Instrumentation.record(UnboundedIntMetrics.Operation.ADD, start, length, addend.length, sum.length);
+        return new UnboundedInt(sum, sumLength);
+    }
 
-        IntNode current = head;
-        IntNode otherCurrent = addend.head;
-        int carry = 0;
-        while (current != null ||
-               otherCurrent != null) { // Iterate over the linked list and add the values of each node
-            int value = carry; // Add the carry to the value
-            if (current != null) {
-                value += current.getData();
-                current = current.getLink();
-            }
-            if (otherCurrent != null) {
-                value += otherCurrent.getData();
-                otherCurrent = otherCurrent.getLink();
-            }
-            carry = value / 1000;
-            value = value % 1000;
-            sum.addEnd(value);
+    /**
+     * Method to add a long to the unbounded int without building an unbounded int for it
+     *
+     * @param addend The long to add
+     *
+     * @return A new unbounded int containing the sum
+     *
+     * @throws IllegalArgumentException If the addend is negative
+     * <dt><b>Precondition</b>Addend is not negative</dt>
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt add(long addend) {
+        if (addend < 0) {
+            throw new IllegalArgumentException("Addend cannot be negative");
         }
-        if (carry > 0) {
-            sum.addEnd(carry);
+        long start = Instrumentation.start();
+        int[] value = limbsOf(addend);
+        int[] sum = new int[Math.max(length, value.length) + 1];
+        int sumLength = addLimbs(limbs(), length, value, value.length, sum);
+        Instrumentation.record(UnboundedIntMetrics.Operation.ADD, start, length, value.length, sum.length);
+        return new UnboundedInt(sum, sumLength);
+    }
+
+    /**
+     * Method to multiply the unbounded int by a long without building an unbounded int for it
+     *
+     * @param factor The long to multiply by
+     *
+     * @return A new unbounded int containing the product
+     *
+     * @throws IllegalArgumentException If the factor is negative
+     * <dt><b>Precondition</b>Factor is not negative</dt>
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt multiply(long factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("Factor cannot be negative");
         }
-        return sum;
+        long start = Instrumentation.start();
+        int[] value = limbsOf(factor);
+        int[] product = new int[length + value.length];
+        LimbMultiplier.schoolbook(limbs(), length, value, value.length, product);
+        Instrumentation.record(UnboundedIntMetrics.Operation.MULTIPLY, start, length, value.length, product.length);
+        return new UnboundedInt(product, product.length);
     }
 
     /**
@@ -151,46 +448,484 @@ public class UnboundedInt implements Cloneable {
             throw new IllegalArgumentException("Factor cannot be null");
         }
 
-        UnboundedInt product = new UnboundedInt();
-        //remove the first node so that the new unbounded int isn't shifted 3 digits to the left
-        product.head = null;
-        product.tail = null;
+        long start = Instrumentation.start();
+        // LimbMultiplier picks schoolbook, Karatsuba, Toom-Cook-3 or NTT multiplication from the operand sizes
+        int[] product = factor.limbs() == limbs() && factor.length == length
+                        ? LimbMultiplier.square(limbs(), length)
+                        : LimbMultiplier.multiply(limbs(), length, factor.limbs(), factor.length);
+        Instrumentation.record(UnboundedIntMetrics.Operation.MULTIPLY, start, length, factor.length, product.length);
+        return new UnboundedInt(product, product.length);
+    }
+
+
+    /**
+     * Method to multiply two unbounded ints together using several threads, which pays off once both factors have
+     * tens of thousands of digits. The threads come from a ForkJoinPool whose size and splitting threshold are set by
+     * the unboundedint.parallelism and unboundedint.parallelThreshold system properties.
+     *
+     * @param factor The other unbounded int to multiply
+     *
+     * @return A new unbounded int containing the product of the two unbounded ints, equal to multiply(factor)
+     *
+     * @throws IllegalArgumentException If the other unbounded int is null
+     * <dt><b>Precondition</b>Factor is not null</dt>
+     * <dt><b>Postcondition</b>The original unbounded ints are unchanged</dt>
+     */
+    public UnboundedInt parallelMultiply(UnboundedInt factor) {
+        if (factor == null) {
+            throw new IllegalArgumentException("Factor cannot be null");
+        }
+
+        long start = Instrumentation.start();
+        int[] product = factor.limbs() == limbs() && factor.length == length
+                        ? LimbMultiplier.square(limbs(), length, true)
+                        : LimbMultiplier.multiply(limbs(), length, factor.limbs(), factor.length, true);
+        Instrumentation.record(UnboundedIntMetrics.Operation.MULTIPLY, start, length, factor.length, product.length);
+        return new UnboundedInt(product, product.length);
+    }
+
+    /**
+     * Method to square the unbounded int, which takes about half the work of multiplying two different unbounded ints
+     * of the same size
+     *
+     * @return A new unbounded int containing the square of the unbounded int
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt square() {
+        long start = Instrumentation.start();
+        int[] product = LimbMultiplier.square(limbs(), length);
+        Instrumentation.record(UnboundedIntMetrics.Operation.MULTIPLY, start, length, length, product.length);
+        return new UnboundedInt(product, product.length);
+    }
+
+    /**
+     * Method to raise the unbounded int to a power by repeated squaring. Factors of 10 are split off first and put
+     * back at the end as a shift, so powers of 10 such as 1000^n are built directly and the squarings only work on
+     * the rest of the number.
+     *
+     * @param exponent The power to raise the unbounded int to
+     *
+     * @return A new unbounded int containing this^exponent (0^0 is 1)
+     *
+     * @throws IllegalArgumentException If the exponent is negative, or the result would be too large to store
+     * <dt><b>Precondition</b>Exponent is not negative</dt>
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt pow(int exponent) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent cannot be negative");
+        }
+        if (exponent == 0) {
+            return valueOf(1);
+        }
+        if (isZero()) {
+            return valueOf(0);
+        }
+
+        // write the unbounded int as stripped * 10^zeros, where stripped does not end in 0
+        int[] magnitude = LimbMultiplier.slice(limbs(), 0, length);
+        long zeroDigits = LimbDivider.trailingZeroDigits(magnitude);
+        int[] stripped = LimbDivider.shiftRightDigits(magnitude, zeroDigits);
 
-        IntNode current = head;
-        int shift = 0;
+        // square and multiply from the top bit of the exponent down, skipped entirely for powers of 10
+        int[] power = stripped;
+        if (stripped.length > 1 || stripped[0] > 1) {
+            for (int bit = 30 - Integer.numberOfLeadingZeros(exponent); bit >= 0; bit--) {
+                long start = Instrumentation.start();
+                int[] square = LimbMultiplier.square(power, power.length);
+                Instrumentation.record(UnboundedIntMetrics.Operation.MULTIPLY, start, power.length, power.length,
+                                       square.length);
+                power = LimbMultiplier.trim(square);
+                if ((exponent >>> bit & 1) != 0) {
+                    start = Instrumentation.start();
+                    int[] product = LimbMultiplier.multiply(power, power.length, stripped, stripped.length);
+                    Instrumentation.record(UnboundedIntMetrics.Operation.MULTIPLY, start, power.length,
+                                           stripped.length, product.length);
+                    power = LimbMultiplier.trim(product);
+                }
+            }
+        }
+        return fromMagnitude(LimbDivider.shiftLeftDigits(power, zeroDigits * exponent));
+    }
+
+    /**
+     * Method to multiply the unbounded int by 1000^groups, which puts groups 3 digit groups of zeros on its end. If
+     * groups is a multiple of 3 the zeros fill whole limbs, so the result is a view that shares the limbs of this
+     * unbounded int, and it only gets an array of its own if an operation needs one.
+     *
+     * @param groups The number of 3 digit groups of zeros to add
+     *
+     * @return An unbounded int holding this * 1000^groups
+     *
+     * @throws IllegalArgumentException If groups is negative, or the result would be too large to store
+     * <dt><b>Precondition</b>groups is not negative</dt>
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt multiplyByPowerOfThousand(int groups) {
+        if (groups < 0) {
+            throw new IllegalArgumentException("Groups cannot be negative");
+        }
+        if (groups == 0 || isZero()) {
+            return clone();
+        }
+        if (groups % GROUPS_PER_LIMB != 0) {
+            return fromMagnitude(LimbDivider.shiftLeftDigits(LimbMultiplier.slice(limbs(), 0, length),
+                                                             (long) groups * 3));
+        }
+        int zeros = groups / GROUPS_PER_LIMB;
+        if (zeros > Integer.MAX_VALUE - 8 - length) {
+            throw new IllegalArgumentException("Result is too large to store");
+        }
+        View where = asView();
+        return share(new View(where.source(), where.offset(), where.zeros() + zeros), length + zeros);
+    }
+
+    /**
+     * Method to divide the unbounded int by 1000^groups, dropping its lowest groups 3 digit groups. If groups is a
+     * multiple of 3 whole limbs are dropped, so the result is a view that shares the limbs of this unbounded int.
+     *
+     * @param groups The number of 3 digit groups to drop
+     *
+     * @return An unbounded int holding this / 1000^groups, rounded down
+     *
+     * @throws IllegalArgumentException If groups is negative
+     * <dt><b>Precondition</b>groups is not negative</dt>
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt divideByPowerOfThousand(int groups) {
+        if (groups < 0) {
+            throw new IllegalArgumentException("Groups cannot be negative");
+        }
+        if (groups == 0) {
+            return clone();
+        }
+        if (groups % GROUPS_PER_LIMB != 0 || isZero()) {
+            int[] magnitude = LimbMultiplier.trim(LimbMultiplier.slice(limbs(), 0, length));
+            return fromMagnitude(LimbDivider.shiftRightDigits(magnitude, (long) groups * 3));
+        }
+        int dropped = groups / GROUPS_PER_LIMB;
+        if (dropped >= length) {
+            return valueOf(0);
+        }
+        View where = asView();
+        View shifted = dropped <= where.zeros()
+                       ? new View(where.source(), where.offset(), where.zeros() - dropped)
+                       : new View(where.source(), where.offset() + dropped - where.zeros(), 0);
+        return share(shifted, length - dropped);
+    }
 
-        while (current != null) {
-            int carry = 0;
-            UnboundedInt partialProduct = new UnboundedInt(); // Stores partial product for current digit
-            //remove the first node so that the new unbounded int isn't shifted 3 digits to the left
-            partialProduct.head = null;
-            partialProduct.tail = null;
-            for (int i = 0; i < shift; i++) {
-                partialProduct.addEnd(0); // Append zeros for shifting
+    /**
+     * Method to keep only the lowest groups 3 digit groups of the unbounded int. If groups is a multiple of 3 whole
+     * limbs are kept, so the result is a view that shares the limbs of this unbounded int.
+     *
+     * @param groups The number of 3 digit groups to keep
+     *
+     * @return An unbounded int holding this mod 1000^groups
+     *
+     * @throws IllegalArgumentException If groups is negative
+     * <dt><b>Precondition</b>groups is not negative</dt>
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt modPowerOfThousand(int groups) {
+        if (groups < 0) {
+            throw new IllegalArgumentException("Groups cannot be negative");
+        }
+        if (groups >= groupCount()) {
+            return clone();
+        }
+        int kept = groups / GROUPS_PER_LIMB;
+        if (groups % GROUPS_PER_LIMB != 0) {
+            // the top limb is cut part way through, so it needs a new array
+            int[] low = new int[kept + 1];
+            for (int i = 0; i <= kept; i++) {
+                low[i] = limbAt(i);
             }
+            low[kept] %= POWERS_OF_TEN[groups % GROUPS_PER_LIMB * 3];
+            return new UnboundedInt(low, low.length);
+        }
+        View where = asView();
+        while (kept > where.zeros() && limbAt(kept - 1) == 0) {
+            kept--;
+        }
+        return kept <= where.zeros() ? valueOf(0) : share(where, kept);
+    }
+
+    /**
+     * Method to start a lazy expression from the unbounded int, so a chain of additions and multiplications is only
+     * recorded and then computed all at once by {@link UnboundedIntExpression#evaluate()}
+     *
+     * @return A new expression holding the unbounded int
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedIntExpression lazy() {
+        return UnboundedIntExpression.of(this);
+    }
+
+    /**
+     * Method to add up a stream of unbounded ints. The values are added in place into one
+     * {@link UnboundedIntAccumulator} per thread instead of making a new unbounded int for every partial sum, and a
+     * parallel stream is summed on several threads, with the totals of the threads added together at the end.
+     *
+     * @param values The unbounded ints to add
+     *
+     * @return A new unbounded int containing the sum of the values, 0 if there are none
+     *
+     * @throws IllegalArgumentException If values is null or holds null
+     * <dt><b>Postcondition</b>The values are unchanged</dt>
+     */
+    public static UnboundedInt sum(Stream<UnboundedInt> values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        return values.collect(summing());
+    }
 
-            IntNode factorCurrent = factor.head; // Multiply the current digit with each digit of the factor
+    /**
+     * Method to get a collector that adds up unbounded ints. Each thread of a parallel stream adds its values in
+     * place into an {@link UnboundedIntAccumulator} of its own, and the accumulators are added together once the
+     * threads are done.
+     *
+     * @return A collector whose result is a new unbounded int containing the sum, 0 for an empty stream
+     * <dt><b>Postcondition</b>The collected values are unchanged, collecting null throws IllegalArgumentException</dt>
+     */
+    public static Collector<UnboundedInt, UnboundedIntAccumulator, UnboundedInt> summing() {
+        return Collector.of(UnboundedIntAccumulator::new, UnboundedIntAccumulator::addInPlace,
+                            UnboundedIntAccumulator::merge, UnboundedIntAccumulator::toUnboundedInt,
+                            Collector.Characteristics.UNORDERED);
+    }
 
-            while (factorCurrent != null) {
-                int value =
-                        (current.getData() * factorCurrent.getData()) + carry; // Multiply the current digit with the
-                // factor and add the carry
-                carry = value / 1000;
-                value %= 1000;
-                partialProduct.addEnd(value); // Add the value to the partial product
-                factorCurrent = factorCurrent.getLink();
+    /**
+     * Method to add up an array of unbounded ints. Rather than adding the values one after another, which carries
+     * through the running total once for every value, the limbs in each position are totalled into a column sum
+     * and the carries are propagated in a single pass at the end.
+     *
+     * @param values The unbounded ints to add
+     *
+     * @return A new unbounded int containing the sum of the values, 0 if there are none
+     *
+     * @throws IllegalArgumentException If values is null or holds null
+     * <dt><b>Postcondition</b>The values are unchanged</dt>
+     */
+    public static UnboundedInt sumAll(UnboundedInt[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        int longest = 0;
+        for (UnboundedInt value : values) {
+            if (value == null) {
+                throw new IllegalArgumentException("Values cannot hold null");
+            }
+            longest = Math.max(longest, value.length);
+        }
+        // every limb is below 10^9 and an array has fewer than 2^31 values, so a column sum stays below 2.2 * 10^18
+        long[] columns = new long[longest];
+        for (UnboundedInt value : values) {
+            View where = value.asView();
+            int[] source = where.source();
+            for (int i = where.zeros(), j = where.offset(); i < value.length; i++, j++) {
+                columns[i] += source[j];
             }
+        }
+        // the carry out of the top column is below 2.2 * 10^9, which takes at most 2 more limbs
+        int[] sum = new int[longest + 2];
+        long carry = 0;
+        for (int i = 0; i < longest; i++) {
+            carry += columns[i];
+            sum[i] = (int) (carry % BASE);
+            carry /= BASE;
+        }
+        for (int i = longest; carry != 0; i++) {
+            sum[i] = (int) (carry % BASE);
+            carry /= BASE;
+        }
+        return longest == 0 ? valueOf(0) : new UnboundedInt(sum, sum.length);
+    }
 
-            if (carry > 0) {
-                partialProduct.addEnd(carry); // Add any remaining carry
+    /**
+     * Method to multiply a collection of unbounded ints together. The factors are multiplied in a balanced product
+     * tree on several threads, after their trailing zeros are taken off and counted, so the zeros are only put back
+     * once at the end as a shift.
+     *
+     * @param factors The unbounded ints to multiply
+     *
+     * @return A new unbounded int containing the product of the factors, 1 if there are none
+     *
+     * @throws IllegalArgumentException If factors is null or holds null
+     * <dt><b>Postcondition</b>The factors are unchanged</dt>
+     */
+    public static UnboundedInt productOf(Collection<UnboundedInt> factors) {
+        if (factors == null) {
+            throw new IllegalArgumentException("Factors cannot be null");
+        }
+        int[][] stripped = new int[factors.size()][];
+        int count = 0;
+        long zeroDigits = 0;
+        boolean zero = false;
+        for (UnboundedInt factor : factors) {
+            if (factor == null) {
+                throw new IllegalArgumentException("Factors cannot hold null");
             }
+            if (factor.isZero()) {
+                zero = true; // keep checking the rest for null
+                continue;
+            }
+            int[] magnitude = LimbMultiplier.slice(factor.limbs(), 0, factor.length);
+            long factorZeros = LimbDivider.trailingZeroDigits(magnitude);
+            zeroDigits += factorZeros;
+            stripped[count++] = LimbDivider.shiftRightDigits(magnitude, factorZeros);
+        }
+        if (zero) {
+            return valueOf(0);
+        }
+        int[] product = ProductTree.product(Arrays.copyOf(stripped, count), true);
+        return fromMagnitude(LimbDivider.shiftLeftDigits(product, zeroDigits));
+    }
 
-            product = product.add(partialProduct); // Add the partial product to the final product
-            shift++;
-            current = current.getLink();
+    /**
+     * Method to find the factorial of a number, the product of every number from 1 to n, using a parallel product tree
+     *
+     * @param n The number
+     *
+     * @return A new unbounded int containing n! (0! is 1)
+     *
+     * @throws IllegalArgumentException If n is negative
+     * <dt><b>Precondition</b>n is not negative</dt>
+     */
+    public static UnboundedInt factorial(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Factorial cannot be taken of a negative number");
         }
+        return fromMagnitude(ProductTree.factorial(n, true));
+    }
+
+    /**
+     * Method to find the square root of the unbounded int, rounded down
+     *
+     * @return A new unbounded int containing the largest number whose square is at most the unbounded int
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt sqrt() {
+        return sqrtAndRemainder()[0];
+    }
 
-        return product;
+    /**
+     * Method to find the square root of the unbounded int, rounded down, along with what is left over. The unbounded
+     * int is a perfect square exactly when the remainder is 0.
+     *
+     * @return An array of two new unbounded ints, the root s followed by the remainder this - s^2
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt[] sqrtAndRemainder() {
+        int[][] rootAndRemainder = LimbRoots.sqrtAndRemainder(LimbMultiplier.slice(limbs(), 0, length));
+        return new UnboundedInt[]{fromMagnitude(rootAndRemainder[0]), fromMagnitude(rootAndRemainder[1])};
+    }
+
+    /**
+     * Method to find the k-th root of the unbounded int, rounded down
+     *
+     * @param k The root to take, 2 for the square root, 3 for the cube root and so on
+     *
+     * @return A new unbounded int containing the largest number whose k-th power is at most the unbounded int
+     *
+     * @throws IllegalArgumentException If k is less than 1
+     * <dt><b>Precondition</b>k is at least 1</dt>
+     * <dt><b>Postcondition</b>The original unbounded int is unchanged</dt>
+     */
+    public UnboundedInt nthRoot(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Root must be at least 1");
+        }
+        if (k == 1) {
+            return clone();
+        }
+        if (k == 2) {
+            return sqrt();
+        }
+        return fromMagnitude(LimbRoots.root(LimbMultiplier.slice(limbs(), 0, length), k));
+    }
+
+    /**
+     * Method to divide two unbounded ints, rounding down
+     *
+     * @param divisor The unbounded int to divide by
+     *
+     * @return A new unbounded int containing the quotient of the two unbounded ints
+     *
+     * @throws IllegalArgumentException If the divisor is null or 0
+     * <dt><b>Precondition</b>Divisor is not null or 0</dt>
+     * <dt><b>Postcondition</b>The original unbounded ints are unchanged</dt>
+     */
+    public UnboundedInt divide(UnboundedInt divisor) {
+        return divideAndRemainder(divisor)[0];
+    }
+
+    /**
+     * Method to get the remainder of dividing two unbounded ints
+     *
+     * @param modulus The unbounded int to divide by
+     *
+     * @return A new unbounded int containing the remainder, between 0 and modulus - 1
+     *
+     * @throws IllegalArgumentException If the modulus is null or 0
+     * <dt><b>Precondition</b>Modulus is not null or 0</dt>
+     * <dt><b>Postcondition</b>The original unbounded ints are unchanged</dt>
+     */
+    public UnboundedInt mod(UnboundedInt modulus) {
+        if (modulus == null) {
+            throw new IllegalArgumentException("Modulus cannot be null");
+        }
+        return divideAndRemainder(modulus)[1];
+    }
+
+    /**
+     * Method to divide two unbounded ints and get both the quotient and the remainder from the same division. Single
+     * limb divisors take one pass of short division, larger ones go through LimbDivider, which switches from
+     * schoolbook to Burnikel-Ziegler division above the unboundedint.burnikelZieglerThreshold system property.
+     *
+     * @param divisor The unbounded int to divide by
+     *
+     * @return An array of two new unbounded ints, the quotient followed by the remainder
+     *
+     * @throws IllegalArgumentException If the divisor is null or 0
+     * <dt><b>Precondition</b>Divisor is not null or 0</dt>
+     * <dt><b>Postcondition</b>The original unbounded ints are unchanged</dt>
+     */
+    public UnboundedInt[] divideAndRemainder(UnboundedInt divisor) {
+        if (divisor == null) {
+            throw new IllegalArgumentException("Divisor cannot be null");
+        }
+        if (divisor.isZero()) {
+            throw new IllegalArgumentException("Divisor cannot be 0");
+        }
+        if (divisor.length == 1) { // fast path, no normalization or trimmed copies needed
+            int[] quotient = new int[length];
+            int remainder = LimbDivider.divideByLimb(limbs(), length, divisor.limbs()[0], quotient);
+            return new UnboundedInt[]{new UnboundedInt(quotient, length), new UnboundedInt(new int[]{remainder}, 1)};
+        }
+        int[][] qr = LimbDivider.divideAndRemainder(LimbMultiplier.slice(limbs(), 0, length),
+                                                    LimbMultiplier.slice(divisor.limbs(), 0, divisor.length));
+        return new UnboundedInt[]{fromMagnitude(qr[0]), fromMagnitude(qr[1])};
+    }
+
+    /**
+     * Method to raise the unbounded int to a power, reduced by a modulus. Callers doing many exponentiations with the
+     * same modulus should build one {@link MontgomeryContext} and share it instead, so its precomputed values and
+     * buffers are reused.
+     *
+     * @param exponent The power to raise the unbounded int to
+     * @param modulus The unbounded int to reduce by
+     *
+     * @return A new unbounded int containing this^exponent mod modulus, between 0 and modulus - 1
+     *
+     * @throws IllegalArgumentException If the exponent or modulus is null, or the modulus is 0
+     * <dt><b>Precondition</b>Exponent and modulus are not null and modulus is not 0</dt>
+     * <dt><b>Postcondition</b>The original unbounded ints are unchanged</dt>
+     */
+    public UnboundedInt modPow(UnboundedInt exponent, UnboundedInt modulus) {
+        if (exponent == null) {
+            throw new IllegalArgumentException("Exponent cannot be null");
+        }
+        return new MontgomeryContext(modulus).modPow(this, exponent);
     }
 
 
@@ -207,25 +942,14 @@ public class UnboundedInt implements Cloneable {
         if (obj == null) {
             return false;
         }
-        // Check if the other object is an instance of UnboundedInt and if the size of the two unbounded ints are the
-        // same
+        // Check if the other object is an instance of UnboundedInt and if the length of the two unbounded ints are
+        // the same
         if (obj instanceof UnboundedInt other) {
-            if (size !=
-                other.size) { // If the sizes are different, the unbounded ints are not equal so no need for further
-                // checks
+            if (length != other.length) { // If the lengths are different, the unbounded ints are not equal so no need
+                // for further checks
                 return false;
             }
-            IntNode current = head;
-            IntNode otherCurrent = other.head;
-            while (current != null && otherCurrent != null) { // loop through the linked list and check if the data of
-                // each node is the same
-                if (current.getData() != otherCurrent.getData()) {
-                    return false;
-                }
-                current = current.getLink();
-                otherCurrent = otherCurrent.getLink();
-            }
-            return current == null && otherCurrent == null;
+            return Arrays.equals(limbs(), 0, length, other.limbs(), 0, other.length);
         }
         else {
             return false;
@@ -233,7 +957,50 @@ public class UnboundedInt implements Cloneable {
     }
 
     /**
-     * Clone the UnboundedInt object
+     * Method to convert the unbounded int to a long, for values small enough to go back to primitive arithmetic
+     *
+     * @return The value of the unbounded int as a long
+     *
+     * @throws ArithmeticException If the unbounded int is larger than Long.MAX_VALUE
+     */
+    public long longValueExact() {
+        if (length > 3) {
+            throw new ArithmeticException("UnboundedInt is too large for a long");
+        }
+        long value = 0;
+        try {
+            for (int i = length - 1; i >= 0; i--) {
+                value = Math.addExact(Math.multiplyExact(value, BASE), limbAt(i));
+            }
+        }
+        catch (ArithmeticException e) {
+            throw new ArithmeticException("UnboundedInt is too large for a long");
+        }
+        return value;
+    }
+
+    /**
+     * Method to get a hash code for the unbounded int, consistent with equals since it only depends on the limbs in
+     * use. It is worked out once and cached, so large unbounded ints can be used as keys in hash maps and caches.
+     *
+     * @return The hash code of the unbounded int
+     */
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 1;
+            int[] values = limbs();
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + values[i];
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Clone the UnboundedInt object. The clone shares the limbs of the original instead of copying them, so cloning
+     * takes the same time for any size, and the limbs are only copied if one of the two is changed with addEnd.
      *
      * @return a clone of the UnboundedInt object
      *
@@ -248,11 +1015,9 @@ public class UnboundedInt implements Cloneable {
             throw new RuntimeException("This class does not implement Cloneable.");
         }
 
-        clone.head = IntNode.listCopy(this.head); // Copy the linked list
-        clone.size = this.size;
-
-        clone.tail = size > 1 ? IntNode.listPosition(clone.head, clone.size - 1) : clone.head; // Set the tail to the
-        // last node in the linked list if the size is greater than 1, otherwise set it to the head
+        shared = true; // both now read the same limbs, so either has to copy them before addEnd changes them
+        clone.shared = true;
+        clone.constant = false; // a clone of a constant is an ordinary unbounded int
         return clone;
     }
 
@@ -262,23 +1027,323 @@ public class UnboundedInt implements Cloneable {
      * @return The unbounded int as a string, with leading zeros and commas
      */
     public String toString() {
-        // Iterate over the linked list and create a string with the value of each node, adding a comma between each
-        // group of 3
-        StringBuilder sb = new StringBuilder();
-        IntNode current = head;
-        while (current != null) { // loop through the linked list and add the data of each node to the string
-            sb.insert(0, String.format("%03d", current.getData())); //format the data to have leading zeros
-            sb.insert(0, ","); // Add a comma before every 3 digits value
-            current = current.getLink();
-        }
-        // Remove the leading comma if the unbounded int is not empty
-        if (!sb.isEmpty()) {
-            sb.deleteCharAt(0);
-        }
-        //remove leading zeros
-        while (sb.charAt(0) == '0' && sb.length() > 1) {
-            sb.deleteCharAt(0);
-        }
-        return sb.toString();
-    }
-}
\ No newline at end of file
+        return toString(true);
+    }
+
+    /**
+     * Outputs the unbounded int as a string, with or without a comma between each group of 3 digits
+     *
+     * @param withCommas Whether to put a comma between each group of 3 digits
+     *
+     * @return The unbounded int as a string, without leading zeros
+     */
+    public String toString(boolean withCommas) {
+        long start = Instrumentation.start();
+        // size the characters up front and write the digits back to front, least significant limb first
+        int digits = (length - 1) * DIGITS_PER_LIMB + digitCount(limbAt(length - 1));
+        View where = asView(); // read a view where its limbs are, the zero limbs below them are not stored
+        int[] values = where.source();
+        int zeros = where.zeros();
+        int shift = where.offset() - zeros;
+        char[] chars = new char[withCommas ? digits + (digits - 1) / 3 : digits];
+        int position = chars.length;
+        int digitsInGroup = 0;
+        for (int limb = 0; limb < length; limb++) {
+            int value = limb < zeros ? 0 : values[limb + shift];
+            // every limb but the most significant one is written with its leading zeros
+            int count = limb == length - 1 ? digitCount(value) : DIGITS_PER_LIMB;
+            for (int digit = 0; digit < count; digit++) {
+                if (withCommas && digitsInGroup == 3) {
+                    chars[--position] = ',';
+                    digitsInGroup = 0;
+                }
+                chars[--position] = (char) ('0' + value % 10);
+                value /= 10;
+                digitsInGroup++;
+            }
+        }
+        Instrumentation.record(UnboundedIntMetrics.Operation.TO_STRING, start, length, 0, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Method to count the decimal digits of a limb
+     *
+     * @param value The limb
+     *
+     * @return The number of digits needed to write value, 1 for 0
+     */
+    static int digitCount(int value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Accessor method to get the limb array of the unbounded int, for the other classes of the package that work on
+     * limbs directly
+     *
+     * @return The limb array itself, least significant limb first, which must not be modified
+     */
+    int[] getLimbs() {
+        return limbs();
+    }
+
+    /**
+     * Method to get the limb array, copying the limbs of a view into an array of its own the first time they are
+     * needed
+     *
+     * @return The limb array, least significant limb first
+     */
+    private int[] limbs() {
+        int[] values = limbs;
+        return values != null ? values : flatten();
+    }
+
+    /**
+     * Method to copy the limbs of a view into an array of its own. Threads that race to do this each build the same
+     * array, so it does not matter whose array is kept.
+     *
+     * @return The new limb array
+     */
+    private int[] flatten() {
+        int[] values = new int[length];
+        copyInto(values);
+        limbs = values;
+        return values;
+    }
+
+    /**
+     * Method to copy the limbs into the bottom of an array
+     *
+     * @param target The array, holding zeros where the limbs go
+     */
+    private void copyInto(int[] target) {
+        View where = asView();
+        System.arraycopy(where.source(), where.offset(), target, where.zeros(), length - where.zeros());
+    }
+
+    /**
+     * Method to get one limb, without copying the limbs of a view
+     *
+     * @param index The index of the limb, 0 being the least significant
+     *
+     * @return The limb
+     * <dt><b>Precondition</b>index is between 0 and length - 1</dt>
+     */
+    private int limbAt(int index) {
+        View where = view;
+        if (where == null) {
+            return limbs[index];
+        }
+        return index < where.zeros() ? 0 : where.source()[where.offset() + index - where.zeros()];
+    }
+
+    /**
+     * Method to describe where the limbs are, for an unbounded int that is not a view as well
+     *
+     * @return The view of the unbounded int, or a view of its own limb array
+     */
+    private View asView() {
+        View where = view;
+        return where != null ? where : new View(limbs, 0, 0);
+    }
+
+    /**
+     * Method to make an unbounded int that shares limbs with this one
+     *
+     * @param where Where its limbs are
+     * @param newLength The number of limbs of its value, including the zero limbs below the shared ones
+     *
+     * @return The new unbounded int
+     * <dt><b>Precondition</b>The most significant limb is not 0</dt>
+     */
+    private UnboundedInt share(View where, int newLength) {
+        shared = true;
+        if (where.offset() == 0 && where.zeros() == 0) { // the limbs start the array, so it can be used as it is
+            UnboundedInt result = new UnboundedInt(where.source(), newLength);
+            result.shared = true;
+            return result;
+        }
+        return new UnboundedInt(where, newLength);
+    }
+
+    /**
+     * Accessor method to get the number of limbs of the limb array that are in use
+     *
+     * @return The number of limbs in use, at least 1
+     */
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * Method to convert a long to limbs
+     *
+     * @param value The value, not negative
+     *
+     * @return The 1 to 3 limbs of value, without leading zero limbs except for 0 itself
+     */
+    private static int[] limbsOf(long value) {
+        if (value < BASE) {
+            return new int[]{(int) value};
+        }
+        long high = value / BASE;
+        return high < BASE ? new int[]{(int) (value % BASE), (int) high}
+                           : new int[]{(int) (value % BASE), (int) (high % BASE), (int) (high / BASE)};
+    }
+
+    /**
+     * Method to check if the unbounded int is 0
+     *
+     * @return Whether the unbounded int is 0
+     */
+    boolean isZero() {
+        return length == 1 && view == null && limbs[0] == 0; // a view is never 0
+    }
+
+    /**
+     * Method to wrap a limb array without leading zero limbs, as returned by the LimbMultiplier and LimbDivider
+     * helpers, in an unbounded int
+     *
+     * @param magnitude The limbs, least significant first, empty for 0 (the array is not copied)
+     *
+     * @return A new unbounded int holding the limbs
+     */
+    static UnboundedInt fromMagnitude(int[] magnitude) {
+        return magnitude.length == 0 ? valueOf(0) : new UnboundedInt(magnitude, magnitude.length);
+    }
+
+    /**
+     * Method to get the number of 3 digit groups needed to write the unbounded int (1 for 0)
+     *
+     * @return The number of 3 digit groups in the unbounded int
+     */
+    int groupCount() {
+        int top = limbAt(length - 1);
+        int groups = (length - 1) * GROUPS_PER_LIMB + 1;
+        for (int scale = GROUP_BASE; scale < BASE && top >= scale; scale *= GROUP_BASE) {
+            groups++;
+        }
+        return groups;
+    }
+
+    /**
+     * Method to get one 3 digit group of the unbounded int
+     *
+     * @param group The index of the group, 0 being the least significant
+     *
+     * @return The value of the group, between 0 and 999
+     */
+    int groupAt(int group) {
+        int limb = group / GROUPS_PER_LIMB;
+        if (limb >= length) {
+            return 0;
+        }
+        return limbAt(limb) / groupScale(group % GROUPS_PER_LIMB) % GROUP_BASE;
+    }
+
+    /**
+     * Where the limbs of a view are: its limbs, least significant first, are zeros zero limbs followed by the limbs of
+     * source from offset on. The source array is shared, so it is never changed.
+     */
+    private record View(int[] source, int offset, int zeros) {
+    }
+
+    /**
+     * Method to get the multiplier of a group inside a limb
+     *
+     * @param groupInLimb The position of the group inside its limb (0, 1 or 2)
+     *
+     * @return 1, 1000 or 1000000
+     */
+    private static int groupScale(int groupInLimb) {
+        return groupInLimb == 0 ? 1 : groupInLimb == 1 ? GROUP_BASE : GROUP_BASE * GROUP_BASE;
+    }
+
+    /**
+     * Method to find the number of limbs that are needed once the leading zero limbs are dropped
+     *
+     * @param limbs The limb array
+     * @param length The number of limbs that may be in use
+     *
+     * @return The number of significant limbs, at least 1
+     */
+    static int normalizedLength(int[] limbs, int length) {
+        while (length > 1 && limbs[length - 1] == 0) {
+            length--;
+        }
+        return Math.max(length, 1);
+    }
+
+    /**
+     * Method to read the value of a run of at most 9 decimal digits
+     *
+     * @param digits The characters holding the digits
+     * @param from The index of the first digit
+     * @param to One past the index of the last digit
+     *
+     * @return The value of the digits, or -1 if one of the characters is not a digit
+     */
+    static int parseLimb(CharSequence digits, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = digits.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Method to add two limb arrays together
+     *
+     * @param a The first limb array
+     * @param aLength The number of limbs of a in use
+     * @param b The second limb array
+     * @param bLength The number of limbs of b in use
+     * @param sum The array to store the sum in
+     *
+     * @return The number of limbs written to sum
+     * <dt><b>Precondition</b>sum can hold max(aLength, bLength) + 1 limbs</dt>
+     */
+    static int addLimbs(int[] a, int aLength, int[] b, int bLength, int[] sum) {
+        if (aLength < bLength) { // make a the longer of the two so the loops below only need one tail
+            int[] swap = a;
+            a = b;
+            b = swap;
+            int swapLength = aLength;
+            aLength = bLength;
+            bLength = swapLength;
+        }
+        int carry = 0;
+        int i = 0;
+        if (LimbVectors.worthwhile(bLength)) {
+            carry = LimbVectors.add(a, 0, b, 0, sum, 0, bLength, 0);
+            i = bLength;
+        }
+        for (; i < bLength; i++) {
+            int value = a[i] + b[i] + carry; // at most 2 * (BASE - 1) + 1, which still fits in an int
+            carry = value >= BASE ? 1 : 0;
+            sum[i] = value - carry * BASE;
+        }
+        for (; carry != 0 && i < aLength; i++) {
+            int value = a[i] + carry;
+            carry = value >= BASE ? 1 : 0;
+            sum[i] = value - carry * BASE;
+        }
+        if (i < aLength) { // once the carry stops, the rest of the longer array is copied as it is
+            System.arraycopy(a, i, sum, i, aLength - i);
+            i = aLength;
+        }
+        if (carry > 0) {
+            sum[i++] = carry;
+        }
+        return i;
+    }
+}
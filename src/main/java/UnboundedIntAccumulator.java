@@ -0,0 +1,203 @@
+import java.util.Arrays;
+
+/**
+ * The UnboundedIntAccumulator class is a mutable running total of unbounded ints. It keeps one limb buffer that every
+ * addition works on in place, growing it geometrically when a result needs more room, so a long chain of sums or a
+ * polynomial evaluation does not allocate a new unbounded int for every step. Once the total is done it can be turned
+ * into an ordinary {@link UnboundedInt} with {@link #toUnboundedInt()}.
+ * <p>
+ * An accumulator is not thread safe, each thread should use its own.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public class UnboundedIntAccumulator {
+    //Invariant:
+    //buffer holds the total in base 1,000,000,000, least significant limb first
+    //length is the number of limbs in use, buffer[length - 1] is never 0 unless the total is 0 (length is then 1)
+    //every limb of buffer at or past length is 0
+    private int[] buffer;
+    private int length;
+
+
+    /**
+     * Constructor for the UnboundedIntAccumulator class, creates an accumulator holding 0
+     */
+    public UnboundedIntAccumulator() {
+        this(4);
+    }
+
+    /**
+     * Constructor for the UnboundedIntAccumulator class, creates an accumulator holding 0 with room for a total of a
+     * given size before the buffer has to grow
+     *
+     * @param initialLimbs The number of base 1,000,000,000 limbs to reserve (9 digits each)
+     *
+     * @throws IllegalArgumentException If initialLimbs is negative
+     */
+    public UnboundedIntAccumulator(int initialLimbs) {
+        if (initialLimbs < 0) {
+            throw new IllegalArgumentException("Initial limbs cannot be negative");
+        }
+        buffer = new int[Math.max(initialLimbs, 1)];
+        length = 1;
+    }
+
+    /**
+     * Constructor for the UnboundedIntAccumulator class, creates an accumulator starting at a given value
+     *
+     * @param initial The starting total
+     *
+     * @throws IllegalArgumentException If initial is null
+     * <dt><b>Postcondition</b>initial is unchanged</dt>
+     */
+    public UnboundedIntAccumulator(UnboundedInt initial) {
+        if (initial == null) {
+            throw new IllegalArgumentException("Initial value cannot be null");
+        }
+        length = initial.getLength();
+        // only the limbs in use are copied, the array of a view may hold limbs of a longer value past them
+        buffer = new int[length + 1];
+        System.arraycopy(initial.getLimbs(), 0, buffer, 0, length);
+    }
+
+    /**
+     * Method to add an unbounded int to the total
+     *
+     * @param addend The unbounded int to add
+     *
+     * @return This accumulator, so calls can be chained
+     *
+     * @throws IllegalArgumentException If addend is null
+     * <dt><b>Postcondition</b>addend is unchanged</dt>
+     */
+    public UnboundedIntAccumulator addInPlace(UnboundedInt addend) {
+        if (addend == null) {
+            throw new IllegalArgumentException("Addend cannot be null");
+        }
+        return addShifted(addend, 0);
+    }
+
+    /**
+     * Method to add the total of another accumulator to this one, which is how the totals of several threads are
+     * brought together
+     *
+     * @param other The accumulator whose total is added
+     *
+     * @return This accumulator, so calls can be chained
+     *
+     * @throws IllegalArgumentException If other is null
+     * <dt><b>Postcondition</b>other is unchanged</dt>
+     */
+    public UnboundedIntAccumulator merge(UnboundedIntAccumulator other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Accumulator cannot be null");
+        }
+        int otherLength = other.length; // read first, so adding an accumulator to itself doubles it
+        int resultLength = Math.max(length, otherLength) + 1;
+        ensureCapacity(resultLength);
+        LimbMultiplier.addInto(buffer, 0, other.buffer, otherLength);
+        length = UnboundedInt.normalizedLength(buffer, resultLength);
+        return this;
+    }
+
+    /**
+     * Method to add an unbounded int multiplied by 1,000,000,000^limbs to the total, which lines the addend up
+     * with the limbs of the total starting at limb number limbs (9 * limbs digits to the left)
+     *
+     * @param addend The unbounded int to add
+     * @param limbs The number of limbs to shift the addend by
+     *
+     * @return This accumulator, so calls can be chained
+     *
+     * @throws IllegalArgumentException If addend is null or limbs is negative
+     * <dt><b>Postcondition</b>addend is unchanged</dt>
+     */
+    public UnboundedIntAccumulator addShifted(UnboundedInt addend, int limbs) {
+        if (addend == null) {
+            throw new IllegalArgumentException("Addend cannot be null");
+        }
+        if (limbs < 0) {
+            throw new IllegalArgumentException("Shift cannot be negative");
+        }
+        int addendLength = addend.getLength();
+        int resultLength = Math.max(length, limbs + addendLength) + 1;
+        ensureCapacity(resultLength);
+        LimbMultiplier.addInto(buffer, limbs, addend.getLimbs(), addendLength);
+        length = UnboundedInt.normalizedLength(buffer, resultLength);
+        return this;
+    }
+
+    /**
+     * Method to add the product of two unbounded ints to the total without building the product as its own unbounded
+     * int
+     *
+     * @param a The first factor
+     * @param b The second factor
+     *
+     * @return This accumulator, so calls can be chained
+     *
+     * @throws IllegalArgumentException If a or b is null
+     * <dt><b>Postcondition</b>a and b are unchanged</dt>
+     */
+    public UnboundedIntAccumulator multiplyAdd(UnboundedInt a, UnboundedInt b) {
+        if (a == null || b == null) {
+            throw new IllegalArgumentException("Factors cannot be null");
+        }
+        int resultLength = Math.max(length, a.getLength() + b.getLength()) + 1;
+        ensureCapacity(resultLength);
+        LimbMultiplier.multiplyAdd(a.getLimbs(), a.getLength(), b.getLimbs(), b.getLength(), buffer);
+        length = UnboundedInt.normalizedLength(buffer, resultLength);
+        return this;
+    }
+
+    /**
+     * Method to set the total back to 0, keeping the buffer for the next total
+     *
+     * @return This accumulator, so calls can be chained
+     */
+    public UnboundedIntAccumulator reset() {
+        Arrays.fill(buffer, 0, length, 0);
+        length = 1;
+        return this;
+    }
+
+    /**
+     * Method to make an unbounded int holding the current total
+     *
+     * @return A new unbounded int holding the total, which does not change when the accumulator does
+     */
+    public UnboundedInt toUnboundedInt() {
+        return new UnboundedInt(Arrays.copyOf(buffer, length), length);
+    }
+
+    /**
+     * Outputs the current total as a string, with commas
+     *
+     * @return The current total as a string, with commas
+     */
+    public String toString() {
+        return toUnboundedInt().toString();
+    }
+
+    /**
+     * Method to get the number of limbs the buffer can hold before it has to grow
+     *
+     * @return The size of the buffer in limbs
+     */
+    int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Method to make sure the buffer can hold a number of limbs, at least doubling it when it has to grow so a long
+     * run of additions only copies the buffer a logarithmic number of times
+     *
+     * @param limbs The number of limbs needed
+     */
+    private void ensureCapacity(int limbs) {
+        if (limbs > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(limbs, buffer.length * 2));
+        }
+    }
+}
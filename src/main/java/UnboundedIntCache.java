@@ -0,0 +1,373 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * The UnboundedIntCache class remembers the results of arithmetic on unbounded ints, so a program that multiplies or
+ * raises the same operands again gets the earlier result back instead of computing it a second time. Caching is opt
+ * in: only calls made through a cache are remembered, and each cache holds its own results.
+ * <p>
+ * The cache is bounded by the memory its entries keep alive rather than by their number, since one entry for a
+ * million digit product outweighs thousands of small ones. An entry weighs roughly the bytes of its result and its
+ * operands, and once the total passes the limit the least recently used entries are evicted. To keep threads from
+ * waiting on each other, the entries are split into segments by key, each with its own lock. The limit applies to the
+ * whole cache, so one entry may take up to all of it: a result that pushes the total over the limit evicts the least
+ * recently used entries of its own segment first, and then those of the other segments, so the eviction order is
+ * least recently used within a segment. Results are computed outside the locks, so two threads missing on the same
+ * key at once may both compute it.
+ * <p>
+ * Operands are kept by reference as part of the key, so they must not be changed while they are cached.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public final class UnboundedIntCache {
+    private static final int SEGMENTS = 16;
+    //rough size of an UnboundedInt and its array without the limbs, and of a map entry with its key
+    private static final long VALUE_OVERHEAD = 40;
+    private static final long ENTRY_OVERHEAD = 96;
+
+    //Invariant:
+    //weight is the total weight of the entries of every segment, at most maxWeight once no put is running
+    private final long maxWeight;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicLong weight = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * Constructor for the UnboundedIntCache class
+     *
+     * @param maxBytes The most memory, in bytes, the cached results and their operands should keep alive
+     *
+     * @throws IllegalArgumentException If maxBytes is not positive
+     */
+    public UnboundedIntCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        maxWeight = maxBytes;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Method to add two unbounded ints, reusing the cached sum if there is one
+     *
+     * @param a The first addend
+     * @param b The second addend
+     *
+     * @return The sum of a and b, which may be shared with other callers
+     *
+     * @throws IllegalArgumentException If a or b is null
+     */
+    public UnboundedInt add(UnboundedInt a, UnboundedInt b) {
+        checkOperands(a, b);
+        return lookup(commutativeKey("add", a, b), () -> a.add(b));
+    }
+
+    /**
+     * Method to multiply two unbounded ints, reusing the cached product if there is one
+     *
+     * @param a The first factor
+     * @param b The second factor
+     *
+     * @return The product of a and b, which may be shared with other callers
+     *
+     * @throws IllegalArgumentException If a or b is null
+     */
+    public UnboundedInt multiply(UnboundedInt a, UnboundedInt b) {
+        checkOperands(a, b);
+        return lookup(commutativeKey("multiply", a, b), () -> a.multiply(b));
+    }
+
+    /**
+     * Method to raise an unbounded int to a power, reusing the cached power if there is one
+     *
+     * @param base The unbounded int to raise
+     * @param exponent The power to raise it to
+     *
+     * @return base^exponent, which may be shared with other callers
+     *
+     * @throws IllegalArgumentException If base is null or exponent is negative
+     */
+    public UnboundedInt pow(UnboundedInt base, int exponent) {
+        if (base == null) {
+            throw new IllegalArgumentException("Base cannot be null");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent cannot be negative");
+        }
+        return lookup(new Key("pow", base, exponent), () -> base.pow(exponent));
+    }
+
+    /**
+     * Method to apply any binary operation, reusing the cached result if the same operation was applied to equal
+     * operands before
+     *
+     * @param operation A name for the operation, results are only shared between calls with the same name
+     * @param left The first operand
+     * @param right The second operand
+     * @param operator The operation, called on a miss
+     *
+     * @return The result of the operation, which may be shared with other callers
+     *
+     * @throws IllegalArgumentException If any argument is null, or the operator returns null
+     */
+    public UnboundedInt apply(String operation, UnboundedInt left, UnboundedInt right,
+                              BinaryOperator<UnboundedInt> operator) {
+        checkOperands(left, right);
+        if (operation == null || operator == null) {
+            throw new IllegalArgumentException("Operation and operator cannot be null");
+        }
+        return lookup(new Key(operation, left, right), () -> operator.apply(left, right));
+    }
+
+    /**
+     * Method to get the number of calls answered from the cache
+     *
+     * @return The number of hits since the cache was made
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Method to get the number of calls that had to compute their result
+     *
+     * @return The number of misses since the cache was made
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Method to get the number of entries evicted to stay within the memory limit
+     *
+     * @return The number of evictions since the cache was made
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Method to get the memory the cached entries are estimated to keep alive
+     *
+     * @return The total weight of the entries, in bytes
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    /**
+     * Method to get the memory limit of the cache
+     *
+     * @return The limit given when the cache was made, in bytes
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Method to get the number of cached results
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Method to remove every cached result, keeping the counters
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                weight.addAndGet(-segment.weight);
+                segment.weight = 0;
+            }
+        }
+    }
+
+    /**
+     * Method to estimate the memory an unbounded int keeps alive
+     *
+     * @param value The unbounded int
+     *
+     * @return The estimated size of the object and its limb array, in bytes
+     */
+    static long weightOf(UnboundedInt value) {
+        return VALUE_OVERHEAD + 4L * value.getLength();
+    }
+
+    /**
+     * Method to find a result in the cache, computing and storing it on a miss
+     *
+     * @param key The operation and its operands
+     * @param computation The work to do on a miss
+     *
+     * @return The cached or newly computed result
+     */
+    private UnboundedInt lookup(Key key, Supplier<UnboundedInt> computation) {
+        int index = spread(key.hashCode()) & (SEGMENTS - 1);
+        Segment segment = segments[index];
+        Entry cached;
+        synchronized (segment) {
+            cached = segment.entries.get(key); // also moves the entry to the most recently used end
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached.result();
+        }
+        misses.increment();
+        UnboundedInt result = computation.get();
+        if (result == null) {
+            throw new IllegalArgumentException("Operator cannot return null");
+        }
+        store(index, key, new Entry(result, key.weight() + weightOf(result)));
+        return result;
+    }
+
+    /**
+     * Method to store a result, evicting least recently used entries until the cache is within its limit, from the
+     * segment of the result first and then from the others. Results that would not fit even in an empty cache are
+     * not stored.
+     *
+     * @param index The index of the segment of the key
+     * @param key The key of the result
+     * @param entry The result and its weight
+     */
+    private void store(int index, Key key, Entry entry) {
+        if (entry.weight() > maxWeight) {
+            return;
+        }
+        weight.addAndGet(segments[index].put(key, entry));
+        //only one segment is locked at a time, so puts on different segments cannot deadlock
+        for (int i = 0; i < SEGMENTS; i++) {
+            long excess = weight.get() - maxWeight;
+            if (excess <= 0) {
+                return;
+            }
+            weight.addAndGet(-segments[(index + i) & (SEGMENTS - 1)].evict(excess, key, evictions));
+        }
+    }
+
+    /**
+     * Method to build the key of a commutative operation, putting the operands in a fixed order so a op b and b op a
+     * share an entry
+     *
+     * @param operation The name of the operation
+     * @param a The first operand
+     * @param b The second operand
+     *
+     * @return The key
+     */
+    private static Key commutativeKey(String operation, UnboundedInt a, UnboundedInt b) {
+        return a.hashCode() <= b.hashCode() ? new Key(operation, a, b) : new Key(operation, b, a);
+    }
+
+    /**
+     * Method to check that two operands are not null
+     *
+     * @param a The first operand
+     * @param b The second operand
+     *
+     * @throws IllegalArgumentException If either operand is null
+     */
+    private static void checkOperands(UnboundedInt a, UnboundedInt b) {
+        if (a == null || b == null) {
+            throw new IllegalArgumentException("Operands cannot be null");
+        }
+    }
+
+    /**
+     * Method to mix the high bits of a hash code into the low ones used to pick a segment
+     *
+     * @param h The hash code
+     *
+     * @return The mixed hash code
+     */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The operation and operands a result was computed from. The second operand is an unbounded int, or an Integer
+     * for pow.
+     */
+    private record Key(String operation, UnboundedInt left, Object right) {
+        long weight() {
+            long weight = ENTRY_OVERHEAD + weightOf(left);
+            return right instanceof UnboundedInt value ? weight + weightOf(value) : weight;
+        }
+    }
+
+    /**
+     * A cached result together with the weight of its entry
+     */
+    private record Entry(UnboundedInt result, long weight) {
+    }
+
+    /**
+     * One segment of the cache, an access ordered map guarded by its own lock
+     */
+    private static final class Segment {
+        //Invariant:
+        //weight is the total weight of the entries
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        /**
+         * Method to store a result
+         *
+         * @param key The key of the result
+         * @param entry The result and its weight
+         *
+         * @return The change in the weight of the segment
+         */
+        private synchronized long put(Key key, Entry entry) {
+            Entry replaced = entries.put(key, entry);
+            long added = entry.weight() - (replaced == null ? 0 : replaced.weight());
+            weight += added;
+            return added;
+        }
+
+        /**
+         * Method to evict least recently used entries until at least a given weight is removed or no entries are left
+         *
+         * @param excess The weight to remove
+         * @param keep The key of an entry that is not evicted, the one just stored
+         * @param evictions The counter of evicted entries
+         *
+         * @return The weight removed
+         */
+        private synchronized long evict(long excess, Key keep, LongAdder evictions) {
+            long removed = 0;
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (removed < excess && eldest.hasNext()) {
+                Map.Entry<Key, Entry> next = eldest.next();
+                if (!next.getKey().equals(keep)) {
+                    removed += next.getValue().weight();
+                    eldest.remove();
+                    evictions.increment();
+                }
+            }
+            weight -= removed;
+            return removed;
+        }
+    }
+}
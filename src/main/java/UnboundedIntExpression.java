@@ -0,0 +1,582 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * The UnboundedIntExpression class builds sums and products of unbounded ints without computing them. A chain such as
+ * {@code a.lazy().add(b).multiply(c).add(d)} only records the operations, and nothing is computed until
+ * {@link #evaluate()} is called. Expressions never change once they are built and can share subexpressions, so they
+ * form a directed acyclic graph.
+ * <p>
+ * When an expression is evaluated, the graph is first rewritten to be cheaper to compute:
+ * <ul>
+ * <li>Subexpressions that are built the same way more than once, with their operands in either order, are computed
+ * once. Leaves with equal values count as the same subexpression.</li>
+ * <li>Chains of additions, and chains of multiplications, are flattened into a single sum or product of all their
+ * operands. A subexpression used more than once is kept whole so it is still only computed once.</li>
+ * <li>A sum adds its terms with one carry pass over column sums, and the products of two factors in a sum are
+ * added straight into its running total instead of being built on their own. A term that appears k times is
+ * multiplied by k instead of being added k times.</li>
+ * <li>A product multiplies its two smallest factors together until one is left, so every multiplication has
+ * operands of about the same size, and a factor that appears k times is raised to the k-th power.</li>
+ * <li>Subexpressions that do not depend on each other are computed at the same time on the {@link ParallelArithmetic}
+ * pool once they are large enough, the most expensive first.</li>
+ * </ul>
+ * The value of an expression is kept once it is evaluated, so evaluating it again, or evaluating a larger expression
+ * built from it, does not compute it again.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public final class UnboundedIntExpression {
+    private enum Kind {
+        VALUE, SUM, PRODUCT
+    }
+
+    //Invariant:
+    //a VALUE expression holds its value in result and has no operands
+    //a SUM or PRODUCT expression has two operands, and result is null until the expression is evaluated
+    private final Kind kind;
+    private final UnboundedIntExpression left;
+    private final UnboundedIntExpression right;
+    private volatile UnboundedInt result;
+
+
+    /**
+     * Constructor for the UnboundedIntExpression class, creates a sum or product of two expressions
+     *
+     * @param kind Whether the expression is a sum or a product
+     * @param left The first operand
+     * @param right The second operand
+     */
+    private UnboundedIntExpression(Kind kind, UnboundedIntExpression left, UnboundedIntExpression right) {
+        this.kind = kind;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Constructor for the UnboundedIntExpression class, creates an expression holding a value
+     *
+     * @param value The value
+     */
+    private UnboundedIntExpression(UnboundedInt value) {
+        this.kind = Kind.VALUE;
+        this.left = null;
+        this.right = null;
+        this.result = value;
+    }
+
+    /**
+     * Method to make an expression holding an unbounded int
+     *
+     * @param value The value of the expression
+     *
+     * @return A new expression holding value
+     *
+     * @throws IllegalArgumentException If value is null
+     * <dt><b>Postcondition</b>The expression holds value as it is now, changing value with addEnd afterwards does not
+     * change the expression</dt>
+     */
+    public static UnboundedIntExpression of(UnboundedInt value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        return new UnboundedIntExpression(value.clone());
+    }
+
+    /**
+     * Method to build the sum of this expression and another one
+     *
+     * @param addend The expression to add
+     *
+     * @return A new expression for the sum, which is not computed until it is evaluated
+     *
+     * @throws IllegalArgumentException If addend is null
+     */
+    public UnboundedIntExpression add(UnboundedIntExpression addend) {
+        if (addend == null) {
+            throw new IllegalArgumentException("Addend cannot be null");
+        }
+        return new UnboundedIntExpression(Kind.SUM, this, addend);
+    }
+
+    /**
+     * Method to build the sum of this expression and an unbounded int
+     *
+     * @param addend The unbounded int to add
+     *
+     * @return A new expression for the sum, which is not computed until it is evaluated
+     *
+     * @throws IllegalArgumentException If addend is null
+     */
+    public UnboundedIntExpression add(UnboundedInt addend) {
+        if (addend == null) {
+            throw new IllegalArgumentException("Addend cannot be null");
+        }
+        return add(of(addend));
+    }
+
+    /**
+     * Method to build the product of this expression and another one
+     *
+     * @param factor The expression to multiply by
+     *
+     * @return A new expression for the product, which is not computed until it is evaluated
+     *
+     * @throws IllegalArgumentException If factor is null
+     */
+    public UnboundedIntExpression multiply(UnboundedIntExpression factor) {
+        if (factor == null) {
+            throw new IllegalArgumentException("Factor cannot be null");
+        }
+        return new UnboundedIntExpression(Kind.PRODUCT, this, factor);
+    }
+
+    /**
+     * Method to build the product of this expression and an unbounded int
+     *
+     * @param factor The unbounded int to multiply by
+     *
+     * @return A new expression for the product, which is not computed until it is evaluated
+     *
+     * @throws IllegalArgumentException If factor is null
+     */
+    public UnboundedIntExpression multiply(UnboundedInt factor) {
+        if (factor == null) {
+            throw new IllegalArgumentException("Factor cannot be null");
+        }
+        return multiply(of(factor));
+    }
+
+    /**
+     * Method to check if the expression has been evaluated
+     *
+     * @return Whether the value of the expression is known without computing anything
+     */
+    public boolean isEvaluated() {
+        return result != null;
+    }
+
+    /**
+     * Method to compute the value of the expression, or to get it if it was already computed
+     *
+     * @return The value of the expression, which shares its limbs with the kept value until either is changed
+     */
+    public UnboundedInt evaluate() {
+        UnboundedInt value = result;
+        if (value == null) {
+            value = new Plan(this).evaluate();
+            result = value;
+        }
+        return value.clone();
+    }
+
+    /**
+     * Outputs the expression with every sum and product in parentheses, and the values of its leaves and of the
+     * subexpressions that are already evaluated without commas
+     *
+     * @return The expression as a string
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        // the stack holds expressions still to be written and the strings that go between them
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            Object next = pending.pop();
+            if (next instanceof String text) {
+                out.append(text);
+                continue;
+            }
+            UnboundedIntExpression expression = (UnboundedIntExpression) next;
+            UnboundedInt value = expression.result;
+            if (value != null) {
+                out.append(value.toString(false));
+                continue;
+            }
+            out.append('(');
+            pending.push(")");
+            pending.push(expression.right);
+            pending.push(expression.kind == Kind.SUM ? " + " : " * ");
+            pending.push(expression.left);
+        }
+        return out.toString();
+    }
+
+    /**
+     * The rewritten graph of an expression that is being evaluated. Every distinct subexpression is one node, and
+     * each sum and product node lists all of the operands it adds or multiplies once the chains are flattened.
+     */
+    private static final class Plan {
+        private final List<Node> nodes = new ArrayList<>();
+        private final Map<UnboundedInt, Node> leaves = new HashMap<>();
+        private final Map<Key, Node> operations = new HashMap<>();
+        private final Node root;
+
+        /**
+         * Constructor for the Plan class, builds and rewrites the graph of an expression
+         *
+         * @param expression The expression
+         */
+        Plan(UnboundedIntExpression expression) {
+            root = build(expression);
+            flatten();
+        }
+
+        /**
+         * Method to give every distinct subexpression of an expression a node, visiting the operands before the
+         * expressions that use them, so nodes holds the operands of every node before it
+         *
+         * @param expression The expression
+         *
+         * @return The node of the expression
+         */
+        private Node build(UnboundedIntExpression expression) {
+            // the expression can be a chain far too long to walk recursively, so the walk keeps its own stack
+            Map<UnboundedIntExpression, Node> built = new IdentityHashMap<>();
+            Deque<UnboundedIntExpression> pending = new ArrayDeque<>();
+            pending.push(expression);
+            while (!pending.isEmpty()) {
+                UnboundedIntExpression next = pending.peek();
+                if (built.containsKey(next)) {
+                    pending.pop();
+                    continue;
+                }
+                UnboundedInt value = next.result;
+                if (value != null) {
+                    built.put(next, leaves.computeIfAbsent(value, this::leaf));
+                    pending.pop();
+                    continue;
+                }
+                Node left = built.get(next.left);
+                Node right = built.get(next.right);
+                if (left == null || right == null) {
+                    if (left == null) {
+                        pending.push(next.left);
+                    }
+                    if (right == null) {
+                        pending.push(next.right);
+                    }
+                    continue;
+                }
+                pending.pop();
+                // sums and products do not depend on the order of their operands
+                Key key = new Key(next.kind, Math.min(left.id, right.id), Math.max(left.id, right.id));
+                Node node = operations.get(key);
+                if (node == null) {
+                    node = add(new Node(next.kind, nodes.size(), null));
+                    node.left = left;
+                    node.right = right;
+                    left.uses++;
+                    right.uses++;
+                    operations.put(key, node);
+                }
+                built.put(next, node);
+            }
+            return built.get(expression);
+        }
+
+        /**
+         * Method to make the node of a leaf
+         *
+         * @param value The value of the leaf
+         *
+         * @return A new node holding value
+         */
+        private Node leaf(UnboundedInt value) {
+            return add(new Node(Kind.VALUE, nodes.size(), value));
+        }
+
+        /**
+         * Method to add a node to the graph
+         *
+         * @param node The node
+         *
+         * @return node
+         */
+        private Node add(Node node) {
+            nodes.add(node);
+            return node;
+        }
+
+        /**
+         * Method to flatten chains of sums and of products, and to pick the products that are added straight into
+         * the sums that use them
+         */
+        private void flatten() {
+            for (Node node : nodes) {
+                if (node.kind == Kind.VALUE) {
+                    continue;
+                }
+                for (Node operand : new Node[]{node.left, node.right}) {
+                    // an operand used only here is merged into this node, since nothing else needs its value
+                    if (operand.kind == node.kind && operand.uses == 1) {
+                        node.operands = merge(node.operands, operand.operands);
+                        node.fused = merge(node.fused, operand.fused);
+                    }
+                    else if (node.kind == Kind.SUM && operand.kind == Kind.PRODUCT && operand.uses == 1
+                             && operand.operands.size() == 2) {
+                        node.fused.add(operand);
+                    }
+                    else {
+                        node.operands.add(operand);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Method to put two lists of nodes together, adding the shorter one to the longer one so that flattening a
+         * chain of n operations takes O(n log n) time whichever side the chain grows on
+         *
+         * @param first The first list
+         * @param second The second list
+         *
+         * @return One of the two lists, holding the nodes of both
+         */
+        private static List<Node> merge(List<Node> first, List<Node> second) {
+            if (first.size() < second.size()) {
+                second.addAll(first);
+                return second;
+            }
+            first.addAll(second);
+            return first;
+        }
+
+        /**
+         * Method to compute the value of the expression, a level at a time, where the nodes of each level only use
+         * the values of the levels before it
+         *
+         * @return The value of the expression
+         */
+        UnboundedInt evaluate() {
+            List<List<Node>> levels = levels();
+            for (List<Node> level : levels) {
+                long limbs = 0;
+                for (Node node : level) {
+                    limbs += node.size;
+                }
+                if (level.size() > 1 && limbs >= ParallelArithmetic.getThreshold()) {
+                    // start the most expensive nodes first so the pool is not left waiting on one of them at the end
+                    level.sort(Comparator.comparingDouble((Node node) -> node.cost).reversed());
+                    ParallelArithmetic.invoke(() -> {
+                        ParallelArithmetic.forEach(level.size(), i -> level.get(i).compute());
+                        return null;
+                    });
+                }
+                else {
+                    for (Node node : level) {
+                        node.compute();
+                    }
+                }
+            }
+            return root.value;
+        }
+
+        /**
+         * Method to sort the nodes that have to be computed into levels, estimating the size and cost of each one
+         *
+         * @return The levels, where level k holds the nodes whose longest chain of operands down to a leaf has k + 1
+         * nodes that have to be computed
+         */
+        private List<List<Node>> levels() {
+            // the operands of a node are before it in nodes, so walking backwards reaches every node after its users
+            root.needed = true;
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                Node node = nodes.get(i);
+                if (node.needed) {
+                    node.forEachInput(input -> input.needed = true);
+                }
+            }
+            List<List<Node>> levels = new ArrayList<>();
+            for (Node node : nodes) {
+                if (!node.needed || node.kind == Kind.VALUE) {
+                    continue;
+                }
+                node.estimate();
+                int[] height = {0};
+                node.forEachInput(input -> height[0] = Math.max(height[0], input.height));
+                node.height = height[0] + 1;
+                while (levels.size() < node.height) {
+                    levels.add(new ArrayList<>());
+                }
+                levels.get(node.height - 1).add(node);
+            }
+            return levels;
+        }
+    }
+
+    /**
+     * The key of a sum or product node, so that building the same operation twice gives the same node
+     *
+     * @param kind Whether the node is a sum or a product
+     * @param first The smaller id of the two operands
+     * @param second The larger id of the two operands
+     */
+    private record Key(Kind kind, int first, int second) {
+    }
+
+    /**
+     * One distinct subexpression of an expression being evaluated
+     */
+    private static final class Node {
+        private final Kind kind;
+        private final int id;
+        private Node left;
+        private Node right;
+        //the number of operations in the graph that use this node
+        private int uses;
+        //the operands a sum adds or a product multiplies once the chains are flattened, with repeats, in no order
+        private List<Node> operands = new ArrayList<>();
+        //the products of two factors that a sum adds straight into its total
+        private List<Node> fused = new ArrayList<>();
+        private boolean needed;
+        private int height;
+        //an estimate of the number of limbs of the value, and of the work to compute it
+        private long size;
+        private double cost;
+        //the value of a leaf, or of a sum or product once it is computed
+        private UnboundedInt value;
+
+        /**
+         * Constructor for the Node class
+         *
+         * @param kind Whether the node is a leaf, a sum or a product
+         * @param id The position of the node in the graph
+         * @param value The value of a leaf, null for a sum or product
+         */
+        Node(Kind kind, int id, UnboundedInt value) {
+            this.kind = kind;
+            this.id = id;
+            this.value = value;
+            this.size = value == null ? 0 : value.getLength();
+        }
+
+        /**
+         * Method to run an action on every node whose value this node needs, including the factors of the
+         * products that are added into it
+         *
+         * @param action The action
+         */
+        void forEachInput(Consumer<Node> action) {
+            operands.forEach(action);
+            for (Node product : fused) {
+                product.operands.forEach(action);
+            }
+        }
+
+        /**
+         * Method to estimate the size of the value of the node and the work to compute it from the sizes of its
+         * inputs
+         */
+        void estimate() {
+            if (kind == Kind.SUM) {
+                long largest = 0;
+                for (Node operand : operands) {
+                    largest = Math.max(largest, operand.size);
+                    cost += operand.size;
+                }
+                for (Node product : fused) {
+                    long a = product.operands.get(0).size;
+                    long b = product.operands.get(1).size;
+                    largest = Math.max(largest, a + b);
+                    cost += multiplicationCost(a, b);
+                }
+                size = largest + 1;
+            }
+            else {
+                for (Node operand : operands) {
+                    cost += multiplicationCost(size, operand.size);
+                    size += operand.size;
+                }
+            }
+        }
+
+        /**
+         * Method to estimate the work to multiply two numbers, as if by Karatsuba's algorithm
+         *
+         * @param a The number of limbs of the first number
+         * @param b The number of limbs of the second number
+         *
+         * @return The estimated work
+         */
+        private static double multiplicationCost(long a, long b) {
+            long small = Math.max(Math.min(a, b), 1);
+            return (double) Math.max(a, b) / small * Math.pow(small, 1.585);
+        }
+
+        /**
+         * Method to compute the value of the node from the values of its inputs
+         * <dt><b>Precondition</b>The value of every input is known</dt>
+         */
+        void compute() {
+            value = kind == Kind.SUM ? sum() : product();
+        }
+
+        /**
+         * Method to add up the operands and fused products of a sum node
+         *
+         * @return The sum
+         */
+        private UnboundedInt sum() {
+            List<UnboundedInt> terms = new ArrayList<>();
+            for (Map.Entry<Node, Integer> term : counts(operands).entrySet()) {
+                UnboundedInt termValue = term.getKey().value;
+                terms.add(term.getValue() == 1 ? termValue : termValue.multiply(term.getValue().longValue()));
+            }
+            UnboundedInt total = UnboundedInt.sumAll(terms.toArray(new UnboundedInt[0]));
+            if (fused.isEmpty()) {
+                return total;
+            }
+            UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator(total);
+            for (Node product : fused) {
+                accumulator.multiplyAdd(product.operands.get(0).value, product.operands.get(1).value);
+            }
+            return accumulator.toUnboundedInt();
+        }
+
+        /**
+         * Method to multiply the operands of a product node, always multiplying the two smallest values left
+         *
+         * @return The product
+         */
+        private UnboundedInt product() {
+            PriorityQueue<UnboundedInt> factors = new PriorityQueue<>(Comparator.comparingInt(UnboundedInt::getLength));
+            for (Map.Entry<Node, Integer> factor : counts(operands).entrySet()) {
+                UnboundedInt factorValue = factor.getKey().value;
+                if (factorValue.isZero()) {
+                    return UnboundedInt.ZERO;
+                }
+                factors.add(factor.getValue() == 1 ? factorValue : factorValue.pow(factor.getValue()));
+            }
+            while (factors.size() > 1) {
+                factors.add(factors.poll().parallelMultiply(factors.poll()));
+            }
+            return factors.poll();
+        }
+
+        /**
+         * Method to count how many times each node appears in a list
+         *
+         * @param list The nodes
+         *
+         * @return The number of times each distinct node appears
+         */
+        private static Map<Node, Integer> counts(List<Node> list) {
+            Map<Node, Integer> counts = new IdentityHashMap<>();
+            for (Node node : list) {
+                counts.merge(node, 1, Integer::sum);
+            }
+            return counts;
+        }
+    }
+}
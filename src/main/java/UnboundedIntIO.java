@@ -0,0 +1,295 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * The UnboundedIntIO class reads and writes unbounded ints in a compact binary format, so values can be saved between
+ * runs without going through their decimal strings. The format is a 16 byte header followed by the raw limbs, all in
+ * little endian order:
+ * <pre>
+ *   offset  size  field
+ *        0     4  magic number, the ASCII bytes "UBIN"
+ *        4     2  format version, currently 1
+ *        6     2  header size in bytes, currently 16
+ *        8     4  limb base, 1,000,000,000
+ *       12     4  number of limbs
+ *       16   4*n  the limbs, least significant first, each between 0 and 999,999,999
+ * </pre>
+ * A file in this format can also be memory mapped with {@link #map(FileChannel, long)}, which reads the limbs in place
+ * instead of copying them onto the heap.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public final class UnboundedIntIO {
+    static final int MAGIC = 'U' | 'B' << 8 | 'I' << 16 | 'N' << 24;
+    static final short VERSION = 1;
+    static final short HEADER_SIZE = 16;
+
+    //size of the buffer used to move limbs to and from a channel
+    private static final int TRANSFER_LIMBS = 1 << 16;
+
+    private UnboundedIntIO() {
+    }
+
+    /**
+     * Method to get the number of bytes an unbounded int takes in the binary format
+     *
+     * @param value The unbounded int
+     *
+     * @return The size of the header plus 4 bytes per limb
+     */
+    public static long serializedSize(UnboundedInt value) {
+        return HEADER_SIZE + 4L * value.getLength();
+    }
+
+    /**
+     * Method to write an unbounded int into a buffer
+     *
+     * @param value The unbounded int to write
+     * @param target The buffer to write to, starting at its position
+     *
+     * @throws IllegalArgumentException If value or target is null
+     * @throws java.nio.BufferOverflowException If the buffer does not have serializedSize(value) bytes left
+     * <dt><b>Postcondition</b>The position of target is just past the written value, and its byte order is
+     * unchanged</dt>
+     */
+    public static void write(UnboundedInt value, ByteBuffer target) {
+        if (value == null || target == null) {
+            throw new IllegalArgumentException("Value and target cannot be null");
+        }
+        ByteBuffer out = target.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(out, value.getLength());
+        out.asIntBuffer().put(value.getLimbs(), 0, value.getLength());
+        target.position(target.position() + (int) serializedSize(value));
+    }
+
+    /**
+     * Method to write an unbounded int to a channel, such as a FileChannel
+     *
+     * @param value The unbounded int to write
+     * @param channel The channel to write to (it is not closed)
+     *
+     * @throws IOException If the channel cannot be written
+     * @throws IllegalArgumentException If value or channel is null
+     */
+    public static void write(UnboundedInt value, WritableByteChannel channel) throws IOException {
+        if (value == null || channel == null) {
+            throw new IllegalArgumentException("Value and channel cannot be null");
+        }
+        int[] limbs = value.getLimbs();
+        int length = value.getLength();
+        ByteBuffer block = ByteBuffer.allocateDirect(4 * Math.min(length, TRANSFER_LIMBS) + HEADER_SIZE)
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(block, length);
+        for (int offset = 0; offset < length; offset += TRANSFER_LIMBS) {
+            int count = Math.min(TRANSFER_LIMBS, length - offset);
+            block.asIntBuffer().put(limbs, offset, count);
+            block.position(block.position() + 4 * count);
+            block.flip();
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+            block.clear();
+        }
+    }
+
+    /**
+     * Method to read an unbounded int from a buffer
+     *
+     * @param source The buffer to read from, starting at its position
+     *
+     * @return A new unbounded int holding the value that was read
+     *
+     * @throws IllegalArgumentException If source is null or does not hold a valid value
+     * <dt><b>Postcondition</b>The position of source is just past the value that was read</dt>
+     */
+    public static UnboundedInt read(ByteBuffer source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source cannot be null");
+        }
+        ByteBuffer in = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int length = readHeader(in);
+        if (in.remaining() < 4L * length) {
+            throw new IllegalArgumentException("Serialized UnboundedInt is truncated");
+        }
+        int[] limbs = new int[length];
+        in.asIntBuffer().get(limbs);
+        checkLimbs(limbs, length);
+        source.position(source.position() + HEADER_SIZE + 4 * length);
+        return new UnboundedInt(limbs, length);
+    }
+
+    /**
+     * Method to read an unbounded int from a channel, such as a FileChannel. The number of limbs in the header is not
+     * trusted: it is checked against the size of a seekable channel before anything is allocated, and for other
+     * channels the limbs are read into an array that grows as they arrive, so a corrupt header cannot allocate much
+     * more than the channel holds.
+     *
+     * @param channel The channel to read from (it is not closed)
+     *
+     * @return A new unbounded int holding the value that was read
+     *
+     * @throws IOException If the channel cannot be read or ends before the value does
+     * @throws IllegalArgumentException If channel is null or does not hold a valid value, or is a seekable channel
+     * with fewer bytes left than the header says the value has
+     */
+    public static UnboundedInt read(ReadableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header);
+        header.flip();
+        int length = readHeader(header);
+        if (channel instanceof SeekableByteChannel seekable && seekable.size() - seekable.position() < 4L * length) {
+            throw new IllegalArgumentException("Serialized UnboundedInt is truncated");
+        }
+
+        int[] limbs = new int[Math.min(length, TRANSFER_LIMBS)];
+        ByteBuffer block = ByteBuffer.allocateDirect(4 * Math.min(length, TRANSFER_LIMBS))
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+        for (int offset = 0; offset < length; offset += TRANSFER_LIMBS) {
+            int count = Math.min(TRANSFER_LIMBS, length - offset);
+            if (offset + count > limbs.length) { // only grow once the limbs before have actually been read
+                limbs = Arrays.copyOf(limbs, (int) Math.min(length, 2L * limbs.length));
+            }
+            block.clear().limit(4 * count);
+            readFully(channel, block);
+            block.flip();
+            block.asIntBuffer().get(limbs, offset, count);
+        }
+        checkLimbs(limbs, length);
+        return new UnboundedInt(limbs, length);
+    }
+
+    /**
+     * Method to memory map an unbounded int saved in a file, without copying its limbs onto the heap
+     *
+     * @param channel The file holding the value
+     * @param position The offset in the file of the header of the value
+     *
+     * @return A read only view of the value whose limbs are read from the mapped file
+     *
+     * @throws IOException If the file cannot be mapped
+     * @throws IllegalArgumentException If channel is null or the file does not hold a valid value at position
+     */
+    public static MappedUnboundedInt map(FileChannel channel, long position) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null");
+        }
+        if (channel.size() - position < HEADER_SIZE) {
+            throw new IllegalArgumentException("Serialized UnboundedInt is truncated");
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, position, HEADER_SIZE)
+                                   .order(ByteOrder.LITTLE_ENDIAN);
+        int length = readHeader(header);
+        if (channel.size() - position - HEADER_SIZE < 4L * length) {
+            throw new IllegalArgumentException("Serialized UnboundedInt is truncated");
+        }
+        ByteBuffer limbs = channel.map(FileChannel.MapMode.READ_ONLY, position + HEADER_SIZE, 4L * length)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+        return new MappedUnboundedInt(limbs.asIntBuffer());
+    }
+
+    /**
+     * Method to write the header of a value
+     *
+     * @param out The little endian buffer to write to
+     * @param length The number of limbs of the value
+     */
+    private static void writeHeader(ByteBuffer out, int length) {
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putShort(HEADER_SIZE);
+        out.putInt(UnboundedInt.BASE);
+        out.putInt(length);
+    }
+
+    /**
+     * Method to read and check the header of a value
+     *
+     * @param in The little endian buffer to read from
+     *
+     * @return The number of limbs of the value
+     *
+     * @throws IllegalArgumentException If the header is truncated or does not describe a value this version can read
+     */
+    private static int readHeader(ByteBuffer in) {
+        if (in.remaining() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Serialized UnboundedInt is truncated");
+        }
+        if (in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Data is not a serialized UnboundedInt");
+        }
+        short version = in.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported UnboundedInt format version " + version);
+        }
+        short headerSize = in.getShort();
+        if (headerSize != HEADER_SIZE || in.getInt() != UnboundedInt.BASE) {
+            throw new IllegalArgumentException("Serialized UnboundedInt has an unsupported header");
+        }
+        int length = in.getInt();
+        if (length <= 0) {
+            throw new IllegalArgumentException("Serialized UnboundedInt must have at least one limb");
+        }
+        return length;
+    }
+
+    /**
+     * Method to check that every limb that was read is a valid base 1,000,000,000 digit
+     *
+     * @param limbs The limbs that were read
+     * @param length The number of limbs
+     *
+     * @throws IllegalArgumentException If a limb is negative or too large
+     */
+    static void checkLimbs(int[] limbs, int length) {
+        for (int i = 0; i < length; i++) {
+            if (limbs[i] < 0 || limbs[i] >= UnboundedInt.BASE) {
+                throw new IllegalArgumentException("Serialized UnboundedInt has an invalid limb");
+            }
+        }
+    }
+
+    /**
+     * Method to check that every limb of a buffer is a valid base 1,000,000,000 digit
+     *
+     * @param limbs The limbs to check, from index 0 to the limit
+     *
+     * @throws IllegalArgumentException If a limb is negative or too large
+     */
+    static void checkLimbs(IntBuffer limbs) {
+        for (int i = 0; i < limbs.limit(); i++) {
+            int limb = limbs.get(i);
+            if (limb < 0 || limb >= UnboundedInt.BASE) {
+                throw new IllegalArgumentException("Serialized UnboundedInt has an invalid limb");
+            }
+        }
+    }
+
+    /**
+     * Method to fill a buffer from a channel
+     *
+     * @param channel The channel to read from
+     * @param buffer The buffer to fill up to its limit
+     *
+     * @throws IOException If the channel cannot be read
+     * @throws EOFException If the channel ends before the buffer is full
+     */
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Serialized UnboundedInt is truncated");
+            }
+        }
+    }
+}
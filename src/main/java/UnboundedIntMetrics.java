@@ -0,0 +1,63 @@
+/**
+ * The UnboundedIntMetrics interface receives a record of every addition, multiplication, parse and conversion to a
+ * string done by {@link UnboundedInt}, with how long it took and how large its operands were, along with the limbs and
+ * {@link IntNode}s that were allocated. Implement it to pass the records on to a monitoring system, or use
+ * {@link UnboundedIntStatistics}, which keeps counts and histograms in memory.
+ * <p>
+ * Nothing is recorded until a registry is installed with {@link #install(UnboundedIntMetrics)}. Until then, and again
+ * after install(null), the arithmetic only checks one flag per operation. The same operations are also reported as
+ * UnboundedInt.Operation events to JDK Flight Recorder whenever a recording that enables them is running, whether or
+ * not a registry is installed.
+ * <p>
+ * The methods are called on the thread that did the operation, right after it finishes, so they should be quick and
+ * must be safe to call from several threads at once.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public interface UnboundedIntMetrics {
+
+    /**
+     * The operations that are recorded
+     */
+    enum Operation {
+        ADD, MULTIPLY, PARSE, TO_STRING
+    }
+
+    /**
+     * Method to record one operation
+     *
+     * @param operation The operation
+     * @param nanos How long the operation took, in nanoseconds
+     * @param leftLimbs The number of limbs of the first operand, or of the value parsed or converted to a string
+     * @param rightLimbs The number of limbs of the second operand, 0 for PARSE and TO_STRING
+     * @param resultLimbs The number of limbs allocated for the unbounded int the operation made, 0 for TO_STRING
+     */
+    void recordOperation(Operation operation, long nanos, int leftLimbs, int rightLimbs, int resultLimbs);
+
+    /**
+     * Method to record memory allocated for values
+     *
+     * @param limbs The number of limbs allocated
+     * @param nodes The number of IntNodes allocated
+     */
+    void recordAllocation(long limbs, long nodes);
+
+    /**
+     * Method to start sending records to a registry, replacing the one installed before
+     *
+     * @param metrics The registry, or null to stop recording
+     */
+    static void install(UnboundedIntMetrics metrics) {
+        Instrumentation.install(metrics);
+    }
+
+    /**
+     * Method to get the registry that records are sent to
+     *
+     * @return The installed registry, or null if there is none
+     */
+    static UnboundedIntMetrics installed() {
+        return Instrumentation.installed();
+    }
+}
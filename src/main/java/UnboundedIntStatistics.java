@@ -0,0 +1,208 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The UnboundedIntStatistics class is an {@link UnboundedIntMetrics} registry that keeps its records in memory. For
+ * each operation it counts the calls and their total time, and keeps a histogram of how long they took and one of how
+ * large their operands were. It also totals the limbs and {@link IntNode}s allocated.
+ * <p>
+ * The histograms have a bucket for each power of 2: bucket 0 counts values of 0, and bucket k counts values from
+ * 2^(k-1) to 2^k - 1, so a call that took 1,500 nanoseconds is counted in bucket 11. The size of an operation is the
+ * larger of its operands. The counters are striped so threads recording at the same time do not wait for each other.
+ *
+ * @author Rylan Meilutis
+ * @author Vassily Dudkin
+ */
+public final class UnboundedIntStatistics implements UnboundedIntMetrics {
+    private static final int LATENCY_BUCKETS = Long.SIZE;
+    private static final int SIZE_BUCKETS = Integer.SIZE;
+
+    private final OperationStatistics[] operations = new OperationStatistics[Operation.values().length];
+    private final LongAdder allocatedLimbs = new LongAdder();
+    private final LongAdder allocatedNodes = new LongAdder();
+
+
+    /**
+     * Constructor for the UnboundedIntStatistics class, with every count at 0
+     */
+    public UnboundedIntStatistics() {
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new OperationStatistics();
+        }
+    }
+
+    /**
+     * Method to record one operation
+     *
+     * @param operation The operation
+     * @param nanos How long the operation took, in nanoseconds
+     * @param leftLimbs The number of limbs of the first operand
+     * @param rightLimbs The number of limbs of the second operand
+     * @param resultLimbs The number of limbs of the result
+     */
+    @Override
+    public void recordOperation(Operation operation, long nanos, int leftLimbs, int rightLimbs, int resultLimbs) {
+        OperationStatistics statistics = operations[operation.ordinal()];
+        statistics.count.increment();
+        statistics.totalNanos.add(nanos);
+        statistics.latency[bucketOf(Math.max(nanos, 0))].increment();
+        statistics.sizes[bucketOf(Math.max(leftLimbs, rightLimbs))].increment();
+    }
+
+    /**
+     * Method to record memory allocated for values
+     *
+     * @param limbs The number of limbs allocated
+     * @param nodes The number of IntNodes allocated
+     */
+    @Override
+    public void recordAllocation(long limbs, long nodes) {
+        if (limbs != 0) {
+            allocatedLimbs.add(limbs);
+        }
+        if (nodes != 0) {
+            allocatedNodes.add(nodes);
+        }
+    }
+
+    /**
+     * Method to get the number of times an operation was done
+     *
+     * @param operation The operation
+     *
+     * @return The number of recorded calls
+     */
+    public long getCount(Operation operation) {
+        return operations[operation.ordinal()].count.sum();
+    }
+
+    /**
+     * Method to get the total time spent in an operation
+     *
+     * @param operation The operation
+     *
+     * @return The total time of the recorded calls, in nanoseconds
+     */
+    public long getTotalNanos(Operation operation) {
+        return operations[operation.ordinal()].totalNanos.sum();
+    }
+
+    /**
+     * Method to get the histogram of how long an operation took
+     *
+     * @param operation The operation
+     *
+     * @return A new array of 64 counts, bucket k counting calls that took 2^(k-1) to 2^k - 1 nanoseconds
+     */
+    public long[] getLatencyHistogram(Operation operation) {
+        return sums(operations[operation.ordinal()].latency);
+    }
+
+    /**
+     * Method to get the histogram of how large the operands of an operation were
+     *
+     * @param operation The operation
+     *
+     * @return A new array of 32 counts, bucket k counting calls whose larger operand had 2^(k-1) to 2^k - 1 limbs
+     */
+    public long[] getOperandSizeHistogram(Operation operation) {
+        return sums(operations[operation.ordinal()].sizes);
+    }
+
+    /**
+     * Method to get the total number of limbs allocated for results
+     *
+     * @return The number of limbs
+     */
+    public long getAllocatedLimbs() {
+        return allocatedLimbs.sum();
+    }
+
+    /**
+     * Method to get the total number of IntNodes allocated
+     *
+     * @return The number of IntNodes
+     */
+    public long getAllocatedNodes() {
+        return allocatedNodes.sum();
+    }
+
+    /**
+     * Method to set every count back to 0. Records made while the counts are being reset may be partly kept.
+     */
+    public void reset() {
+        for (OperationStatistics statistics : operations) {
+            statistics.count.reset();
+            statistics.totalNanos.reset();
+            for (LongAdder bucket : statistics.latency) {
+                bucket.reset();
+            }
+            for (LongAdder bucket : statistics.sizes) {
+                bucket.reset();
+            }
+        }
+        allocatedLimbs.reset();
+        allocatedNodes.reset();
+    }
+
+    /**
+     * Outputs the count, total time and mean time of every operation
+     *
+     * @return One line for each operation, followed by the allocation totals
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Operation operation : Operation.values()) {
+            long count = getCount(operation);
+            long nanos = getTotalNanos(operation);
+            out.append(String.format("%-9s count=%d total=%.3fms mean=%dns%n", operation, count, nanos / 1e6,
+                                     count == 0 ? 0 : nanos / count));
+        }
+        return out.append("allocated limbs=").append(getAllocatedLimbs()).append(" nodes=")
+                  .append(getAllocatedNodes()).toString();
+    }
+
+    /**
+     * Method to find the histogram bucket of a value
+     *
+     * @param value The value, not negative
+     *
+     * @return 0 for 0, otherwise the number of bits needed to write value
+     */
+    static int bucketOf(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Method to read a histogram
+     *
+     * @param buckets The counters of the histogram
+     *
+     * @return A new array holding the count of each bucket
+     */
+    private static long[] sums(LongAdder[] buckets) {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * The counters of one operation
+     */
+    private static final class OperationStatistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] latency = adders(LATENCY_BUCKETS);
+        private final LongAdder[] sizes = adders(SIZE_BUCKETS);
+
+        private static LongAdder[] adders(int count) {
+            LongAdder[] adders = new LongAdder[count];
+            for (int i = 0; i < count; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
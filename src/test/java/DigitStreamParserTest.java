@@ -0,0 +1,96 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DigitStreamParserTest {
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static UnboundedInt parseInPieces(String text, int pieceSize) {
+        DigitStreamParser parser = new DigitStreamParser(0);
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < bytes.length; i += pieceSize) {
+            parser.accept(ByteBuffer.wrap(bytes, i, Math.min(pieceSize, bytes.length - i)));
+        }
+        return parser.finish();
+    }
+
+    @Test
+    void fromInputStreamMatchesStringConstructor() throws IOException {
+        Random random = new Random(23);
+        for (int i = 0; i < 50; i++) {
+            String digits = new BigInteger(1 + random.nextInt(2000), random).toString();
+            assertEquals(new UnboundedInt(digits), UnboundedInt.fromInputStream(stream(digits)));
+        }
+    }
+
+    @Test
+    void digitsSplitAcrossBuffers() {
+        String digits = "12345678901234567890123456789";
+        for (int pieceSize = 1; pieceSize <= 10; pieceSize++) {
+            assertEquals(new UnboundedInt(digits), parseInPieces(digits, pieceSize));
+        }
+    }
+
+    @Test
+    void exactMultipleOfNineDigits() throws IOException {
+        String digits = "123456789987654321";
+        assertEquals("123,456,789,987,654,321", UnboundedInt.fromInputStream(stream(digits)).toString());
+    }
+
+    @Test
+    void leadingZerosAndZero() throws IOException {
+        assertEquals(new UnboundedInt(), UnboundedInt.fromInputStream(stream("0000000000000")));
+        assertEquals(new UnboundedInt("42"), UnboundedInt.fromInputStream(stream("00000000000042")));
+    }
+
+    @Test
+    void trailingWhitespaceIsAllowed() throws IOException {
+        assertEquals(new UnboundedInt("1234"), UnboundedInt.fromInputStream(stream("1234\r\n")));
+    }
+
+    @Test
+    void invalidInputs() {
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.fromInputStream(stream("")));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.fromInputStream(stream("-")));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.fromInputStream(stream("12 34")));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.fromInputStream(stream(" 1234")));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.fromInputStream(stream("12a4")));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                                  () -> UnboundedInt.fromInputStream(stream("-1234")));
+        assertEquals("UnboundedInt must be a positive number", e.getMessage());
+    }
+
+    @Test
+    void fromChannelAndFile(@TempDir Path directory) throws IOException {
+        String digits = "9876543210".repeat(10000) + "7";
+        Path file = directory.resolve("number.txt");
+        Files.writeString(file, digits + "\n", StandardCharsets.US_ASCII);
+        UnboundedInt expected = new UnboundedInt(digits);
+
+        assertEquals(expected, UnboundedInt.fromFile(file));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(expected, UnboundedInt.fromChannel(channel));
+            assertEquals(new UnboundedInt("76543"), UnboundedInt.fromMappedFile(channel, 2, 5));
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            assertEquals(expected, UnboundedInt.fromChannel(Channels.newChannel(in)));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LargeNumberBatchTest {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String input, String... args) {
+        InputStream in = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+        return LargeNumberBatch.run(args, in, new PrintStream(out, true, StandardCharsets.UTF_8),
+                                    new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private String output() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void resultsAreInInputOrder() {
+        Random random = new Random(101);
+        StringBuilder input = new StringBuilder("# a comment\n\n");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            // large and small records mixed, so later records often finish first
+            BigInteger a = new BigInteger(i % 7 == 0 ? 20000 : 50, random);
+            BigInteger b = new BigInteger(1 + random.nextInt(2000), random).add(BigInteger.ONE);
+            switch (i % 4) {
+                case 0 -> {
+                    input.append("add ").append(a).append(' ').append(b).append('\n');
+                    expected.append(a.add(b)).append('\n');
+                }
+                case 1 -> {
+                    input.append("MULTIPLY ").append(a).append('\t').append(b).append('\n');
+                    expected.append(a.multiply(b)).append('\n');
+                }
+                case 2 -> {
+                    input.append("divide ").append(a).append(' ').append(b).append('\n');
+                    expected.append(a.divide(b)).append('\n');
+                }
+                default -> {
+                    input.append("mod ").append(a).append(' ').append(b).append('\n');
+                    expected.append(a.mod(b)).append('\n');
+                }
+            }
+        }
+        assertEquals(0, run(input.toString(), "--threads", "4", "--queue", "3"));
+        assertEquals(expected.toString(), output());
+        assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("records=500 errors=0 threads=4"));
+    }
+
+    @Test
+    void badRecordsGiveErrorLines() {
+        String input = "equals 12 12\nequals 12 13\nsubtract 1 2\nadd 1\nadd 1,000 2\ndivide 5 0\nadd 2 3\n";
+        assertEquals(1, run(input, "--threads", "2"));
+        String[] lines = output().split("\n");
+        assertEquals(7, lines.length);
+        assertEquals("true", lines[0]);
+        assertEquals("false", lines[1]);
+        assertEquals("error: line 3: Unknown operation subtract", lines[2]);
+        assertEquals("error: line 4: Expected an operation and two numbers", lines[3]);
+        assertTrue(lines[4].startsWith("error: line 5: "));
+        assertEquals("error: line 6: Divisor cannot be 0", lines[5]);
+        assertEquals("5", lines[6]);
+        assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("records=7 errors=4"));
+    }
+
+    @Test
+    void readsFilesAndStandardInput(@TempDir Path directory) throws IOException {
+        Path first = directory.resolve("first.txt");
+        Files.writeString(first, "add 1 2\nmultiply 3 4\n");
+        String missing = directory.resolve("missing.txt").toString();
+        assertEquals(1, run("add 10 20\n", first.toString(), "-", missing, first.toString()));
+        assertEquals("3\n12\n30\n3\n12\n", output());
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("cannot read " + missing));
+    }
+
+    @Test
+    void invalidPathDoesNotStopTheRun() {
+        int status = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> run("add 10 20\n", "bad\0name", "-"));
+        assertEquals(1, status);
+        assertEquals("30\n", output());
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("cannot read bad\0name"));
+    }
+
+    @Test
+    void invalidOptions() {
+        assertEquals(2, run("", "--threads"));
+        assertEquals(2, run("", "--queue", "0"));
+        assertEquals(2, run("", "--threads", "many"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Usage: LargeNumberTest --batch"));
+        assertEquals("", output());
+    }
+}
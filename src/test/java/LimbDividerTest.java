@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimbDividerTest {
+    private final int burnikelZieglerThreshold = LimbDivider.getBurnikelZieglerThreshold();
+
+    @AfterEach
+    void restoreThreshold() {
+        LimbDivider.setBurnikelZieglerThreshold(burnikelZieglerThreshold);
+    }
+
+    private static void assertDivisionsMatchBigInteger(int maxDividendBits, int maxDivisorBits, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < 60; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(maxDividendBits), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(maxDivisorBits), random).add(BigInteger.ONE);
+            UnboundedInt[] qr = new UnboundedInt(a.toString()).divideAndRemainder(new UnboundedInt(b.toString()));
+            BigInteger[] expected = a.divideAndRemainder(b);
+            assertEquals(expected[0].toString(), qr[0].toString(false), a + " / " + b);
+            assertEquals(expected[1].toString(), qr[1].toString(false), a + " % " + b);
+        }
+    }
+
+    @Test
+    void singleLimbDivisorsMatchBigInteger() {
+        assertDivisionsMatchBigInteger(3000, 29, 1);
+    }
+
+    @Test
+    void schoolbookMatchesBigInteger() {
+        LimbDivider.setBurnikelZieglerThreshold(Integer.MAX_VALUE);
+        assertDivisionsMatchBigInteger(4000, 2000, 2);
+    }
+
+    @Test
+    void burnikelZieglerMatchesBigInteger() {
+        LimbDivider.setBurnikelZieglerThreshold(4);
+        assertDivisionsMatchBigInteger(8000, 3000, 3);
+        assertDivisionsMatchBigInteger(20000, 600, 4);
+    }
+
+    @Test
+    void burnikelZieglerAtTheMinimumThreshold() {
+        LimbDivider.setBurnikelZieglerThreshold(0);
+        assertEquals(LimbDivider.MIN_BURNIKEL_ZIEGLER_THRESHOLD, LimbDivider.getBurnikelZieglerThreshold());
+        for (long seed = 5; seed < 15; seed++) {
+            assertDivisionsMatchBigInteger(6000, 3000, seed);
+        }
+    }
+
+    @Test
+    void divideWithAllNinesLimbs() {
+        LimbDivider.setBurnikelZieglerThreshold(4);
+        BigInteger a = new BigInteger("9".repeat(900));
+        BigInteger b = new BigInteger("9".repeat(300));
+        UnboundedInt[] qr = new UnboundedInt(a.toString()).divideAndRemainder(new UnboundedInt(b.toString()));
+        assertEquals(a.divide(b).toString(), qr[0].toString(false));
+        assertEquals("0", qr[1].toString(false));
+    }
+
+    @Test
+    void divideByLargerDivisor() {
+        UnboundedInt small = new UnboundedInt("123456789123456789");
+        UnboundedInt large = new UnboundedInt("987654321987654321987654321");
+        assertEquals("0", small.divide(large).toString());
+        assertEquals(small, small.mod(large));
+    }
+
+    @Test
+    void divideByZeroOrNull() {
+        UnboundedInt value = new UnboundedInt("1000");
+        assertThrows(IllegalArgumentException.class, () -> value.divide(new UnboundedInt()));
+        assertThrows(IllegalArgumentException.class, () -> value.mod(new UnboundedInt("0")));
+        assertThrows(IllegalArgumentException.class, () -> value.divideAndRemainder(null));
+    }
+
+    @Test
+    void productPlusRemainderRestoresDividend() {
+        LimbDivider.setBurnikelZieglerThreshold(6);
+        UnboundedInt a = new UnboundedInt("31415926535897932384626433832795028841971".repeat(40));
+        UnboundedInt b = new UnboundedInt("27182818284590452353602874713527".repeat(12));
+        UnboundedInt[] qr = a.divideAndRemainder(b);
+        assertEquals(a, qr[0].multiply(b).add(qr[1]));
+    }
+}
@@ -0,0 +1,147 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimbMultiplierTest {
+    private final int karatsubaThreshold = LimbMultiplier.getKaratsubaThreshold();
+    private final int toomCookThreshold = LimbMultiplier.getToomCookThreshold();
+    private final int parallelThreshold = ParallelArithmetic.getThreshold();
+
+    @AfterEach
+    void restoreThresholds() {
+        LimbMultiplier.setThresholds(karatsubaThreshold, toomCookThreshold);
+        ParallelArithmetic.setThreshold(parallelThreshold);
+    }
+
+    private static void assertProductsMatchBigInteger(int maxBits) {
+        Random random = new Random(7);
+        for (int i = 0; i < 40; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(maxBits), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(maxBits), random);
+            UnboundedInt product = new UnboundedInt(a.toString()).multiply(new UnboundedInt(b.toString()));
+            assertEquals(a.multiply(b).toString(), product.toString().replace(",", ""));
+        }
+    }
+
+    @Test
+    void karatsubaMatchesBigInteger() {
+        LimbMultiplier.setThresholds(4, Integer.MAX_VALUE);
+        assertProductsMatchBigInteger(4000);
+    }
+
+    @Test
+    void toomCook3MatchesBigInteger() {
+        LimbMultiplier.setThresholds(4, 9);
+        assertProductsMatchBigInteger(6000);
+    }
+
+    @Test
+    void multiplyWithAllNinesLimbs() {
+        LimbMultiplier.setThresholds(4, 9);
+        UnboundedInt nines = new UnboundedInt("9".repeat(500));
+        BigInteger expected = new BigInteger("9".repeat(500)).pow(2);
+        assertEquals(expected.toString(), nines.multiply(nines).toString().replace(",", ""));
+    }
+
+    @Test
+    void multiplyUnbalancedOperands() {
+        LimbMultiplier.setThresholds(4, 9);
+        BigInteger a = new BigInteger("7".repeat(2000));
+        BigInteger b = new BigInteger("3".repeat(60));
+        UnboundedInt product = new UnboundedInt(a.toString()).multiply(new UnboundedInt(b.toString()));
+        assertEquals(a.multiply(b).toString(), product.toString().replace(",", ""));
+    }
+
+    @Test
+    void multiplyByZero() {
+        LimbMultiplier.setThresholds(4, 9);
+        UnboundedInt large = new UnboundedInt("12345678901234567890".repeat(20));
+        assertEquals("0", large.multiply(new UnboundedInt()).toString());
+    }
+
+    @Test
+    void thresholdsAreClampedToTheirMinimums() {
+        LimbMultiplier.setThresholds(1, 2);
+        assertEquals(LimbMultiplier.MIN_KARATSUBA_THRESHOLD, LimbMultiplier.getKaratsubaThreshold());
+        assertEquals(LimbMultiplier.MIN_TOOM_COOK_THRESHOLD, LimbMultiplier.getToomCookThreshold());
+    }
+
+    @Test
+    void parallelMultiplyMatchesSequential() {
+        LimbMultiplier.setThresholds(4, 9);
+        ParallelArithmetic.setThreshold(8);
+        Random random = new Random(5);
+        for (int i = 0; i < 20; i++) {
+            UnboundedInt a = new UnboundedInt(new BigInteger(1 + random.nextInt(20000), random).toString());
+            UnboundedInt b = new UnboundedInt(new BigInteger(1 + random.nextInt(20000), random).toString());
+            assertEquals(a.multiply(b), a.parallelMultiply(b));
+        }
+    }
+
+    @Test
+    void parallelMultiplyWithNullUnboundedInt() {
+        UnboundedInt unboundedInt = new UnboundedInt("123456");
+        assertThrows(IllegalArgumentException.class, () -> unboundedInt.parallelMultiply(null));
+    }
+
+    private static void assertSquaresMatchBigInteger(int maxBits) {
+        Random random = new Random(9);
+        for (int i = 0; i < 40; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(maxBits), random);
+            assertEquals(a.multiply(a).toString(), new UnboundedInt(a.toString()).square().toString(false));
+        }
+    }
+
+    @Test
+    void schoolbookSquareMatchesBigInteger() {
+        LimbMultiplier.setThresholds(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertSquaresMatchBigInteger(4000);
+    }
+
+    @Test
+    void karatsubaSquareMatchesBigInteger() {
+        LimbMultiplier.setThresholds(4, Integer.MAX_VALUE);
+        assertSquaresMatchBigInteger(4000);
+    }
+
+    @Test
+    void toomCook3SquareMatchesBigInteger() {
+        LimbMultiplier.setThresholds(4, 9);
+        assertSquaresMatchBigInteger(6000);
+        UnboundedInt nines = new UnboundedInt("9".repeat(700));
+        assertEquals(nines.multiply(new UnboundedInt("9".repeat(700))), nines.square());
+    }
+
+    private static int[] randomLimbs(Random random, int length) {
+        int[] limbs = new int[length];
+        for (int i = 0; i < length; i++) {
+            limbs[i] = random.nextInt(UnboundedInt.BASE);
+        }
+        return limbs;
+    }
+
+    @Test
+    void midSizeMultiplyAllocatesOnlyTheProduct() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Random random = new Random(3);
+        for (int[] sizes : new int[][]{{120, 100}, {220, 180}, {400, 100}}) { // Karatsuba, Toom-Cook-3, unbalanced
+            int[] a = randomLimbs(random, sizes[0]);
+            int[] b = randomLimbs(random, sizes[1]);
+            long results = (long) Integer.BYTES * (3 * a.length + b.length); // the product and the square of a
+            long allocated = Long.MAX_VALUE;
+            // the vectors of the limb additions are only kept off the heap once the JIT compiles them
+            for (int run = 0; run < 20_000 && allocated >= results + 256; run++) {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                LimbMultiplier.multiply(a, a.length, b, b.length);
+                LimbMultiplier.square(a, a.length);
+                allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            }
+            assertTrue(allocated < results + 256, allocated + " bytes allocated for " + results + " bytes of results");
+        }
+    }
+}
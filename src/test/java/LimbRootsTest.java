@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimbRootsTest {
+
+    @Test
+    void sqrtMatchesBigInteger() {
+        Random random = new Random(31);
+        for (int i = 0; i < 60; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(6000), random);
+            UnboundedInt[] rootAndRemainder = new UnboundedInt(a.toString()).sqrtAndRemainder();
+            BigInteger[] expected = a.sqrtAndRemainder();
+            assertEquals(expected[0].toString(), rootAndRemainder[0].toString(false));
+            assertEquals(expected[1].toString(), rootAndRemainder[1].toString(false));
+        }
+    }
+
+    @Test
+    void sqrtOfPerfectSquaresAndNeighbours() {
+        Random random = new Random(32);
+        for (int i = 0; i < 20; i++) {
+            BigInteger root = new BigInteger(1 + random.nextInt(3000), random).add(BigInteger.ONE);
+            BigInteger square = root.multiply(root);
+            assertEquals("0", new UnboundedInt(square.toString()).sqrtAndRemainder()[1].toString());
+            assertEquals(root.subtract(BigInteger.ONE).toString(),
+                         new UnboundedInt(square.subtract(BigInteger.ONE).toString()).sqrt().toString(false));
+        }
+    }
+
+    @Test
+    void nthRootMatchesBigInteger() {
+        Random random = new Random(33);
+        for (int k = 3; k <= 12; k++) {
+            for (int i = 0; i < 10; i++) {
+                BigInteger root = new BigInteger(1 + random.nextInt(800), random);
+                BigInteger a = root.pow(k).add(new BigInteger(1 + random.nextInt(800), random));
+                UnboundedInt result = new UnboundedInt(a.toString()).nthRoot(k);
+                BigInteger expected = new BigInteger(result.toString(false));
+                assertTrue(expected.pow(k).compareTo(a) <= 0, "root too large for k = " + k);
+                assertTrue(expected.add(BigInteger.ONE).pow(k).compareTo(a) > 0, "root too small for k = " + k);
+            }
+        }
+    }
+
+    @Test
+    void rootsOfSmallNumbers() {
+        assertEquals("0", new UnboundedInt().sqrt().toString());
+        assertEquals("1", new UnboundedInt("3").sqrt().toString());
+        assertEquals("2", new UnboundedInt("4").sqrt().toString());
+        assertEquals("999,999,999", new UnboundedInt("999999999999999999").sqrt().toString());
+        assertEquals("10", new UnboundedInt("1000").nthRoot(3).toString());
+        assertEquals("1", new UnboundedInt("12345678901234567890").nthRoot(1000).toString());
+        assertEquals("12,345", new UnboundedInt("12345").nthRoot(1).toString());
+    }
+
+    @Test
+    void rootOfOneIsNotShared() {
+        // the root of a one limb number is 1 for k from 36 up, and is changed before later roots are taken
+        UnboundedInt root = new UnboundedInt("12345").nthRoot(40);
+        root.addEnd(5);
+        assertEquals("5,001", root.toString());
+        assertEquals("1", new UnboundedInt("12345").nthRoot(40).toString());
+        assertEquals("999,999,999", new UnboundedInt("999999999999999999").sqrt().toString());
+        BigInteger value = new BigInteger("123456789".repeat(20));
+        assertEquals(value.sqrt().toString(), new UnboundedInt(value.toString()).sqrt().toString(false));
+        assertEquals("12", new UnboundedInt("2000").nthRoot(3).toString());
+    }
+
+    @Test
+    void nthRootWithInvalidK() {
+        assertThrows(IllegalArgumentException.class, () -> new UnboundedInt("8").nthRoot(0));
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class LimbVectorsTest {
+    private static final int BASE = UnboundedInt.BASE;
+
+    /**
+     * Limbs that are mostly BASE - 1 or 0, so carries run across many lanes and vectors
+     */
+    private static int[] carryHeavyLimbs(Random random, int length) {
+        int[] limbs = new int[length];
+        for (int i = 0; i < length; i++) {
+            int kind = random.nextInt(4);
+            limbs[i] = kind == 0 ? random.nextInt(BASE) : kind == 1 ? 0 : BASE - 1;
+        }
+        return limbs;
+    }
+
+    private static int scalarAdd(int[] a, int aOffset, int[] b, int bOffset, int[] sum, int sumOffset, int count,
+                                 int carry) {
+        for (int i = 0; i < count; i++) {
+            int value = a[aOffset + i] + b[bOffset + i] + carry;
+            carry = value >= BASE ? 1 : 0;
+            sum[sumOffset + i] = value - carry * BASE;
+        }
+        return carry;
+    }
+
+    @Test
+    void vectorAddMatchesScalarAdd() {
+        assumeTrue(LimbVectors.isEnabled(), "the Vector API is not available");
+        Random random = new Random(61);
+        for (int round = 0; round < 500; round++) {
+            int count = random.nextInt(200);
+            int[] a = carryHeavyLimbs(random, count + 5);
+            int[] b = carryHeavyLimbs(random, count + 7);
+            int carry = random.nextInt(2);
+            int[] expected = new int[count + 3];
+            int[] actual = new int[count + 3];
+            int expectedCarry = scalarAdd(a, 5, b, 7, expected, 3, count, carry);
+            int actualCarry = LimbVectors.add(a, 5, b, 7, actual, 3, count, carry);
+            assertEquals(expectedCarry, actualCarry);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void vectorAddInPlace() {
+        assumeTrue(LimbVectors.isEnabled(), "the Vector API is not available");
+        Random random = new Random(62);
+        int[] a = carryHeavyLimbs(random, 1000);
+        int[] b = carryHeavyLimbs(random, 1000);
+        int[] expected = new int[1000];
+        int expectedCarry = scalarAdd(a, 0, b, 0, expected, 0, 1000, 1);
+        assertEquals(expectedCarry, LimbVectors.add(a, 0, b, 0, a, 0, 1000, 1));
+        assertArrayEquals(expected, a);
+    }
+
+    @Test
+    void vectorCompareMatchesScalarCompare() {
+        assumeTrue(LimbVectors.isEnabled(), "the Vector API is not available");
+        Random random = new Random(63);
+        for (int round = 0; round < 500; round++) {
+            int length = 1 + random.nextInt(200);
+            int[] a = carryHeavyLimbs(random, length);
+            int[] b = a.clone();
+            if (random.nextInt(4) != 0) {
+                b[random.nextInt(length)] = random.nextInt(BASE);
+            }
+            int expected = Arrays.compare(reversed(a), reversed(b));
+            assertEquals(Integer.signum(expected), Integer.signum(LimbVectors.compare(a, b, length)));
+        }
+    }
+
+    private static int[] reversed(int[] limbs) {
+        int[] reversed = new int[limbs.length];
+        for (int i = 0; i < limbs.length; i++) {
+            reversed[i] = limbs[limbs.length - 1 - i];
+        }
+        return reversed;
+    }
+
+    @Test
+    void longCarryChainsThroughAdd() {
+        // 10^k - 1 plus 1 carries through every limb, whichever path add takes
+        for (int digits : new int[]{9, 90, 900, 9000}) {
+            BigInteger nines = BigInteger.TEN.pow(digits).subtract(BigInteger.ONE);
+            UnboundedInt sum = new UnboundedInt(nines.toString()).add(new UnboundedInt("1"));
+            assertEquals(BigInteger.TEN.pow(digits).toString(), sum.toString(false));
+            UnboundedInt doubled = new UnboundedInt(nines.toString()).add(new UnboundedInt(nines.toString()));
+            assertEquals(nines.shiftLeft(1).toString(), doubled.toString(false));
+        }
+    }
+
+    @Test
+    void addMatchesBigInteger() {
+        Random random = new Random(64);
+        for (int i = 0; i < 200; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(5000), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(5000), random);
+            UnboundedInt x = new UnboundedInt(a.toString());
+            UnboundedInt y = new UnboundedInt(b.toString());
+            assertEquals(a.add(b).toString(), x.add(y).toString(false));
+            int[] xMagnitude = LimbMultiplier.trim(x.getLimbs().clone());
+            int[] yMagnitude = LimbMultiplier.trim(y.getLimbs().clone());
+            assertEquals(Integer.signum(a.compareTo(b)),
+                         Integer.signum(LimbMultiplier.compareMagnitudes(xMagnitude, yMagnitude)));
+        }
+    }
+}
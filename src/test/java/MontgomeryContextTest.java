@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MontgomeryContextTest {
+
+    private static void assertModPowsMatchBigInteger(BigInteger modulus, int maxBits, Random random) {
+        MontgomeryContext context = new MontgomeryContext(new UnboundedInt(modulus.toString()));
+        for (int i = 0; i < 8; i++) {
+            BigInteger base = new BigInteger(1 + random.nextInt(maxBits), random);
+            BigInteger exponent = new BigInteger(1 + random.nextInt(maxBits), random);
+            UnboundedInt result = context.modPow(new UnboundedInt(base.toString()),
+                                                 new UnboundedInt(exponent.toString()));
+            assertEquals(base.modPow(exponent, modulus).toString(), result.toString(false));
+        }
+    }
+
+    @Test
+    void oddModuliMatchBigInteger() {
+        Random random = new Random(11);
+        for (int bits : new int[]{20, 100, 512, 2048}) {
+            BigInteger modulus = new BigInteger(bits, random).setBit(bits - 1).setBit(0);
+            if (modulus.mod(BigInteger.valueOf(5)).signum() == 0) {
+                modulus = modulus.add(BigInteger.TWO);
+            }
+            assertModPowsMatchBigInteger(modulus, bits + 64, random);
+        }
+    }
+
+    @Test
+    void moduliSharingAFactorWithTheBaseMatchBigInteger() {
+        Random random = new Random(12);
+        assertModPowsMatchBigInteger(new BigInteger(300, random).shiftLeft(3), 400, random);
+        assertModPowsMatchBigInteger(new BigInteger(300, random).multiply(BigInteger.valueOf(125)), 400, random);
+        assertModPowsMatchBigInteger(BigInteger.TEN.pow(40), 200, random);
+        assertModPowsMatchBigInteger(BigInteger.valueOf(999999998), 100, random); // a single limb
+        // above the Karatsuba threshold, and reusing the buffers of the same thread for every exponentiation
+        assertModPowsMatchBigInteger(new BigInteger(3000, random).setBit(2999).shiftLeft(1), 3000, random);
+    }
+
+    @Test
+    void edgeCases() {
+        UnboundedInt seven = new UnboundedInt("7");
+        assertEquals("1", seven.modPow(new UnboundedInt(), new UnboundedInt("13")).toString());
+        assertEquals("0", seven.modPow(new UnboundedInt("5"), new UnboundedInt("1")).toString());
+        assertEquals("0", new UnboundedInt().modPow(new UnboundedInt("5"), new UnboundedInt("13")).toString());
+        assertEquals("1", new UnboundedInt().modPow(new UnboundedInt(), new UnboundedInt("13")).toString());
+        assertThrows(IllegalArgumentException.class, () -> seven.modPow(seven, new UnboundedInt()));
+        assertThrows(IllegalArgumentException.class, () -> seven.modPow(null, seven));
+        assertThrows(IllegalArgumentException.class, () -> seven.modPow(seven, null));
+    }
+
+    @Test
+    void contextIsSharedBetweenThreads() throws Exception {
+        Random random = new Random(13);
+        BigInteger modulus = BigInteger.probablePrime(1024, random);
+        MontgomeryContext context = new MontgomeryContext(new UnboundedInt(modulus.toString()));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> checks = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                BigInteger base = new BigInteger(1024, random);
+                BigInteger exponent = new BigInteger(1024, random);
+                checks.add(executor.submit(() -> {
+                    UnboundedInt result = context.modPow(new UnboundedInt(base.toString()),
+                                                         new UnboundedInt(exponent.toString()));
+                    return base.modPow(exponent, modulus).toString().equals(result.toString(false));
+                }));
+            }
+            for (Future<Boolean> check : checks) {
+                assertTrue(check.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+}
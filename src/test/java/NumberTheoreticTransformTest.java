@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumberTheoreticTransformTest {
+    private final int nttThreshold = LimbMultiplier.getNttThreshold();
+    private final int parallelThreshold = ParallelArithmetic.getThreshold();
+
+    @AfterEach
+    void restoreThresholds() {
+        LimbMultiplier.setNttThreshold(nttThreshold);
+        ParallelArithmetic.setThreshold(parallelThreshold);
+    }
+
+    @Test
+    void multiplyMatchesBigInteger() {
+        LimbMultiplier.setNttThreshold(1);
+        Random random = new Random(11);
+        for (int i = 0; i < 30; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(20000), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(20000), random);
+            UnboundedInt product = new UnboundedInt(a.toString()).multiply(new UnboundedInt(b.toString()));
+            assertEquals(a.multiply(b).toString(), product.toString().replace(",", ""));
+        }
+    }
+
+    @Test
+    void squareMatchesBigInteger() {
+        LimbMultiplier.setNttThreshold(1);
+        BigInteger a = new BigInteger(30000, new Random(3));
+        UnboundedInt x = new UnboundedInt(a.toString());
+        assertEquals(a.multiply(a).toString(), x.multiply(x).toString().replace(",", ""));
+    }
+
+    @Test
+    void largestCoefficientsDoNotOverflow() {
+        // all limbs at BASE - 1 make every coefficient of the convolution as large as it can be
+        int[] nines = new int[5000];
+        Arrays.fill(nines, UnboundedInt.BASE - 1);
+        int[] expected = new int[10000];
+        LimbMultiplier.schoolbook(nines, nines.length, nines, nines.length, expected);
+        assertArrayEquals(expected, NumberTheoreticTransform.square(nines));
+    }
+
+    @Test
+    void transformSizeIsPowerOfTwo() {
+        assertEquals(2, NumberTheoreticTransform.transformSize(1));
+        assertEquals(8, NumberTheoreticTransform.transformSize(8));
+        assertEquals(16, NumberTheoreticTransform.transformSize(9));
+    }
+
+    @Test
+    void inverseTransformUndoesForwardTransform() {
+        int[] values = {1, 2, 3, 4, 5, 6, 7, 8};
+        int[] transformed = values.clone();
+        NumberTheoreticTransform.transform(transformed, 0, false);
+        NumberTheoreticTransform.transform(transformed, 0, true);
+        assertArrayEquals(values, transformed);
+    }
+
+    @Test
+    void parallelTransformMatchesSequential() {
+        LimbMultiplier.setNttThreshold(1);
+        ParallelArithmetic.setThreshold(1);
+        Random random = new Random(13);
+        // large enough that the butterflies and the carry propagation are split into several pieces
+        UnboundedInt a = new UnboundedInt(new BigInteger(600000, random).toString());
+        UnboundedInt b = new UnboundedInt(new BigInteger(500000, random).toString());
+        assertEquals(a.multiply(b), a.parallelMultiply(b));
+        assertEquals(a.multiply(a), a.parallelMultiply(a));
+    }
+}
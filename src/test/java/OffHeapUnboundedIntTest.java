@@ -0,0 +1,181 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapUnboundedIntTest {
+    private final int offHeapThreshold = OffHeapUnboundedInt.getOffHeapThreshold();
+    private final int multiplyChunk = OffHeapUnboundedInt.getMultiplyChunk();
+
+    @AfterEach
+    void restoreThreshold() {
+        OffHeapUnboundedInt.setOffHeapThreshold(offHeapThreshold);
+        OffHeapUnboundedInt.setMultiplyChunk(multiplyChunk);
+    }
+
+    @Test
+    void arithmeticMatchesBigInteger() {
+        OffHeapUnboundedInt.setOffHeapThreshold(8);
+        Random random = new Random(51);
+        try (LimbArena arena = new LimbArena()) {
+            for (int i = 0; i < 40; i++) {
+                BigInteger a = new BigInteger(1 + random.nextInt(3000), random);
+                BigInteger b = new BigInteger(1 + random.nextInt(3000), random);
+                long factor = random.nextLong() >>> 1;
+                OffHeapUnboundedInt x = OffHeapUnboundedInt.of(new UnboundedInt(a.toString()), arena);
+                OffHeapUnboundedInt y = OffHeapUnboundedInt.of(new UnboundedInt(b.toString()), arena);
+                assertEquals(a.add(b).toString(), x.add(y).toUnboundedInt().toString(false));
+                assertEquals(a.multiply(b).toString(), x.multiply(y).toUnboundedInt().toString(false));
+                assertEquals(a.multiply(a).toString(), x.multiply(x).toUnboundedInt().toString(false));
+                assertEquals(a.multiply(BigInteger.valueOf(factor)).toString(),
+                             x.multiply(factor).toUnboundedInt().toString(false));
+                assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(x.compareTo(y)));
+            }
+        }
+    }
+
+    @Test
+    void smallResultsStayOnHeap() {
+        OffHeapUnboundedInt.setOffHeapThreshold(4);
+        try (LimbArena arena = new LimbArena()) {
+            OffHeapUnboundedInt small = OffHeapUnboundedInt.of(new UnboundedInt("999999999999999999"), arena);
+            assertFalse(small.isOffHeap());
+            assertEquals(0, arena.getOffHeapCount());
+            OffHeapUnboundedInt large = small.multiply(small);
+            assertTrue(large.isOffHeap());
+            assertEquals(1, arena.getOffHeapCount());
+            assertEquals(16, arena.getAllocatedBytes());
+            assertEquals(new UnboundedInt("999999999999999999").square(), large.toUnboundedInt());
+            assertEquals(large.toUnboundedInt().hashCode(), large.hashCode());
+        }
+    }
+
+    @Test
+    void thresholdAppliesToTheNormalizedLength() {
+        OffHeapUnboundedInt.setOffHeapThreshold(3);
+        try (LimbArena arena = new LimbArena()) {
+            OffHeapUnboundedInt five = OffHeapUnboundedInt.of(new UnboundedInt("5"), arena);
+            OffHeapUnboundedInt billion = OffHeapUnboundedInt.of(new UnboundedInt("1000000000"), arena);
+            OffHeapUnboundedInt product = five.multiply(billion);
+            OffHeapUnboundedInt sum = billion.add(five);
+            OffHeapUnboundedInt scaled = billion.multiply(5);
+            assertFalse(product.isOffHeap());
+            assertFalse(sum.isOffHeap());
+            assertFalse(scaled.isOffHeap());
+            assertEquals(0, arena.getOffHeapCount());
+            assertEquals(0, arena.getAllocatedBytes());
+            assertEquals("5,000,000,000", product.toString());
+            assertEquals("1,000,000,005", sum.toString());
+            assertEquals(product, scaled);
+        }
+    }
+
+    @Test
+    void chunkedMultiplyMatchesBigInteger() {
+        OffHeapUnboundedInt.setOffHeapThreshold(8);
+        OffHeapUnboundedInt.setMultiplyChunk(7);
+        Random random = new Random(53);
+        try (LimbArena arena = new LimbArena()) {
+            for (int i = 0; i < 20; i++) {
+                BigInteger a = new BigInteger(1 + random.nextInt(2000), random);
+                BigInteger b = new BigInteger(1 + random.nextInt(2000), random);
+                OffHeapUnboundedInt x = OffHeapUnboundedInt.of(new UnboundedInt(a.toString()), arena);
+                OffHeapUnboundedInt y = OffHeapUnboundedInt.of(new UnboundedInt(b.toString()), arena);
+                assertEquals(a.multiply(b).toString(), x.multiply(y).toUnboundedInt().toString(false));
+                assertEquals(a.multiply(a).toString(), x.multiply(x).toUnboundedInt().toString(false));
+            }
+            OffHeapUnboundedInt nines = OffHeapUnboundedInt.of(new UnboundedInt("9".repeat(300)), arena);
+            assertEquals(new UnboundedInt("9".repeat(300)).square(), nines.multiply(nines).toUnboundedInt());
+        }
+    }
+
+    @Test
+    void closingDropsTheBuffers() {
+        OffHeapUnboundedInt.setOffHeapThreshold(1);
+        UnboundedInt value = new UnboundedInt("7".repeat(9 << 16)); // 65,536 limbs, 256 KiB
+        LimbArena arena = new LimbArena();
+        OffHeapUnboundedInt copy = OffHeapUnboundedInt.of(value, arena);
+        OffHeapUnboundedInt sum = copy.add(copy);
+        assertEquals(2 * (256L << 10) + 4, arena.getAllocatedBytes()); // the sum has one more limb than the copy
+        sum.close();
+        assertEquals(256L << 10, arena.getAllocatedBytes());
+        assertEquals(1, arena.getOffHeapCount());
+        arena.close();
+        assertEquals(0, arena.getAllocatedBytes());
+        assertEquals(0, arena.getOffHeapCount());
+        assertFalse(copy.isOpen());
+    }
+
+    @Test
+    void closingTheArenaClosesItsValues() {
+        OffHeapUnboundedInt.setOffHeapThreshold(2);
+        LimbArena arena = new LimbArena();
+        OffHeapUnboundedInt small = OffHeapUnboundedInt.of(new UnboundedInt("12345"), arena);
+        OffHeapUnboundedInt large = OffHeapUnboundedInt.of(new UnboundedInt("123456789012345678901234567890"), arena);
+        arena.close();
+        assertFalse(arena.isOpen());
+        assertFalse(small.isOpen());
+        assertFalse(large.isOpen());
+        assertEquals(0, arena.getAllocatedBytes());
+        assertThrows(IllegalStateException.class, small::toUnboundedInt);
+        assertThrows(IllegalStateException.class, () -> large.add(large));
+        assertThrows(IllegalStateException.class,
+                     () -> OffHeapUnboundedInt.of(new UnboundedInt("1"), arena));
+        arena.close();
+    }
+
+    @Test
+    void closingOneValue() {
+        OffHeapUnboundedInt.setOffHeapThreshold(2);
+        try (LimbArena arena = new LimbArena()) {
+            OffHeapUnboundedInt kept = OffHeapUnboundedInt.of(new UnboundedInt("123456789012345678901234567890"),
+                                                              arena);
+            OffHeapUnboundedInt closed = kept.multiply(1000);
+            assertEquals(2, arena.getOffHeapCount());
+            closed.close();
+            closed.close();
+            assertEquals(1, arena.getOffHeapCount());
+            assertFalse(closed.isOpen());
+            assertThrows(IllegalStateException.class, () -> closed.limbAt(0));
+            assertEquals("123,456,789,012,345,678,901,234,567,890", kept.toString());
+        }
+    }
+
+    @Test
+    void copyFromMappedFile(@TempDir Path directory) throws IOException {
+        OffHeapUnboundedInt.setOffHeapThreshold(2);
+        UnboundedInt value = new UnboundedInt("98765432109876543210987654321098765432109876543210");
+        Path file = directory.resolve("value.ubin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            UnboundedIntIO.write(value, channel);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             LimbArena arena = new LimbArena()) {
+            OffHeapUnboundedInt copy = OffHeapUnboundedInt.of(UnboundedIntIO.map(channel, 0), arena);
+            assertTrue(copy.isOffHeap());
+            assertEquals(value, copy.toUnboundedInt());
+            assertEquals(copy, OffHeapUnboundedInt.of(value, arena));
+        }
+    }
+
+    @Test
+    void invalidArguments() {
+        try (LimbArena arena = new LimbArena()) {
+            OffHeapUnboundedInt value = OffHeapUnboundedInt.of(new UnboundedInt("5"), arena);
+            assertThrows(IllegalArgumentException.class, () -> OffHeapUnboundedInt.of((UnboundedInt) null, arena));
+            assertThrows(IllegalArgumentException.class, () -> OffHeapUnboundedInt.of(new UnboundedInt("5"), null));
+            assertThrows(IllegalArgumentException.class, () -> value.add(null));
+            assertThrows(IllegalArgumentException.class, () -> value.multiply(null));
+            assertThrows(IllegalArgumentException.class, () -> value.multiply(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> value.limbAt(1));
+        }
+    }
+}
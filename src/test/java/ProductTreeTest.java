@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductTreeTest {
+    private final int parallelThreshold = ParallelArithmetic.getThreshold();
+
+    @AfterEach
+    void restoreThreshold() {
+        ParallelArithmetic.setThreshold(parallelThreshold);
+    }
+
+    private static BigInteger factorial(int n) {
+        BigInteger product = BigInteger.ONE;
+        for (int i = 2; i <= n; i++) {
+            product = product.multiply(BigInteger.valueOf(i));
+        }
+        return product;
+    }
+
+    @Test
+    void productOfMatchesBigInteger() {
+        Random random = new Random(41);
+        List<UnboundedInt> factors = new ArrayList<>();
+        BigInteger expected = BigInteger.ONE;
+        for (int i = 0; i < 300; i++) {
+            BigInteger factor = new BigInteger(1 + random.nextInt(400), random).add(BigInteger.ONE);
+            if (i % 7 == 0) {
+                factor = factor.multiply(BigInteger.TEN.pow(random.nextInt(20)));
+            }
+            factors.add(new UnboundedInt(factor.toString()));
+            expected = expected.multiply(factor);
+        }
+        assertEquals(expected.toString(), UnboundedInt.productOf(factors).toString(false));
+    }
+
+    @Test
+    void productOfInParallelMatchesBigInteger() {
+        ParallelArithmetic.setThreshold(4);
+        Random random = new Random(42);
+        List<UnboundedInt> factors = new ArrayList<>();
+        BigInteger expected = BigInteger.ONE;
+        for (int i = 0; i < 200; i++) {
+            BigInteger factor = new BigInteger(1 + random.nextInt(2000), random).add(BigInteger.ONE);
+            factors.add(new UnboundedInt(factor.toString()));
+            expected = expected.multiply(factor);
+        }
+        assertEquals(expected.toString(), UnboundedInt.productOf(factors).toString(false));
+    }
+
+    @Test
+    void productOfEdgeCases() {
+        assertEquals("1", UnboundedInt.productOf(List.of()).toString());
+        assertEquals("0", UnboundedInt.productOf(List.of(new UnboundedInt("5"), new UnboundedInt())).toString());
+        assertEquals("1,000,000", UnboundedInt.productOf(List.of(new UnboundedInt("1000"),
+                                                                 new UnboundedInt("1000"))).toString());
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.productOf(null));
+        assertThrows(IllegalArgumentException.class,
+                     () -> UnboundedInt.productOf(Arrays.asList(new UnboundedInt(), null)));
+    }
+
+    @Test
+    void emptyProductIsNotShared() {
+        UnboundedInt first = UnboundedInt.productOf(List.of());
+        first.addEnd(7);
+        assertEquals("7,001", first.toString());
+        assertEquals("1", UnboundedInt.productOf(List.of()).toString());
+    }
+
+    @Test
+    void factorialMatchesBigInteger() {
+        for (int n : new int[]{0, 1, 2, 5, 10, 24, 25, 100, 625, 3000}) {
+            assertEquals(factorial(n).toString(), UnboundedInt.factorial(n).toString(false), "n = " + n);
+        }
+        ParallelArithmetic.setThreshold(4);
+        assertEquals(factorial(5000).toString(), UnboundedInt.factorial(5000).toString(false));
+    }
+
+    @Test
+    void factorialOfNegativeNumber() {
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.factorial(-1));
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScratchArenaTest {
+    private final long retention = ScratchArena.getRetention();
+    private final int nttThreshold = LimbMultiplier.getNttThreshold();
+
+    @AfterEach
+    void restore() {
+        ScratchArena.setRetention(retention);
+        LimbMultiplier.setNttThreshold(nttThreshold);
+        ScratchArena.clear();
+    }
+
+    @Test
+    void releasedArraysAreLentAgain() {
+        ScratchArena.clear();
+        int[] array = ScratchArena.borrow(1024);
+        assertEquals(1024, array.length);
+        ScratchArena.release(array);
+        assertEquals(1024 * Integer.BYTES, ScratchArena.retainedBytes());
+        assertSame(array, ScratchArena.borrow(1024));
+        assertEquals(0, ScratchArena.retainedBytes());
+        assertNotSame(array, ScratchArena.borrow(1024));
+    }
+
+    @Test
+    void onlyPowerOfTwoLengthsAreKept() {
+        ScratchArena.clear();
+        ScratchArena.release(new int[1000]);
+        assertEquals(0, ScratchArena.retainedBytes());
+        assertEquals(1000, ScratchArena.borrow(1000).length);
+    }
+
+    @Test
+    void retentionIsBounded() {
+        ScratchArena.clear();
+        ScratchArena.setRetention(3 * 256 * Integer.BYTES);
+        for (int i = 0; i < 8; i++) {
+            ScratchArena.release(new int[256]);
+        }
+        assertEquals(3 * 256 * Integer.BYTES, ScratchArena.retainedBytes());
+        ScratchArena.release(new int[1024]); // larger than the whole retention
+        assertEquals(3 * 256 * Integer.BYTES, ScratchArena.retainedBytes());
+
+        ScratchArena.setRetention(1L << 20);
+        for (int i = 0; i < 8; i++) {
+            ScratchArena.release(new int[16]);
+        }
+        assertEquals(3 * 256 * Integer.BYTES + 4 * 16 * Integer.BYTES, ScratchArena.retainedBytes());
+        assertThrows(IllegalArgumentException.class, () -> ScratchArena.setRetention(-1));
+    }
+
+    @Test
+    void threadsDoNotShareArrays() throws InterruptedException {
+        ScratchArena.clear();
+        int[] array = ScratchArena.borrow(64);
+        ScratchArena.release(array);
+        int[][] borrowed = new int[1][];
+        Thread thread = new Thread(() -> borrowed[0] = ScratchArena.borrow(64));
+        thread.start();
+        thread.join();
+        assertNotSame(array, borrowed[0]);
+        assertSame(array, ScratchArena.borrow(64));
+    }
+
+    @Test
+    void reusedTransformBuffersGiveExactProducts() {
+        // a product that leaves large values in the buffers is followed by smaller ones that reuse them
+        LimbMultiplier.setNttThreshold(1);
+        ScratchArena.clear();
+        Random random = new Random(71);
+        for (int i = 0; i < 20; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(20000), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(20000), random);
+            UnboundedInt product = new UnboundedInt(a.toString()).multiply(new UnboundedInt(b.toString()));
+            assertEquals(a.multiply(b).toString(), product.toString(false));
+            assertTrue(ScratchArena.retainedBytes() > 0);
+        }
+        ScratchArena.setRetention(0);
+        ScratchArena.clear();
+        BigInteger a = new BigInteger(9000, random);
+        UnboundedInt x = new UnboundedInt(a.toString());
+        assertEquals(a.multiply(a).toString(), x.multiply(x).toString(false));
+        assertEquals(0, ScratchArena.retainedBytes());
+    }
+}
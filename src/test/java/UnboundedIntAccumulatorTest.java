@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnboundedIntAccumulatorTest {
+
+    @Test
+    void newAccumulatorIsZero() {
+        assertEquals(new UnboundedInt(), new UnboundedIntAccumulator().toUnboundedInt());
+    }
+
+    @Test
+    void accumulatorStartsAtInitialValue() {
+        UnboundedInt initial = new UnboundedInt("123456789012");
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator(initial);
+        accumulator.addInPlace(new UnboundedInt("1"));
+        assertEquals("123,456,789,013", accumulator.toString());
+        assertEquals("123,456,789,012", initial.toString());
+    }
+
+    @Test
+    void addInPlaceWithCarryIntoNewLimb() {
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator(1);
+        accumulator.addInPlace(new UnboundedInt("999999999")).addInPlace(new UnboundedInt("1"));
+        assertEquals("1,000,000,000", accumulator.toString());
+    }
+
+    @Test
+    void addInPlaceMatchesRepeatedAdd() {
+        Random random = new Random(17);
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator();
+        BigInteger expected = BigInteger.ZERO;
+        for (int i = 0; i < 500; i++) {
+            BigInteger value = new BigInteger(1 + random.nextInt(300), random);
+            accumulator.addInPlace(new UnboundedInt(value.toString()));
+            expected = expected.add(value);
+        }
+        assertEquals(expected.toString(), accumulator.toUnboundedInt().toString(false));
+    }
+
+    @Test
+    void addShiftedLinesUpWithLimbs() {
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator();
+        accumulator.addShifted(new UnboundedInt("5"), 2).addInPlace(new UnboundedInt("7"));
+        assertEquals("5000000000000000007", accumulator.toUnboundedInt().toString(false));
+    }
+
+    @Test
+    void multiplyAddMatchesBigInteger() {
+        Random random = new Random(19);
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator();
+        BigInteger expected = BigInteger.ZERO;
+        for (int i = 0; i < 60; i++) {
+            // sizes on both sides of the Karatsuba threshold use both the fused and the product paths
+            BigInteger a = new BigInteger(1 + random.nextInt(3000), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(3000), random);
+            accumulator.multiplyAdd(new UnboundedInt(a.toString()), new UnboundedInt(b.toString()));
+            expected = expected.add(a.multiply(b));
+        }
+        assertEquals(expected.toString(), accumulator.toUnboundedInt().toString(false));
+    }
+
+    @Test
+    void toUnboundedIntIsNotChangedByLaterAdds() {
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator();
+        accumulator.addInPlace(new UnboundedInt("10"));
+        UnboundedInt frozen = accumulator.toUnboundedInt();
+        accumulator.addInPlace(new UnboundedInt("10"));
+        assertEquals("10", frozen.toString());
+        assertEquals("20", accumulator.toString());
+    }
+
+    @Test
+    void resetKeepsBuffer() {
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator(1);
+        accumulator.addInPlace(new UnboundedInt("9".repeat(100)));
+        int capacity = accumulator.capacity();
+        accumulator.reset().addInPlace(new UnboundedInt("3"));
+        assertEquals("3", accumulator.toString());
+        assertEquals(capacity, accumulator.capacity());
+    }
+
+    @Test
+    void bufferGrowsGeometrically() {
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator(4);
+        accumulator.addInPlace(new UnboundedInt("9".repeat(45)));
+        assertTrue(accumulator.capacity() >= 8);
+    }
+
+    @Test
+    void viewAsInitialValue() {
+        // the low limbs of a longer value share its array, whose limbs past the view must not reach the buffer
+        UnboundedInt low = new UnboundedInt("555555555987654321123456789").modPowerOfThousand(3);
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator(low).addInPlace(UnboundedInt.ONE);
+        assertEquals("123,456,790", accumulator.toString());
+        UnboundedInt middle = new UnboundedInt("555555555987654321123456789").modPowerOfThousand(6);
+        accumulator = new UnboundedIntAccumulator(middle).addShifted(UnboundedInt.ONE, 2);
+        assertEquals("1987654321123456789", accumulator.toUnboundedInt().toString(false));
+    }
+
+    @Test
+    void mergeAddsTotals() {
+        UnboundedIntAccumulator first = new UnboundedIntAccumulator(1).addInPlace(new UnboundedInt("9".repeat(30)));
+        UnboundedIntAccumulator second = new UnboundedIntAccumulator().addInPlace(new UnboundedInt("1"));
+        first.merge(second);
+        assertEquals("1" + "0".repeat(30), first.toUnboundedInt().toString(false));
+        assertEquals("1", second.toString());
+        first.merge(first);
+        assertEquals("2" + "0".repeat(30), first.toUnboundedInt().toString(false));
+        assertThrows(IllegalArgumentException.class, () -> first.merge(null));
+    }
+
+    @Test
+    void nullArguments() {
+        UnboundedIntAccumulator accumulator = new UnboundedIntAccumulator();
+        assertThrows(IllegalArgumentException.class, () -> accumulator.addInPlace(null));
+        assertThrows(IllegalArgumentException.class, () -> accumulator.multiplyAdd(null, new UnboundedInt()));
+        assertThrows(IllegalArgumentException.class, () -> accumulator.addShifted(new UnboundedInt(), -1));
+        assertThrows(IllegalArgumentException.class, () -> new UnboundedIntAccumulator((UnboundedInt) null));
+    }
+}
@@ -0,0 +1,131 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnboundedIntCacheTest {
+
+    @Test
+    void repeatedMultiplyIsAHit() {
+        UnboundedIntCache cache = new UnboundedIntCache(1 << 20);
+        UnboundedInt a = new UnboundedInt("123456789123456789");
+        UnboundedInt b = new UnboundedInt("987654321987654321");
+        UnboundedInt first = cache.multiply(a, b);
+        UnboundedInt second = cache.multiply(new UnboundedInt("123456789123456789"), b);
+        assertSame(first, second);
+        assertEquals(a.multiply(b), first);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void commutativeOperandsShareAnEntry() {
+        UnboundedIntCache cache = new UnboundedIntCache(1 << 20);
+        UnboundedInt a = new UnboundedInt("31415926535");
+        UnboundedInt b = new UnboundedInt("27182818284");
+        cache.add(a, b);
+        cache.add(b, a);
+        cache.multiply(b, a);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void powAndApplyAreKeyedByOperation() {
+        UnboundedIntCache cache = new UnboundedIntCache(1 << 20);
+        UnboundedInt a = new UnboundedInt("1000000007");
+        UnboundedInt b = new UnboundedInt("97");
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals(a.mod(b), cache.apply("mod", a, b, (x, y) -> {
+            calls.incrementAndGet();
+            return x.mod(y);
+        }));
+        cache.apply("mod", a, b, UnboundedInt::mod);
+        assertEquals(1, calls.get());
+        assertEquals(a.pow(3), cache.pow(a, 3));
+        assertNotEquals(cache.pow(a, 2), cache.pow(a, 3));
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void weightStaysWithinTheLimit() {
+        UnboundedIntCache cache = new UnboundedIntCache(64 * 1024);
+        UnboundedInt big = new UnboundedInt("7".repeat(2000));
+        for (int i = 0; i < 200; i++) {
+            cache.multiply(big, new UnboundedInt(Integer.toString(i + 2)));
+            assertTrue(cache.getWeight() <= cache.getMaxWeight());
+        }
+        assertTrue(cache.getEvictionCount() > 0);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    void resultsTooLargeForTheCacheAreNotStored() {
+        UnboundedIntCache cache = new UnboundedIntCache(1024);
+        UnboundedInt big = new UnboundedInt("9".repeat(5000));
+        assertEquals(big.square(), cache.multiply(big, big));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void entriesLargerThanOneSegmentAreStored() {
+        // the limit belongs to the whole cache, not to each of its 16 segments
+        UnboundedIntCache cache = new UnboundedIntCache(64 * 1024);
+        UnboundedInt big = new UnboundedInt("9".repeat(9000)); // a square of about 8 KiB, over 64 KiB / 16
+        UnboundedInt square = cache.multiply(big, big);
+        assertEquals(1, cache.size());
+        assertSame(square, cache.multiply(big, big));
+        assertEquals(1, cache.getHitCount());
+
+        UnboundedInt other = new UnboundedInt("8".repeat(90000)); // about 80 KiB in all, over the whole limit
+        cache.multiply(other, other);
+        assertEquals(1, cache.size());
+        for (int i = 0; i < 12; i++) {
+            cache.multiply(big, new UnboundedInt("7".repeat(9000 + i)));
+            assertTrue(cache.getWeight() <= cache.getMaxWeight());
+        }
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    void sharedBetweenThreads() throws Exception {
+        UnboundedIntCache cache = new UnboundedIntCache(1 << 22);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> checks = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int value = i % 20;
+                checks.add(executor.submit(() -> {
+                    UnboundedInt a = new UnboundedInt(value + "123456789123456789");
+                    return cache.multiply(a, a).equals(a.multiply(a));
+                }));
+            }
+            for (Future<Boolean> check : checks) {
+                assertTrue(check.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertEquals(400, cache.getHitCount() + cache.getMissCount());
+        assertEquals(20, cache.size());
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new UnboundedIntCache(0));
+        UnboundedIntCache cache = new UnboundedIntCache(1024);
+        assertThrows(IllegalArgumentException.class, () -> cache.multiply(null, new UnboundedInt()));
+        assertThrows(IllegalArgumentException.class, () -> cache.pow(new UnboundedInt(), -1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> cache.apply("nothing", new UnboundedInt(), new UnboundedInt(), (x, y) -> null));
+    }
+}
@@ -0,0 +1,117 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnboundedIntExpressionTest {
+    private final int parallelThreshold = ParallelArithmetic.getThreshold();
+
+    @AfterEach
+    void restoreThreshold() {
+        ParallelArithmetic.setThreshold(parallelThreshold);
+    }
+
+    private static UnboundedInt of(BigInteger value) {
+        return new UnboundedInt(value.toString());
+    }
+
+    @Test
+    void chainMatchesBigInteger() {
+        Random random = new Random(91);
+        BigInteger expected = new BigInteger(300, random);
+        UnboundedIntExpression expression = of(expected).lazy();
+        for (int i = 0; i < 200; i++) {
+            BigInteger operand = new BigInteger(1 + random.nextInt(400), random);
+            if (random.nextInt(3) == 0) {
+                expected = expected.multiply(operand);
+                expression = expression.multiply(of(operand));
+            }
+            else {
+                expected = expected.add(operand);
+                expression = expression.add(of(operand));
+            }
+        }
+        assertFalse(expression.isEvaluated());
+        assertEquals(expected.toString(), expression.evaluate().toString(false));
+        assertTrue(expression.isEvaluated());
+    }
+
+    @Test
+    void sharedAndRepeatedSubexpressions() {
+        UnboundedInt a = new UnboundedInt("123456789123456789");
+        UnboundedInt b = new UnboundedInt("987654321987654321987");
+        UnboundedInt c = new UnboundedInt("5");
+        UnboundedIntExpression sum = a.lazy().add(b);
+        // the same sum built twice with its operands swapped, used as a term, a factor and a square
+        UnboundedIntExpression swapped = b.lazy().add(a);
+        UnboundedIntExpression expression = sum.multiply(swapped).add(sum).add(swapped).multiply(c).add(sum.multiply(sum));
+        BigInteger s = new BigInteger("123456789123456789").add(new BigInteger("987654321987654321987"));
+        BigInteger expected = s.multiply(s).add(s).add(s).multiply(BigInteger.valueOf(5)).add(s.multiply(s));
+        assertEquals(expected.toString(), expression.evaluate().toString(false));
+        assertFalse(sum.isEvaluated());
+    }
+
+    @Test
+    void productsWithZeroAndFusedTerms() {
+        UnboundedInt a = new UnboundedInt("999999999999999999999");
+        UnboundedInt b = new UnboundedInt("888888888888");
+        UnboundedIntExpression expression = a.lazy().multiply(b).add(b.lazy().multiply(b)).add(a.lazy().multiply(a));
+        BigInteger x = new BigInteger("999999999999999999999");
+        BigInteger y = new BigInteger("888888888888");
+        assertEquals(x.multiply(y).add(y.multiply(y)).add(x.multiply(x)).toString(),
+                     expression.evaluate().toString(false));
+        assertEquals("0", a.lazy().multiply(b).multiply(new UnboundedInt("0")).add(b).multiply(new UnboundedInt("0"))
+                           .evaluate().toString());
+    }
+
+    @Test
+    void independentSubtreesInParallel() {
+        ParallelArithmetic.setThreshold(8);
+        Random random = new Random(92);
+        List<BigInteger> values = new ArrayList<>();
+        UnboundedIntExpression expression = null;
+        BigInteger expected = BigInteger.ZERO;
+        for (int i = 0; i < 16; i++) {
+            BigInteger x = new BigInteger(3000, random);
+            BigInteger y = new BigInteger(2000, random);
+            BigInteger z = new BigInteger(100, random);
+            values.add(x);
+            UnboundedIntExpression term = of(x).lazy().multiply(of(y)).multiply(of(z)).add(of(y));
+            expression = expression == null ? term : expression.add(term);
+            expected = expected.add(x.multiply(y).multiply(z).add(y));
+        }
+        assertEquals(expected.toString(), expression.evaluate().toString(false));
+    }
+
+    @Test
+    void longChainsDoNotOverflowTheStack() {
+        UnboundedIntExpression expression = new UnboundedInt("1").lazy();
+        for (int i = 0; i < 200000; i++) {
+            expression = expression.add(UnboundedInt.valueOf(i));
+        }
+        String text = expression.toString();
+        assertEquals("(".repeat(200000) + "1 + 0) + 1) + 2)", text.substring(0, 200016));
+        assertTrue(text.endsWith(" + 199998) + 199999)"));
+        assertEquals(String.valueOf(1 + 199999L * 200000 / 2), expression.evaluate().toString(false));
+    }
+
+    @Test
+    void leavesAreSnapshots() {
+        UnboundedInt a = new UnboundedInt("12");
+        UnboundedIntExpression expression = a.lazy().add(new UnboundedInt("30"));
+        a.addEnd(345);
+        assertEquals("(12 + 30)", expression.toString());
+        UnboundedInt value = expression.evaluate();
+        value.addEnd(0);
+        assertEquals("42", expression.evaluate().toString());
+        assertEquals("42", expression.toString());
+        assertThrows(IllegalArgumentException.class, () -> UnboundedIntExpression.of(null));
+        assertThrows(IllegalArgumentException.class, () -> expression.add((UnboundedInt) null));
+        assertThrows(IllegalArgumentException.class, () -> expression.multiply((UnboundedIntExpression) null));
+    }
+}
@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnboundedIntIOTest {
+
+    @Test
+    void bufferRoundTrip() {
+        UnboundedInt value = new UnboundedInt("123456789012345678901234567890");
+        ByteBuffer buffer = ByteBuffer.allocate((int) UnboundedIntIO.serializedSize(value) + 3);
+        buffer.put((byte) 7);
+        UnboundedIntIO.write(value, buffer);
+        assertEquals(1 + UnboundedIntIO.serializedSize(value), buffer.position());
+        buffer.flip();
+        buffer.get();
+        assertEquals(value, UnboundedIntIO.read(buffer));
+        assertEquals(1 + UnboundedIntIO.serializedSize(value), buffer.position());
+    }
+
+    @Test
+    void headerAndLimbsAreLittleEndian() {
+        UnboundedInt value = new UnboundedInt("2000000001");
+        ByteBuffer buffer = ByteBuffer.allocate((int) UnboundedIntIO.serializedSize(value));
+        UnboundedIntIO.write(value, buffer);
+        assertArrayEquals(new byte[]{'U', 'B', 'I', 'N'}, java.util.Arrays.copyOf(buffer.array(), 4));
+        buffer.flip().order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(2, buffer.getInt(12));
+        assertEquals(1, buffer.getInt(16));
+        assertEquals(2, buffer.getInt(20));
+    }
+
+    @Test
+    void channelRoundTrip() throws IOException {
+        // large enough to take several transfer blocks
+        UnboundedInt value = new UnboundedInt(new BigInteger(3000000, new Random(29)).toString());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        UnboundedIntIO.write(value, Channels.newChannel(bytes));
+        assertEquals(UnboundedIntIO.serializedSize(value), bytes.size());
+        UnboundedInt read = UnboundedIntIO.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(value, read);
+    }
+
+    @Test
+    void mappedFileRoundTrip(@TempDir Path directory) throws IOException {
+        UnboundedInt first = new UnboundedInt("98765432109876543210");
+        UnboundedInt second = new UnboundedInt("42");
+        Path file = directory.resolve("values.bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            UnboundedIntIO.write(first, channel);
+            UnboundedIntIO.write(second, channel);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedUnboundedInt mapped = UnboundedIntIO.map(channel, 0);
+            assertEquals(3, mapped.limbCount());
+            assertEquals(876543210, mapped.limbAt(0));
+            assertEquals(first, mapped.toUnboundedInt());
+            MappedUnboundedInt next = UnboundedIntIO.map(channel, UnboundedIntIO.serializedSize(first));
+            assertEquals("42", next.toString());
+            assertThrows(IndexOutOfBoundsException.class, () -> next.limbAt(1));
+        }
+    }
+
+    @Test
+    void invalidData() {
+        assertThrows(IllegalArgumentException.class, () -> UnboundedIntIO.read(ByteBuffer.allocate(8)));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedIntIO.read(ByteBuffer.allocate(32)));
+
+        UnboundedInt value = new UnboundedInt("123");
+        ByteBuffer buffer = ByteBuffer.allocate((int) UnboundedIntIO.serializedSize(value));
+        UnboundedIntIO.write(value, buffer);
+        buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(16, UnboundedInt.BASE);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> UnboundedIntIO.read(buffer));
+
+        buffer.putInt(16, 123).putShort(4, (short) 2);
+        assertThrows(IllegalArgumentException.class, () -> UnboundedIntIO.read(buffer));
+
+        assertThrows(IOException.class,
+                     () -> UnboundedIntIO.read(Channels.newChannel(new ByteArrayInputStream(new byte[10]))));
+    }
+
+    @Test
+    void hugeLengthInATruncatedHeader(@TempDir Path directory) throws IOException {
+        // a header claiming about 8 GiB of limbs in front of just one limb must fail without allocating that much
+        UnboundedInt value = new UnboundedInt("123");
+        ByteBuffer buffer = ByteBuffer.allocate((int) UnboundedIntIO.serializedSize(value));
+        UnboundedIntIO.write(value, buffer);
+        buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(12, Integer.MAX_VALUE);
+        byte[] bytes = buffer.array();
+
+        assertThrows(EOFException.class,
+                     () -> UnboundedIntIO.read(Channels.newChannel(new ByteArrayInputStream(bytes))));
+
+        Path file = directory.resolve("huge.ubin");
+        Files.write(file, bytes);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(IllegalArgumentException.class, () -> UnboundedIntIO.read(channel));
+        }
+    }
+}
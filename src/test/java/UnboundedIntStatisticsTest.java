@@ -0,0 +1,114 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnboundedIntStatisticsTest {
+
+    @AfterEach
+    void uninstall() {
+        UnboundedIntMetrics.install(null);
+    }
+
+    @Test
+    void recordsOperationsOnceInstalled() throws IOException {
+        UnboundedInt a = new UnboundedInt("123456789012345678901234567890");
+        UnboundedIntStatistics statistics = new UnboundedIntStatistics();
+        UnboundedIntMetrics.install(statistics);
+        assertSame(statistics, UnboundedIntMetrics.installed());
+
+        UnboundedInt b = new UnboundedInt("987654321");
+        a.add(b);
+        a.add(5);
+        a.multiply(b);
+        a.multiply(7);
+        a.toString();
+        UnboundedInt.fromInputStream(new ByteArrayInputStream("1234567890".getBytes()));
+        a.toIntNodeList();
+
+        assertEquals(2, statistics.getCount(UnboundedIntMetrics.Operation.ADD));
+        assertEquals(2, statistics.getCount(UnboundedIntMetrics.Operation.MULTIPLY));
+        assertEquals(2, statistics.getCount(UnboundedIntMetrics.Operation.PARSE));
+        assertEquals(1, statistics.getCount(UnboundedIntMetrics.Operation.TO_STRING));
+        assertEquals(10, statistics.getAllocatedNodes());
+        assertTrue(statistics.getAllocatedLimbs() > 0);
+        // the larger operand of both multiplications has 4 limbs
+        assertEquals(2, statistics.getOperandSizeHistogram(UnboundedIntMetrics.Operation.MULTIPLY)[3]);
+        long[] latency = statistics.getLatencyHistogram(UnboundedIntMetrics.Operation.ADD);
+        assertEquals(2, java.util.Arrays.stream(latency).sum());
+        assertTrue(statistics.getTotalNanos(UnboundedIntMetrics.Operation.ADD) > 0);
+        assertTrue(statistics.toString().startsWith("ADD       count=2"));
+
+        statistics.reset();
+        assertEquals(0, statistics.getCount(UnboundedIntMetrics.Operation.ADD));
+        assertEquals(0, statistics.getAllocatedNodes());
+    }
+
+    @Test
+    void squaresAndPowersAreRecorded() {
+        UnboundedInt a = new UnboundedInt("123456789012345678901234567890");
+        UnboundedIntStatistics statistics = new UnboundedIntStatistics();
+        UnboundedIntMetrics.install(statistics);
+
+        a.square();
+        assertEquals(1, statistics.getCount(UnboundedIntMetrics.Operation.MULTIPLY));
+        assertEquals(1, statistics.getOperandSizeHistogram(UnboundedIntMetrics.Operation.MULTIPLY)[3]);
+        // 5 is 101 in binary, so two squarings and one multiplication by a
+        a.pow(5);
+        assertEquals(4, statistics.getCount(UnboundedIntMetrics.Operation.MULTIPLY));
+        a.add(7);
+        a.multiply(7);
+        assertEquals(1, statistics.getCount(UnboundedIntMetrics.Operation.ADD));
+        assertEquals(5, statistics.getCount(UnboundedIntMetrics.Operation.MULTIPLY));
+    }
+
+    @Test
+    void nothingIsRecordedOnceUninstalled() {
+        UnboundedIntStatistics statistics = new UnboundedIntStatistics();
+        UnboundedIntMetrics.install(statistics);
+        UnboundedIntMetrics.install(null);
+        new UnboundedInt("12345").add(new UnboundedInt("678"));
+        assertNull(UnboundedIntMetrics.installed());
+        assertEquals(0, statistics.getCount(UnboundedIntMetrics.Operation.ADD));
+        assertEquals(0, statistics.getCount(UnboundedIntMetrics.Operation.PARSE));
+    }
+
+    @Test
+    void bucketsArePowersOfTwo() {
+        assertEquals(0, UnboundedIntStatistics.bucketOf(0));
+        assertEquals(1, UnboundedIntStatistics.bucketOf(1));
+        assertEquals(2, UnboundedIntStatistics.bucketOf(3));
+        assertEquals(11, UnboundedIntStatistics.bucketOf(1500));
+        assertEquals(63, UnboundedIntStatistics.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void emitsFlightRecorderEvents(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("operations.jfr");
+        UnboundedInt a = new UnboundedInt("123456789012345678901234567890");
+        try (Recording recording = new Recording()) {
+            recording.enable("UnboundedInt.Operation");
+            recording.start();
+            a.multiply(a);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                                                  .filter(e -> e.getEventType().getName()
+                                                                .equals("UnboundedInt.Operation"))
+                                                  .toList();
+        assertEquals(1, events.size());
+        assertEquals("MULTIPLY", events.get(0).getString("operation"));
+        assertEquals(4, events.get(0).getInt("leftLimbs"));
+        assertEquals(8, events.get(0).getInt("resultLimbs"));
+    }
+}
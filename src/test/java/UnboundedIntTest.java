@@ -1,5 +1,12 @@
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UnboundedIntTest {
@@ -121,4 +128,314 @@ class UnboundedIntTest {
         UnboundedInt unboundedInt = new UnboundedInt("1123456");
         assertEquals("1,123,456", unboundedInt.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void addEndAcrossLimbBoundary() {
+        UnboundedInt unboundedInt = new UnboundedInt("123456789");
+        unboundedInt.addEnd(42);
+        assertEquals("42,123,456,789", unboundedInt.toString());
+    }
+
+    @Test
+    void toStringWithZeroGroupsInsideLimb() {
+        UnboundedInt unboundedInt = new UnboundedInt("1000000000000000007");
+        assertEquals("1,000,000,000,000,000,007", unboundedInt.toString());
+    }
+
+    @Test
+    void equalsIgnoresLeadingZeros() {
+        assertEquals(new UnboundedInt("000000000000123"), new UnboundedInt("123"));
+    }
+
+    @Test
+    void intNodeListRoundTrip() {
+        UnboundedInt unboundedInt = new UnboundedInt("98765432109876543210");
+        IntNode head = unboundedInt.toIntNodeList();
+        assertEquals(7, IntNode.listLength(head));
+        assertEquals(210, head.getData());
+        assertEquals(unboundedInt, UnboundedInt.fromIntNodeList(head));
+    }
+
+    @Test
+    void fromIntNodeListWithEmptyList() {
+        assertEquals(new UnboundedInt(), UnboundedInt.fromIntNodeList(null));
+    }
+
+    @Test
+    void cloneIsIndependentOfOriginal() {
+        UnboundedInt unboundedInt = new UnboundedInt("999999999");
+        UnboundedInt clone = unboundedInt.clone();
+        clone.addEnd(1);
+        assertEquals("999,999,999", unboundedInt.toString());
+        assertEquals("1,999,999,999", clone.toString());
+    }
+
+    @Test
+    void addAndMultiplyMatchBigInteger() {
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(600), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(600), random);
+            UnboundedInt x = new UnboundedInt(a.toString());
+            UnboundedInt y = new UnboundedInt(b.toString());
+            assertEquals(a.add(b).toString(), x.add(y).toString().replace(",", ""));
+            assertEquals(a.multiply(b).toString(), x.multiply(y).toString().replace(",", ""));
+        }
+    }
+
+    @Test
+    void unboundedIntConstructorWithMinusSignOnly() {
+        assertThrows(IllegalArgumentException.class, () -> new UnboundedInt("-"));
+    }
+
+    @Test
+    void unboundedIntConstructorReportsDigitsBeforeSign() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new UnboundedInt("-12x4"));
+        assertEquals("UnboundedInt must only contain digits", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> new UnboundedInt("-1234"));
+        assertEquals("UnboundedInt must be a positive number", e.getMessage());
+    }
+
+    @Test
+    void unboundedIntConstructorWithNonDigitInHighLimb() {
+        assertThrows(IllegalArgumentException.class, () -> new UnboundedInt("1+2345678901234567890"));
+    }
+
+    @Test
+    void unboundedIntConstructorWithManyDigits() {
+        String digits = "1234567890".repeat(10000);
+        assertEquals(new BigInteger(digits).toString(), new UnboundedInt(digits).toString().replace(",", ""));
+    }
+
+    @Test
+    void toStringWithoutCommasOfManyDigits() {
+        String digits = "1234567890".repeat(100000);
+        assertEquals(digits, new UnboundedInt(digits).toString(false));
+    }
+
+    @Test
+    void toStringWithoutCommas() {
+        assertEquals("1000000000123", new UnboundedInt("1000000000123").toString(false));
+        assertEquals("0", new UnboundedInt().toString(false));
+    }
+
+    @Test
+    void toStringOfZero() {
+        assertEquals("0", new UnboundedInt("000").toString());
+    }
+
+    @Test
+    void toStringWithCommasAtEveryGroupSize() {
+        assertEquals("12", new UnboundedInt("12").toString());
+        assertEquals("1,234", new UnboundedInt("1234").toString());
+        assertEquals("12,345,678,901", new UnboundedInt("12345678901").toString());
+        assertEquals("123,456,789,012", new UnboundedInt("123456789012").toString());
+    }
+
+    @Test
+    void powMatchesBigInteger() {
+        Random random = new Random(21);
+        for (int i = 0; i < 30; i++) {
+            BigInteger base = new BigInteger(1 + random.nextInt(300), random);
+            int exponent = random.nextInt(60);
+            assertEquals(base.pow(exponent).toString(), new UnboundedInt(base.toString()).pow(exponent).toString(false));
+        }
+    }
+
+    @Test
+    void powOfNumbersEndingInZeros() {
+        assertEquals("1" + "000".repeat(250), new UnboundedInt("1000").pow(250).toString(false));
+        assertEquals("1" + "0".repeat(9 * 40), new UnboundedInt("1000000000").pow(40).toString(false));
+        BigInteger base = new BigInteger("12345000000000000");
+        assertEquals(base.pow(37).toString(), new UnboundedInt(base.toString()).pow(37).toString(false));
+    }
+
+    @Test
+    void powEdgeCases() {
+        assertEquals("1", new UnboundedInt().pow(0).toString());
+        assertEquals("0", new UnboundedInt().pow(5).toString());
+        assertEquals("1", new UnboundedInt("1").pow(1000000).toString());
+        assertEquals("123456789", new UnboundedInt("123456789").pow(1).toString(false));
+        assertThrows(IllegalArgumentException.class, () -> new UnboundedInt("2").pow(-1));
+    }
+
+    @Test
+    void hashCodeIsConsistentWithEquals() {
+        UnboundedInt a = new UnboundedInt("000123456789123456789");
+        UnboundedInt b = new UnboundedInt("123456789").multiply(new UnboundedInt("1000000001"));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a.hashCode(), a.clone().hashCode());
+        assertEquals(new UnboundedInt().hashCode(), new UnboundedInt("0").hashCode());
+    }
+
+    @Test
+    void hashCodeChangesWithAddEnd() {
+        UnboundedInt a = new UnboundedInt("123");
+        int before = a.hashCode();
+        a.addEnd(456);
+        assertEquals(new UnboundedInt("456123"), a);
+        assertEquals(new UnboundedInt("456123").hashCode(), a.hashCode());
+        assertNotEquals(before, a.hashCode());
+    }
+
+    @Test
+    void valueOfMatchesStringConstructor() {
+        for (long value : new long[]{0, 7, 999, 1000, 1023, 1024, 999999999L, 1000000000L, 123456789012345678L,
+                                     999999999999999999L, 1000000000000000000L, Long.MAX_VALUE}) {
+            assertEquals(new UnboundedInt(Long.toString(value)), UnboundedInt.valueOf(value));
+            assertEquals(value, UnboundedInt.valueOf(value).longValueExact());
+        }
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.valueOf(-1));
+    }
+
+    @Test
+    void valueOfSharesSmallValues() {
+        assertEquals(UnboundedInt.ZERO, UnboundedInt.valueOf(0));
+        assertEquals(UnboundedInt.ONE, UnboundedInt.valueOf(1));
+        assertEquals(UnboundedInt.TEN, UnboundedInt.valueOf(10));
+        assertSame(UnboundedInt.valueOf(500).getLimbs(), UnboundedInt.valueOf(500).getLimbs());
+        assertEquals("10", UnboundedInt.TEN.toString());
+    }
+
+    @Test
+    void addEndDoesNotChangeSharedSmallValues() {
+        UnboundedInt seven = UnboundedInt.valueOf(7);
+        seven.addEnd(1);
+        assertEquals("1,007", seven.toString());
+        assertEquals("7", UnboundedInt.valueOf(7).toString());
+        assertThrows(IllegalStateException.class, () -> UnboundedInt.ONE.addEnd(0));
+        UnboundedInt one = UnboundedInt.ONE.clone();
+        one.addEnd(2);
+        assertEquals("2,001", one.toString());
+        UnboundedInt zero = UnboundedInt.valueOf(0);
+        zero.addEnd(5);
+        assertEquals("5,000", zero.toString());
+        assertEquals("1", UnboundedInt.ONE.toString());
+        assertEquals("0", UnboundedInt.ZERO.toString());
+        assertTrue(UnboundedInt.ZERO.isZero());
+        assertEquals(UnboundedInt.valueOf(7), new UnboundedInt("7"));
+    }
+
+    @Test
+    void addAndMultiplyLongMatchBigInteger() {
+        Random random = new Random(51);
+        for (int i = 0; i < 50; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(500), random);
+            long b = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            UnboundedInt unboundedA = new UnboundedInt(a.toString());
+            assertEquals(a.add(BigInteger.valueOf(b)).toString(), unboundedA.add(b).toString(false));
+            assertEquals(a.multiply(BigInteger.valueOf(b)).toString(), unboundedA.multiply(b).toString(false));
+        }
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.ONE.add(-1L));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.ONE.multiply(-1L));
+    }
+
+    @Test
+    void longValueExactOfTooLargeValue() {
+        BigInteger tooLarge = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+        assertThrows(ArithmeticException.class, () -> new UnboundedInt(tooLarge.toString()).longValueExact());
+        assertThrows(ArithmeticException.class, () -> new UnboundedInt("1" + "0".repeat(30)).longValueExact());
+    }
+
+    @Test
+    void cloneSharesLimbsUntilAddEnd() {
+        UnboundedInt original = new UnboundedInt("123456789012345678901234567890");
+        UnboundedInt clone = original.clone();
+        assertSame(original.getLimbs(), clone.getLimbs());
+        clone.addEnd(456);
+        assertEquals("456,123,456,789,012,345,678,901,234,567,890", clone.toString());
+        assertEquals("123,456,789,012,345,678,901,234,567,890", original.toString());
+        original.addEnd(7);
+        assertEquals("7,123,456,789,012,345,678,901,234,567,890", original.toString());
+        assertEquals("456,123,456,789,012,345,678,901,234,567,890", clone.toString());
+    }
+
+    @Test
+    void powerOfThousandViewsMatchBigInteger() {
+        Random random = new Random(52);
+        BigInteger thousand = BigInteger.valueOf(1000);
+        for (int i = 0; i < 200; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(600), random);
+            UnboundedInt value = new UnboundedInt(a.toString());
+            int groups = random.nextInt(80);
+            BigInteger scale = thousand.pow(groups);
+            UnboundedInt shifted = value.multiplyByPowerOfThousand(groups);
+            UnboundedInt dropped = value.divideByPowerOfThousand(groups);
+            UnboundedInt kept = value.modPowerOfThousand(groups);
+            assertEquals(a.multiply(scale).toString(), shifted.toString(false));
+            assertEquals(a.divide(scale).toString(), dropped.toString(false));
+            assertEquals(a.mod(scale).toString(), kept.toString(false));
+            // views of views, and arithmetic on them
+            int more = random.nextInt(80);
+            BigInteger moreScale = thousand.pow(more);
+            assertEquals(a.multiply(scale).divide(moreScale).toString(),
+                         shifted.divideByPowerOfThousand(more).toString(false));
+            assertEquals(a.multiply(scale).mod(moreScale).toString(),
+                         shifted.modPowerOfThousand(more).toString(false));
+            assertEquals(a.multiply(scale).add(a).toString(), shifted.add(value).toString(false));
+            assertEquals(a.add(a.multiply(scale)).toString(), value.add(shifted).toString(false));
+            assertEquals(a.divide(scale).multiply(a).toString(), dropped.multiply(value).toString(false));
+            assertEquals(new UnboundedInt(a.multiply(scale).toString()), shifted);
+            assertEquals(new UnboundedInt(a.multiply(scale).toString()).hashCode(), shifted.hashCode());
+        }
+    }
+
+    @Test
+    void viewsShareLimbsAndCopyOnWrite() {
+        UnboundedInt value = new UnboundedInt("111222333444555666777888999");
+        UnboundedInt low = value.modPowerOfThousand(6);
+        assertSame(value.getLimbs(), low.getLimbs());
+        assertEquals("444,555,666,777,888,999", low.toString());
+        low.addEnd(5);
+        assertEquals("5,444,555,666,777,888,999", low.toString());
+        assertEquals("111,222,333,444,555,666,777,888,999", value.toString());
+
+        UnboundedInt shifted = value.multiplyByPowerOfThousand(3);
+        assertEquals(value.groupCount() + 3, shifted.groupCount());
+        shifted.addEnd(1);
+        assertEquals("1,111,222,333,444,555,666,777,888,999,000,000,000", shifted.toString());
+        assertEquals("111,222,333,444,555,666,777,888,999", value.toString());
+
+        assertEquals("0", new UnboundedInt("5000000000").modPowerOfThousand(3).toString());
+        assertEquals("0", UnboundedInt.ZERO.multiplyByPowerOfThousand(9).toString());
+        assertThrows(IllegalArgumentException.class, () -> value.multiplyByPowerOfThousand(-1));
+        assertThrows(IllegalArgumentException.class, () -> value.divideByPowerOfThousand(-1));
+        assertThrows(IllegalArgumentException.class, () -> value.modPowerOfThousand(-1));
+    }
+
+    @Test
+    void sumOfStreamMatchesBigInteger() {
+        Random random = new Random(81);
+        List<BigInteger> values = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            values.add(new BigInteger(1 + random.nextInt(600), random));
+        }
+        BigInteger expected = values.stream().reduce(BigInteger.ZERO, BigInteger::add);
+        List<UnboundedInt> unboundedInts = values.stream().map(v -> new UnboundedInt(v.toString())).toList();
+        assertEquals(expected.toString(), UnboundedInt.sum(unboundedInts.stream()).toString(false));
+        assertEquals(expected.toString(), UnboundedInt.sum(unboundedInts.parallelStream()).toString(false));
+        assertEquals(expected.toString(),
+                     unboundedInts.parallelStream().collect(UnboundedInt.summing()).toString(false));
+        assertEquals(expected.toString(), UnboundedInt.sumAll(unboundedInts.toArray(new UnboundedInt[0]))
+                                                      .toString(false));
+        assertEquals("0", UnboundedInt.sum(Stream.empty()).toString());
+    }
+
+    @Test
+    void sumAllCarriesThroughColumns() {
+        UnboundedInt nines = new UnboundedInt("9".repeat(50));
+        UnboundedInt[] values = new UnboundedInt[1000];
+        Arrays.fill(values, nines);
+        values[3] = new UnboundedInt("0");
+        values[7] = nines.multiplyByPowerOfThousand(3).divideByPowerOfThousand(6); // a view of the upper limbs
+        BigInteger big = new BigInteger("9".repeat(50));
+        BigInteger expected = big.multiply(BigInteger.valueOf(998)).add(big.divide(BigInteger.TEN.pow(9)));
+        assertEquals(expected.toString(), UnboundedInt.sumAll(values).toString(false));
+        assertEquals("0", UnboundedInt.sumAll(new UnboundedInt[0]).toString());
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.sumAll(null));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.sumAll(new UnboundedInt[]{null}));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.sum(null));
+        assertThrows(IllegalArgumentException.class, () -> UnboundedInt.sum(Stream.of(nines, null)));
+    }
+}